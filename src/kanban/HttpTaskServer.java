@@ -6,41 +6,98 @@ import com.sun.net.httpserver.HttpServer;
 import kanban.http.handlers.*;
 import kanban.http.adapters.DurationAdapter;
 import kanban.http.adapters.LocalDateTimeAdapter;
+import kanban.http.sse.ChangeFeed;
+import kanban.http.sse.SseBroadcaster;
+import kanban.managers.DeadlineNotifier;
+import kanban.managers.EventLoopTaskManager;
+import kanban.managers.LockingTaskManager;
 import kanban.managers.Managers;
+import kanban.managers.ShardedTaskManager;
 import kanban.managers.TaskManager;
+import kanban.metrics.MetricsRegistry;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.time.Clock;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class HttpTaskServer {
 
     public static final int PORT = 8080;
 
     private final HttpServer httpServer;
+    private final ExecutorService executor;
+    private final TaskManager manager;
+    private final ChangeFeed changeFeed;
+    private final SseBroadcaster broadcaster;
+    private final DeadlineNotifier deadlineNotifier;
 
     public HttpTaskServer(TaskManager manager) throws IOException {
+        this(manager, Managers.getSharded());
+    }
+
+    // Запросы обрабатываются параллельно, поэтому общий менеджер закрывается блокировкой, если он
+    // сам не потокобезопасен, а доски из ShardedTaskManager блокируются каждая по отдельности
+    public HttpTaskServer(TaskManager manager, ShardedTaskManager boards) throws IOException {
+        this.manager = manager instanceof LockingTaskManager || manager instanceof EventLoopTaskManager
+                ? manager
+                : new LockingTaskManager(manager);
+        changeFeed = new ChangeFeed();
+        broadcaster = new SseBroadcaster(changeFeed);
+        this.manager.addAsyncListener(changeFeed);
+
+        // сервер еще не принимает запросы, поэтому между подпиской и заполнением задачи не меняются
+        deadlineNotifier = new DeadlineNotifier(Clock.systemDefaultZone());
+        deadlineNotifier.addListener(changeFeed);
+        this.manager.addListener(deadlineNotifier);
+        deadlineNotifier.track(this.manager.getTasks());
+        deadlineNotifier.track(this.manager.getEpics());
+        deadlineNotifier.track(this.manager.getSubtasks());
+
         httpServer = HttpServer.create(new InetSocketAddress(PORT), 0);
-        httpServer.createContext("/", new HomeHandler(manager));
-        httpServer.createContext("/tasks", new TaskHandler(manager));
-        httpServer.createContext("/subtasks", new SubtaskHandler(manager));
-        httpServer.createContext("/epics", new EpicHandler(manager));
-        httpServer.createContext("/history", new HistoryHandler(manager));
-        httpServer.createContext("/prioritized", new PrioritizedHandler(manager));
+        httpServer.createContext("/", new HomeHandler(this.manager));
+        httpServer.createContext("/tasks", new TaskHandler(this.manager));
+        httpServer.createContext("/subtasks", new SubtaskHandler(this.manager));
+        httpServer.createContext("/epics", new EpicHandler(this.manager));
+        httpServer.createContext("/history", new HistoryHandler(this.manager));
+        httpServer.createContext("/prioritized", new PrioritizedHandler(this.manager));
+        httpServer.createContext("/search", new SearchHandler(this.manager));
+        httpServer.createContext("/conflicts", new ConflictsHandler(this.manager));
+        httpServer.createContext("/overdue", new OverdueHandler(this.manager));
+        httpServer.createContext("/stats", new StatsHandler(this.manager));
+        httpServer.createContext("/events", new EventsHandler(broadcaster));
+        httpServer.createContext("/metrics", new MetricsHandler(MetricsRegistry.getDefault()));
+        httpServer.createContext("/boards", new BoardHandler(boards));
+
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        httpServer.setExecutor(executor);
     }
 
     public static void main(String[] args) throws IOException {
-        HttpTaskServer server = new HttpTaskServer(Managers.getFileManager());
+        HttpTaskServer server = new HttpTaskServer(Managers.getAsyncFileManager());
         server.start();
     }
 
     public void start() {
+        deadlineNotifier.start();
         httpServer.start();
     }
 
     public void stop() {
+        manager.removeListener(changeFeed);
+        manager.removeListener(deadlineNotifier);
+        deadlineNotifier.close();
+        broadcaster.close();
         httpServer.stop(1);
+        executor.shutdown();
+    }
+
+    // Слушатели сроков можно добавить и помимо потока /events
+    public DeadlineNotifier getDeadlineNotifier() {
+        return deadlineNotifier;
     }
 
     public static Gson getGson() {
@@ -0,0 +1,95 @@
+package kanban.http;
+
+import kanban.metrics.Counter;
+import kanban.metrics.LatencyHistogram;
+import kanban.metrics.MetricsRegistry;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Время обработки и коды ответов по маршрутам и методам. Метрики создаются при первом запросе
+// к маршруту, дальше запись сводится к чтению из массивов
+public class HttpMetrics {
+
+    private static final String[] METHODS = {"GET", "POST", "DELETE", "OTHER"};
+    private static final int MAX_STATUS_CODE = 599;
+    private static final int MAX_TRACKED_CONNECTIONS = 4096;
+
+    private final MetricsRegistry registry;
+    private final Map<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+    private final Counter requests;
+    private final Counter connections;
+    private final Map<InetSocketAddress, Boolean> knownConnections = new ConcurrentHashMap<>();
+
+    public HttpMetrics(MetricsRegistry registry) {
+        this.registry = registry;
+        this.requests = registry.counter("http_requests_total", "Количество HTTP-запросов");
+        this.connections = registry.counter("http_connections_total",
+                "Количество новых соединений, определенных по адресу и порту клиента");
+    }
+
+    // Сервер не сообщает об открытии и закрытии соединений, поэтому новое соединение узнаем по незнакомому
+    // адресу клиента. Набор адресов ограничен: после очистки живое соединение будет посчитано еще раз
+    public void recordConnection(InetSocketAddress remoteAddress) {
+        requests.increment();
+        if (knownConnections.putIfAbsent(remoteAddress, Boolean.TRUE) == null) {
+            connections.increment();
+            if (knownConnections.size() > MAX_TRACKED_CONNECTIONS) {
+                knownConnections.clear();
+            }
+        }
+    }
+
+    public void record(String route, String method, int code, long nanos) {
+        RouteMetrics metrics = routes.get(route);
+        if (metrics == null) {
+            metrics = routes.computeIfAbsent(route, RouteMetrics::new);
+        }
+
+        int methodIndex = indexOf(method);
+        metrics.latency(methodIndex).record(nanos);
+        metrics.responses(methodIndex, code).increment();
+    }
+
+    private static int indexOf(String method) {
+        return switch (method) {
+            case "GET" -> 0;
+            case "POST" -> 1;
+            case "DELETE" -> 2;
+            default -> 3;
+        };
+    }
+
+    private class RouteMetrics {
+        private final String route;
+        private final LatencyHistogram[] latencies = new LatencyHistogram[METHODS.length];
+        private final Counter[][] responses = new Counter[METHODS.length][MAX_STATUS_CODE + 1];
+
+        private RouteMetrics(String route) {
+            this.route = route;
+        }
+
+        // Гонка при первом обращении безопасна: реестр вернет одну и ту же метрику
+        private LatencyHistogram latency(int method) {
+            LatencyHistogram histogram = latencies[method];
+            if (histogram == null) {
+                histogram = registry.histogram("http_request_duration_seconds",
+                        "Время обработки HTTP-запроса", "route", route, "method", METHODS[method]);
+                latencies[method] = histogram;
+            }
+            return histogram;
+        }
+
+        private Counter responses(int method, int code) {
+            int index = code < 0 || code > MAX_STATUS_CODE ? 0 : code;
+            Counter counter = responses[method][index];
+            if (counter == null) {
+                counter = registry.counter("http_responses_total", "Количество HTTP-ответов по кодам",
+                        "route", route, "method", METHODS[method], "code", String.valueOf(index));
+                responses[method][index] = counter;
+            }
+            return counter;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package kanban.http;
+
+import com.google.gson.Gson;
+import kanban.HttpTaskServer;
+import kanban.http.util.GzipEncoding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+// Хранит сериализованную коллекцию для последней запрошенной версии. Пока версия коллекции в менеджере
+// не изменилась, тело ответа повторно не сериализуется и не сжимается
+public class ResponseCache {
+
+    private static final Gson GSON = HttpTaskServer.getGson();
+
+    private final String tagPrefix;
+    private volatile CachedBody cached;
+
+    public ResponseCache(String name) {
+        // метка экземпляра, чтобы ETag не совпадал с выданными до перезапуска сервера
+        this.tagPrefix = name + "-" + Long.toHexString(System.currentTimeMillis());
+    }
+
+    public CachedBody get(long version, Supplier<?> collection) {
+        CachedBody current = cached;
+        if (current == null || current.version() != version) {
+            byte[] body = GSON.toJson(collection.get()).getBytes(StandardCharsets.UTF_8);
+            current = new CachedBody(version, "\"" + tagPrefix + "-" + version + "\"", body);
+            cached = current;
+        }
+        return current;
+    }
+
+    public static class CachedBody {
+
+        private final long version;
+        private final String etag;
+        private final byte[] body;
+        private volatile byte[] gzipBody;
+
+        CachedBody(long version, String etag, byte[] body) {
+            this.version = version;
+            this.etag = etag;
+            this.body = body;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public String etag() {
+            return etag;
+        }
+
+        // ETag сжатого представления: тот же тег с суффиксом -gz внутри кавычек
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+
+        public byte[] body() {
+            return body;
+        }
+
+        // Сжатое тело считается при первом запросе с gzip и дальше переиспользуется
+        public byte[] gzipBody() {
+            byte[] result = gzipBody;
+            if (result == null) {
+                result = GzipEncoding.compress(body);
+                gzipBody = result;
+            }
+            return result;
+        }
+    }
+}
@@ -3,15 +3,20 @@ package kanban.http;
 import com.google.gson.Gson;
 import kanban.HttpTaskServer;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
 public class ResponseEntity {
 
+    public static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+    public static final String HTML_CONTENT_TYPE = "text/html; charset=utf-8";
+
     private static final Gson GSON = HttpTaskServer.getGson();
 
     private final int code;
-    private final String message;
+    private String message;
+    private byte[] body;
     private final Map<String, String> headers = new HashMap<>();
 
     public ResponseEntity(int code, Object message, Map<String, String> headers) {
@@ -28,9 +33,9 @@ public class ResponseEntity {
         this.headers.putAll(headers);
         if (this.headers.get("Content-Type") == null && message != null) {
             if (message instanceof String) {
-                this.headers.put("Content-Type", "text/html; charset=utf-8");
+                this.headers.put("Content-Type", HTML_CONTENT_TYPE);
             } else {
-                this.headers.put("Content-Type", "application/json; charset=utf-8");
+                this.headers.put("Content-Type", JSON_CONTENT_TYPE);
             }
         }
     }
@@ -43,14 +48,31 @@ public class ResponseEntity {
         this(code, null, Map.of());
     }
 
+    // Ответ с уже сериализованным телом, например, взятым из кеша
+    public static ResponseEntity ofBytes(int code, byte[] body, Map<String, String> headers) {
+        ResponseEntity response = new ResponseEntity(code, null, headers);
+        response.body = body;
+        return response;
+    }
+
     public int getCode() {
         return code;
     }
 
     public String getMessage() {
+        if (message == null && body != null) {
+            message = new String(body, StandardCharsets.UTF_8);
+        }
         return message;
     }
 
+    public byte[] getBody() {
+        if (body == null && message != null) {
+            body = message.getBytes(StandardCharsets.UTF_8);
+        }
+        return body;
+    }
+
     public Map<String, String> getHeaders() {
         return headers;
     }
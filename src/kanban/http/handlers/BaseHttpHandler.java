@@ -4,19 +4,39 @@ import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import kanban.HttpTaskServer;
+import kanban.http.HttpMetrics;
+import kanban.http.ResponseCache;
 import kanban.http.ResponseEntity;
+import kanban.http.util.GzipEncoding;
+import kanban.http.util.PathMatcher;
+import kanban.http.util.QueryParameters;
+import kanban.metrics.MetricsRegistry;
+import kanban.tasks.TaskStatus;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 
 public class BaseHttpHandler implements HttpHandler {
 
     protected static Gson GSON = HttpTaskServer.getGson();
 
+    private static final HttpMetrics METRICS = new HttpMetrics(MetricsRegistry.getDefault());
+    private static final String ROUTE_ATTRIBUTE = "kanban.route";
+
     @Override
     public void handle(HttpExchange exchange) throws IOException {
 
+        long start = System.nanoTime();
+        int code = 500;
         String method = exchange.getRequestMethod();
+        METRICS.recordConnection(exchange.getRemoteAddress());
         System.out.println("Началась обработка " + exchange.getRequestURI() + " (" + method + ") от клиента.");
 
         try {
@@ -27,31 +47,67 @@ public class BaseHttpHandler implements HttpHandler {
                 default -> getBadRequest(exchange);
             };
 
+            code = response.getCode();
             sendResponse(exchange, response);
 
         } catch (Exception e) {
             e.printStackTrace();
+            code = 500;
             sendResponse(exchange, new ResponseEntity(500, "Ошибка при обработке запроса"));
+        } finally {
+            METRICS.record(getRoute(exchange), method, code, System.nanoTime() - start);
         }
     }
 
     protected void sendResponse(HttpExchange exchange, ResponseEntity response) throws IOException {
 
+        drainRequestBody(exchange);
+
         response.getHeaders()
                 .forEach((header, value) ->
                         exchange.getResponseHeaders().add(header, value));
 
-        if (response.getMessage() == null) {
+        // длина ответа всегда известна заранее, чтобы соединение можно было использовать повторно
+        byte[] resp = response.getBody();
+        if (resp == null) {
             exchange.sendResponseHeaders(response.getCode(), -1);
         } else {
-            byte[] resp = response.getMessage().getBytes(StandardCharsets.UTF_8);
-            exchange.sendResponseHeaders(response.getCode(), resp.length);
+            if (shouldCompress(exchange, response, resp)) {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                exchange.getResponseHeaders().add("Vary", "Accept-Encoding");
+                resp = GzipEncoding.compress(resp);
+            }
+            exchange.sendResponseHeaders(response.getCode(), resp.length == 0 ? -1 : resp.length);
             exchange.getResponseBody().write(resp);
         }
 
         exchange.close();
     }
 
+    // Сервер сам дочитывает только небольшой остаток тела, а при большем закрывает соединение
+    protected static void drainRequestBody(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    // Тело разбирается прямо из потока, без промежуточной строки. Поток не закрываем: остаток тела
+    // дочитывается при отправке ответа
+    protected <T> T readBody(HttpExchange exchange, Class<T> type) {
+        Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8);
+        return GSON.fromJson(reader, type);
+    }
+
+    private boolean shouldCompress(HttpExchange exchange, ResponseEntity response, byte[] body) {
+        return body.length >= GzipEncoding.MIN_SIZE
+                && !response.getHeaders().containsKey("Content-Encoding")
+                && acceptsGzip(exchange);
+    }
+
+    protected boolean acceptsGzip(HttpExchange h) {
+        return GzipEncoding.isAccepted(h.getRequestHeaders().getFirst("Accept-Encoding"));
+    }
+
     protected ResponseEntity handleGet(HttpExchange h) {
         return getBadRequest(h);
     }
@@ -64,6 +120,86 @@ public class BaseHttpHandler implements HttpHandler {
         return getBadRequest(h);
     }
 
+    // Отдает коллекцию из кеша по ее версии; если клиент прислал актуальный ETag, то отвечает 304 без тела.
+    // Сжатое и несжатое тело - разные представления, поэтому у каждого свой ETag
+    protected ResponseEntity getCachedCollection(HttpExchange h, ResponseCache cache, long version,
+                                                 Supplier<?> collection) {
+
+        ResponseCache.CachedBody cached = cache.get(version, collection);
+        boolean isCompressible = cached.body().length >= GzipEncoding.MIN_SIZE;
+        boolean isGzip = isCompressible && acceptsGzip(h);
+        String etag = isGzip ? cached.gzipEtag() : cached.etag();
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("ETag", etag);
+        if (isCompressible) {
+            headers.put("Vary", "Accept-Encoding");
+        }
+
+        if (isNotModified(h, etag)) {
+            return new ResponseEntity(304, null, headers);
+        }
+
+        headers.put("Content-Type", ResponseEntity.JSON_CONTENT_TYPE);
+        if (isGzip) {
+            headers.put("Content-Encoding", "gzip");
+            return ResponseEntity.ofBytes(200, cached.gzipBody(), headers);
+        }
+
+        return ResponseEntity.ofBytes(200, cached.body(), headers);
+    }
+
+    private boolean isNotModified(HttpExchange h, String etag) {
+        String ifNoneMatch = h.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Совпавший шаблон запоминается в запросе: по нему, а не по самому пути, считаются метрики маршрута
+    protected PathMatcher matchPath(HttpExchange h, String... pathPatterns) {
+        PathMatcher matcher = PathMatcher.with(h.getRequestURI().getPath());
+        for (String pathPattern : pathPatterns) {
+            matcher.match(pathPattern);
+        }
+        if (matcher.getMatchedPath() != null) {
+            h.setAttribute(ROUTE_ATTRIBUTE, matcher.getMatchedPath());
+        }
+        return matcher;
+    }
+
+    // Метка маршрута: шаблон пути с {id} вместо значений, чтобы число меток не росло с числом задач.
+    // Запросы, не совпавшие ни с одним шаблоном, учитываются по пути контекста
+    private static String getRoute(HttpExchange h) {
+        Object route = h.getAttribute(ROUTE_ATTRIBUTE);
+        if (route == null) {
+            return h.getHttpContext().getPath();
+        }
+        return h instanceof BoardExchange ? BoardExchange.ROUTE_PREFIX + route : (String) route;
+    }
+
+    protected QueryParameters getQueryParameters(HttpExchange h) {
+        return QueryParameters.of(h.getRequestURI().getRawQuery());
+    }
+
+    // Возвращает null, если параметр status не передан; на неизвестный статус бросает IllegalArgumentException
+    protected TaskStatus getStatusParameter(HttpExchange h) {
+        return getQueryParameters(h).get("status")
+                .map(TaskStatus::valueOf)
+                .orElse(null);
+    }
+
     protected ResponseEntity getBadRequest(HttpExchange h) {
         return new ResponseEntity(400,"Неизвестный запрос " + h.getRequestURI() + " ("
                 + h.getRequestMethod() + ")");
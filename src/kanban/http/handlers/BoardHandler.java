@@ -0,0 +1,119 @@
+package kanban.http.handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import kanban.exceptions.ManagerSaveException;
+import kanban.http.ResponseEntity;
+import kanban.http.util.PathMatcher;
+import kanban.managers.ShardedTaskManager;
+import kanban.managers.TaskManager;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// Маршрутизирует /boards/{board}/... в обработчики задач этой доски. У каждой доски свои обработчики,
+// а значит и свои кеши ответов; они хранятся в записи доски и удаляются вместе с ней
+public class BoardHandler extends BaseHttpHandler {
+
+    private static final String PREFIX = "/boards/";
+
+    private static final Set<String> RESOURCES = Set.of("tasks", "subtasks", "epics", "history", "prioritized",
+            "search", "conflicts", "overdue", "stats");
+
+    private final ShardedTaskManager boards;
+
+    public BoardHandler(ShardedTaskManager boards) {
+        this.boards = boards;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+
+        String rawPath = exchange.getRequestURI().getRawPath();
+        if (!rawPath.startsWith(PREFIX)) {
+            super.handle(exchange);
+            return;
+        }
+
+        int resourceStart = rawPath.indexOf('/', PREFIX.length());
+        if (resourceStart < 0) {
+            super.handle(exchange);
+            return;
+        }
+
+        String board = rawPath.substring(PREFIX.length(), resourceStart);
+        String resourcePath = rawPath.substring(resourceStart);
+        String resource = getResource(resourcePath);
+
+        if (!ShardedTaskManager.isValidBoard(board) || !RESOURCES.contains(resource)) {
+            super.handle(exchange);
+            return;
+        }
+
+        // Новую доску создает только запись, чтение несуществующей доски не оставляет после себя пустую
+        Optional<ShardedTaskManager.Board> found;
+        try {
+            found = exchange.getRequestMethod().equals("POST")
+                    ? Optional.of(boards.getOrCreate(board))
+                    : boards.findBoard(board);
+        } catch (ManagerSaveException e) {
+            sendResponse(exchange, new ResponseEntity(406, e.getMessage()));
+            return;
+        }
+
+        if (found.isEmpty()) {
+            sendResponse(exchange, new ResponseEntity(404, "Доска не найдена"));
+            return;
+        }
+
+        HttpHandler handler = found.get().getAttachment(this, BoardHandler::createHandlers).get(resource);
+        handler.handle(new BoardExchange(exchange, resourcePath));
+    }
+
+    @Override
+    protected ResponseEntity handleGet(HttpExchange exchange) {
+
+        PathMatcher matcher = matchPath(exchange, "/boards");
+
+        if (matcher.getMatchedPath() == null || !matcher.getMatchedPath().equals("/boards")) {
+            return getBadRequest(exchange);
+        }
+
+        return new ResponseEntity(200, boards.getBoards());
+    }
+
+    @Override
+    protected ResponseEntity handleDelete(HttpExchange exchange) {
+
+        PathMatcher matcher = matchPath(exchange, "/boards/{board}");
+
+        if (matcher.getMatchedPath() == null || !matcher.getMatchedPath().equals("/boards/{board}")) {
+            return getBadRequest(exchange);
+        }
+
+        String board = matcher.getPathParameters().getFirst();
+        return boards.removeBoard(board)
+                ? new ResponseEntity(200)
+                : new ResponseEntity(404, "Доска не найдена");
+    }
+
+    private static Map<String, HttpHandler> createHandlers(TaskManager manager) {
+        return Map.of(
+                "tasks", new TaskHandler(manager),
+                "subtasks", new SubtaskHandler(manager),
+                "epics", new EpicHandler(manager),
+                "history", new HistoryHandler(manager),
+                "prioritized", new PrioritizedHandler(manager),
+                "search", new SearchHandler(manager),
+                "conflicts", new ConflictsHandler(manager),
+                "overdue", new OverdueHandler(manager),
+                "stats", new StatsHandler(manager));
+    }
+
+    private static String getResource(String resourcePath) {
+        int end = resourcePath.indexOf('/', 1);
+        return end < 0 ? resourcePath.substring(1) : resourcePath.substring(1, end);
+    }
+}
@@ -0,0 +1,51 @@
+package kanban.http.handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+import kanban.http.ResponseCache;
+import kanban.http.ResponseEntity;
+import kanban.http.util.PathMatcher;
+import kanban.managers.TaskManager;
+import kanban.util.ConflictReport;
+
+import java.util.Optional;
+
+// GET /conflicts[?limit=<пар>] - пересечения в расписании. Отчет с лимитом по умолчанию
+// кешируется по версии приоритетного списка
+public class ConflictsHandler extends BaseHttpHandler {
+
+    private static final int DEFAULT_PAIR_LIMIT = 1000;
+
+    private final TaskManager manager;
+    private final ResponseCache cache = new ResponseCache("conflicts");
+
+    public ConflictsHandler(TaskManager manager) {
+        this.manager = manager;
+    }
+
+    @Override
+    protected ResponseEntity handleGet(HttpExchange exchange) {
+
+        PathMatcher matcher = matchPath(exchange, "/conflicts");
+
+        if (matcher.getMatchedPath() == null || !matcher.getMatchedPath().equals("/conflicts")) {
+            return getBadRequest(exchange);
+        }
+
+        Optional<Integer> limit;
+        try {
+            limit = getQueryParameters(exchange).get("limit").map(Integer::parseInt);
+        } catch (NumberFormatException e) {
+            return getBadRequest(exchange);
+        }
+
+        if (limit.isPresent() && limit.get() < 0) {
+            return getBadRequest(exchange);
+        }
+
+        if (limit.isEmpty()) {
+            return getCachedCollection(exchange, cache, manager.getPrioritizedVersion(),
+                    () -> ConflictReport.of(manager.getPrioritizedTasks(), DEFAULT_PAIR_LIMIT));
+        }
+        return new ResponseEntity(200, ConflictReport.of(manager.getPrioritizedTasks(), limit.get()));
+    }
+}
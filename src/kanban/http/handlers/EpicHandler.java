@@ -2,21 +2,23 @@ package kanban.http.handlers;
 
 import com.sun.net.httpserver.HttpExchange;
 import kanban.exceptions.ManagerSaveException;
+import kanban.http.ResponseCache;
 import kanban.http.ResponseEntity;
 import kanban.http.util.PathMatcher;
 import kanban.managers.TaskManager;
 import kanban.tasks.Epic;
 import kanban.tasks.Subtask;
+import kanban.tasks.TaskStatus;
+import kanban.tasks.TaskType;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
 public class EpicHandler extends BaseHttpHandler {
 
     private final TaskManager manager;
+    private final ResponseCache cache = new ResponseCache("epics");
 
     public EpicHandler(TaskManager manager) {
         this.manager = manager;
@@ -25,10 +27,7 @@ public class EpicHandler extends BaseHttpHandler {
     @Override
     protected ResponseEntity handleGet(HttpExchange exchange) {
 
-        PathMatcher matcher = PathMatcher.with(exchange.getRequestURI().getPath())
-                .match("/epics")
-                .match("/epics/{id}")
-                .match("/epics/{id}/subtasks");
+        PathMatcher matcher = matchPath(exchange, "/epics", "/epics/{id}", "/epics/{id}/subtasks");
 
         if (matcher.getMatchedPath() == null) {
             return getBadRequest(exchange);
@@ -36,8 +35,18 @@ public class EpicHandler extends BaseHttpHandler {
 
         return switch (matcher.getMatchedPath()) {
             case "/epics" -> {
-                List<Epic> tasks = manager.getEpics();
-                yield new ResponseEntity(200, tasks);
+                TaskStatus status;
+                try {
+                    status = getStatusParameter(exchange);
+                } catch (IllegalArgumentException e) {
+                    yield getBadRequest(exchange);
+                }
+
+                if (status != null) {
+                    yield new ResponseEntity(200, manager.getByStatus(TaskType.EPIC, status));
+                }
+
+                yield getCachedCollection(exchange, cache, manager.getVersion(TaskType.EPIC), manager::getEpics);
             }
             case "/epics/{id}" -> {
                 String id = matcher.getPathParameters().getFirst();
@@ -62,17 +71,13 @@ public class EpicHandler extends BaseHttpHandler {
 
     @Override
     public ResponseEntity handlePost(HttpExchange exchange) throws IOException {
-        PathMatcher matcher = PathMatcher.with(exchange.getRequestURI().getPath())
-                .match("/epics");
+        PathMatcher matcher = matchPath(exchange, "/epics");
 
         if (matcher.getMatchedPath() == null || !matcher.getMatchedPath().equals("/epics")) {
             return getBadRequest(exchange);
         }
 
-        InputStream inputStream = exchange.getRequestBody();
-        String body = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
-
-        Epic epic = GSON.fromJson(body, Epic.class);
+        Epic epic = readBody(exchange, Epic.class);
 
         try {
             manager.saveEpic(epic);
@@ -85,8 +90,7 @@ public class EpicHandler extends BaseHttpHandler {
     @Override
     protected ResponseEntity handleDelete(HttpExchange exchange) {
 
-        PathMatcher matcher = PathMatcher.with(exchange.getRequestURI().getPath())
-                .match("/epics/{id}");
+        PathMatcher matcher = matchPath(exchange, "/epics/{id}");
 
         if (matcher.getMatchedPath() == null || !matcher.getMatchedPath().equals("/epics/{id}")) {
             return getBadRequest(exchange);
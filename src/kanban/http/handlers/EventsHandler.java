@@ -0,0 +1,46 @@
+package kanban.http.handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+import kanban.http.sse.SseBroadcaster;
+import kanban.http.util.PathMatcher;
+
+import java.io.IOException;
+import java.util.Optional;
+
+public class EventsHandler extends BaseHttpHandler {
+
+    private final SseBroadcaster broadcaster;
+
+    public EventsHandler(SseBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    // Соединение не закрывается: дальше в него пишет SseBroadcaster
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+
+        PathMatcher matcher = matchPath(exchange, "/events");
+
+        if (!exchange.getRequestMethod().equals("GET") || matcher.getMatchedPath() == null) {
+            super.handle(exchange);
+            return;
+        }
+
+        Long lastEventId;
+        try {
+            lastEventId = getLastEventId(exchange);
+        } catch (NumberFormatException e) {
+            sendResponse(exchange, getBadRequest(exchange));
+            return;
+        }
+
+        broadcaster.subscribe(exchange, lastEventId);
+    }
+
+    // Браузер при переподключении присылает заголовок Last-Event-ID, остальным клиентам удобнее параметр
+    private Long getLastEventId(HttpExchange exchange) {
+        Optional<String> lastEventId = Optional.ofNullable(exchange.getRequestHeaders().getFirst("Last-Event-ID"))
+                .or(() -> getQueryParameters(exchange).get("lastEventId"));
+        return lastEventId.map(Long::parseLong).orElse(null);
+    }
+}
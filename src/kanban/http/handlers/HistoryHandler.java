@@ -19,8 +19,7 @@ public class HistoryHandler extends BaseHttpHandler {
     @Override
     protected ResponseEntity handleGet(HttpExchange exchange) {
 
-        PathMatcher matcher = PathMatcher.with(exchange.getRequestURI().getPath())
-                .match("/history");
+        PathMatcher matcher = matchPath(exchange, "/history");
 
         if (matcher.getMatchedPath() == null || !matcher.getMatchedPath().equals("/history")) {
             return getBadRequest(exchange);
@@ -6,9 +6,12 @@ import kanban.managers.TaskManager;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 public class HomeHandler implements HttpHandler {
 
+    private static final byte[] RESPONSE = "home".getBytes(StandardCharsets.UTF_8);
+
     private final TaskManager manager;
 
     public HomeHandler(TaskManager manager) {
@@ -17,11 +20,11 @@ public class HomeHandler implements HttpHandler {
 
     @Override
     public void handle(HttpExchange exchange) throws IOException {
+        BaseHttpHandler.drainRequestBody(exchange);
         exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
-        exchange.sendResponseHeaders(200, 0);
-        String response = "home";
+        exchange.sendResponseHeaders(200, RESPONSE.length);
         try (OutputStream os = exchange.getResponseBody()) {
-            os.write(response.getBytes());
+            os.write(RESPONSE);
         }
     }
 }
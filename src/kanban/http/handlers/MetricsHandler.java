@@ -0,0 +1,29 @@
+package kanban.http.handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+import kanban.http.ResponseEntity;
+import kanban.http.util.PathMatcher;
+import kanban.metrics.MetricsRegistry;
+
+import java.util.Map;
+
+public class MetricsHandler extends BaseHttpHandler {
+
+    private final MetricsRegistry registry;
+
+    public MetricsHandler(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected ResponseEntity handleGet(HttpExchange exchange) {
+
+        PathMatcher matcher = matchPath(exchange, "/metrics");
+
+        if (matcher.getMatchedPath() == null || !matcher.getMatchedPath().equals("/metrics")) {
+            return getBadRequest(exchange);
+        }
+
+        return new ResponseEntity(200, registry.scrape(), Map.of("Content-Type", MetricsRegistry.CONTENT_TYPE));
+    }
+}
@@ -0,0 +1,72 @@
+package kanban.http.handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+import kanban.http.ResponseEntity;
+import kanban.http.adapters.LocalDateTimeAdapter;
+import kanban.http.util.PathMatcher;
+import kanban.http.util.QueryParameters;
+import kanban.managers.TaskManager;
+import kanban.tasks.Task;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// GET /overdue[?now=<время>][&limit=<задач>][&afterEndTime=<время>&afterId=<id>] - просроченные задачи
+// по времени окончания. Если страница заполнена, в ответе есть next - параметры следующей страницы
+public class OverdueHandler extends BaseHttpHandler {
+
+    private static final int DEFAULT_LIMIT = 100;
+
+    private final TaskManager manager;
+
+    public OverdueHandler(TaskManager manager) {
+        this.manager = manager;
+    }
+
+    @Override
+    protected ResponseEntity handleGet(HttpExchange exchange) {
+
+        PathMatcher matcher = matchPath(exchange, "/overdue");
+
+        if (matcher.getMatchedPath() == null || !matcher.getMatchedPath().equals("/overdue")) {
+            return getBadRequest(exchange);
+        }
+
+        QueryParameters params = getQueryParameters(exchange);
+        LocalDateTime now;
+        LocalDateTime afterEndTime;
+        int afterId;
+        int limit;
+        try {
+            now = params.get("now").map(OverdueHandler::parseTime).orElseGet(LocalDateTime::now);
+            afterEndTime = params.get("afterEndTime").map(OverdueHandler::parseTime).orElse(null);
+            afterId = params.get("afterId").map(Integer::parseInt).orElse(0);
+            limit = params.get("limit").map(Integer::parseInt).orElse(DEFAULT_LIMIT);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return getBadRequest(exchange);
+        }
+
+        if (limit < 0) {
+            return getBadRequest(exchange);
+        }
+
+        List<Task> tasks = manager.getOverdue(now, afterEndTime, afterId, limit);
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("tasks", tasks);
+        if (limit > 0 && tasks.size() == limit) {
+            Task last = tasks.getLast();
+            Map<String, Object> next = new LinkedHashMap<>();
+            next.put("afterEndTime", last.getEndTime());
+            next.put("afterId", last.getId());
+            page.put("next", next);
+        }
+        return new ResponseEntity(200, page);
+    }
+
+    private static LocalDateTime parseTime(String value) {
+        return LocalDateTime.parse(value, LocalDateTimeAdapter.FORMATTER);
+    }
+}
@@ -1,16 +1,33 @@
 package kanban.http.handlers;
 
 import com.sun.net.httpserver.HttpExchange;
+import kanban.http.ResponseCache;
 import kanban.http.ResponseEntity;
+import kanban.http.adapters.LocalDateTimeAdapter;
 import kanban.http.util.PathMatcher;
+import kanban.http.util.QueryParameters;
 import kanban.managers.TaskManager;
 import kanban.tasks.Task;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
 
 public class PrioritizedHandler extends BaseHttpHandler {
 
+    // порядок расстановки для параметра by; без параметра задачи идут по id
+    private static final Map<String, Comparator<Task>> PRIORITIES = Map.of(
+            "duration", Comparator.comparing(Task::getDuration),
+            "name", Comparator.comparing(Task::getName, Comparator.nullsLast(Comparator.naturalOrder())));
+
     private final TaskManager manager;
+    private final ResponseCache cache = new ResponseCache("prioritized");
 
     public PrioritizedHandler(TaskManager manager) {
         this.manager = manager;
@@ -19,15 +36,83 @@ public class PrioritizedHandler extends BaseHttpHandler {
     @Override
     protected ResponseEntity handleGet(HttpExchange exchange) {
 
-        PathMatcher matcher = PathMatcher.with(exchange.getRequestURI().getPath())
-                .match("/prioritized");
+        PathMatcher matcher = matchPath(exchange, "/prioritized", "/prioritized/free-slot");
+
+        if (matcher.getMatchedPath() == null) {
+            return getBadRequest(exchange);
+        }
+
+        return switch (matcher.getMatchedPath()) {
+            case "/prioritized" -> getCachedCollection(exchange, cache, manager.getPrioritizedVersion(),
+                    manager::getPrioritizedTasks);
+            case "/prioritized/free-slot" -> findFreeSlot(exchange);
+            default -> getBadRequest(exchange);
+        };
+    }
+
+    // POST /prioritized/schedule?notBefore=<время>[&by=duration|name] - расставляет задачи без времени начала
+    @Override
+    protected ResponseEntity handlePost(HttpExchange exchange) {
+
+        PathMatcher matcher = matchPath(exchange, "/prioritized/schedule");
+
+        if (matcher.getMatchedPath() == null) {
+            return getBadRequest(exchange);
+        }
+
+        QueryParameters params = getQueryParameters(exchange);
+        LocalDateTime notBefore;
+        try {
+            notBefore = params.get("notBefore").map(PrioritizedHandler::parseTime).orElse(null);
+        } catch (DateTimeParseException e) {
+            return getBadRequest(exchange);
+        }
+
+        if (notBefore == null) {
+            return new ResponseEntity(400, "Нужен параметр notBefore");
+        }
+
+        Optional<String> by = params.get("by");
+        if (by.isPresent() && !PRIORITIES.containsKey(by.get())) {
+            return new ResponseEntity(400, "Параметр by может быть только " + String.join(" или ",
+                    new TreeSet<>(PRIORITIES.keySet())));
+        }
+
+        List<Task> scheduled = manager.scheduleUnscheduled(notBefore, by.map(PRIORITIES::get).orElse(null));
+        return new ResponseEntity(200, scheduled);
+    }
+
+    // GET /prioritized/free-slot?duration=<минуты>&notBefore=<время>[&notAfter=<время>]
+    private ResponseEntity findFreeSlot(HttpExchange exchange) {
 
-        if (matcher.getMatchedPath() == null || !matcher.getMatchedPath().equals("/prioritized")) {
+        QueryParameters params = getQueryParameters(exchange);
+        Duration duration;
+        LocalDateTime notBefore;
+        LocalDateTime notAfter;
+        try {
+            duration = params.get("duration").map(Long::parseLong).map(Duration::ofMinutes).orElse(null);
+            notBefore = params.get("notBefore").map(PrioritizedHandler::parseTime).orElse(null);
+            notAfter = params.get("notAfter").map(PrioritizedHandler::parseTime).orElse(null);
+        } catch (NumberFormatException | DateTimeParseException e) {
             return getBadRequest(exchange);
-        } else {
-            List<Task> tasks = manager.getPrioritizedTasks();
-            return new ResponseEntity(200, tasks);
         }
 
+        if (duration == null || duration.isNegative() || notBefore == null) {
+            return new ResponseEntity(400, "Нужны параметры duration (минуты, не меньше 0) и notBefore");
+        }
+
+        Optional<LocalDateTime> startTime = manager.findFreeSlot(duration, notBefore, notAfter);
+        if (startTime.isEmpty()) {
+            return new ResponseEntity(404, "Свободное время не найдено");
+        }
+
+        Map<String, LocalDateTime> slot = new LinkedHashMap<>();
+        slot.put("startTime", startTime.get());
+        slot.put("endTime", startTime.get().plus(duration));
+        return new ResponseEntity(200, slot);
+    }
+
+    private static LocalDateTime parseTime(String value) {
+        return LocalDateTime.parse(value, LocalDateTimeAdapter.FORMATTER);
     }
 }
@@ -0,0 +1,54 @@
+package kanban.http.handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+import kanban.http.ResponseEntity;
+import kanban.http.util.PathMatcher;
+import kanban.http.util.QueryParameters;
+import kanban.managers.TaskManager;
+import kanban.tasks.Task;
+
+import java.util.List;
+import java.util.Optional;
+
+public class SearchHandler extends BaseHttpHandler {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final TaskManager manager;
+
+    public SearchHandler(TaskManager manager) {
+        this.manager = manager;
+    }
+
+    @Override
+    protected ResponseEntity handleGet(HttpExchange exchange) {
+
+        PathMatcher matcher = matchPath(exchange, "/search");
+
+        if (matcher.getMatchedPath() == null || !matcher.getMatchedPath().equals("/search")) {
+            return getBadRequest(exchange);
+        }
+
+        QueryParameters params = getQueryParameters(exchange);
+        Optional<String> query = params.get("q").filter(q -> !q.isBlank());
+        if (query.isEmpty()) {
+            return new ResponseEntity(400, "Не задан поисковый запрос q");
+        }
+
+        int offset;
+        int limit;
+        try {
+            offset = params.get("offset").map(Integer::parseInt).orElse(0);
+            limit = params.get("limit").map(Integer::parseInt).orElse(DEFAULT_LIMIT);
+        } catch (NumberFormatException e) {
+            return getBadRequest(exchange);
+        }
+
+        if (offset < 0 || limit < 0) {
+            return getBadRequest(exchange);
+        }
+
+        List<Task> tasks = manager.search(query.get(), offset, limit);
+        return new ResponseEntity(200, tasks);
+    }
+}
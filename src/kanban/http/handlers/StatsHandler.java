@@ -0,0 +1,69 @@
+package kanban.http.handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+import kanban.http.ResponseEntity;
+import kanban.http.util.PathMatcher;
+import kanban.http.util.QueryParameters;
+import kanban.managers.TaskManager;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+
+public class StatsHandler extends BaseHttpHandler {
+
+    private static final int MAX_BUCKETS = 10_000;
+
+    private final TaskManager manager;
+
+    public StatsHandler(TaskManager manager) {
+        this.manager = manager;
+    }
+
+    @Override
+    protected ResponseEntity handleGet(HttpExchange exchange) {
+
+        PathMatcher matcher = matchPath(exchange, "/stats", "/stats/utilization");
+
+        if (matcher.getMatchedPath() == null) {
+            return getBadRequest(exchange);
+        }
+
+        return switch (matcher.getMatchedPath()) {
+            case "/stats" -> new ResponseEntity(200, manager.getStats());
+            case "/stats/utilization" -> getUtilization(exchange);
+            default -> getBadRequest(exchange);
+        };
+    }
+
+    // GET /stats/utilization?from=<дата>&to=<дата>[&bucket=day|week] - занятые и свободные минуты по корзинам,
+    // to включительно
+    private ResponseEntity getUtilization(HttpExchange exchange) {
+
+        QueryParameters params = getQueryParameters(exchange);
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = params.get("from").map(LocalDate::parse).orElse(null);
+            to = params.get("to").map(LocalDate::parse).orElse(null);
+        } catch (DateTimeParseException e) {
+            return getBadRequest(exchange);
+        }
+
+        ChronoUnit bucket = switch (params.get("bucket").orElse("day")) {
+            case "day" -> ChronoUnit.DAYS;
+            case "week" -> ChronoUnit.WEEKS;
+            default -> null;
+        };
+
+        if (from == null || to == null || to.isBefore(from) || bucket == null) {
+            return new ResponseEntity(400, "Нужны параметры from и to (to не раньше from), bucket - day или week");
+        }
+
+        if (bucket.between(from, to.plusDays(1)) >= MAX_BUCKETS) {
+            return new ResponseEntity(400, "Слишком много корзин, не больше " + MAX_BUCKETS);
+        }
+
+        return new ResponseEntity(200, manager.getUtilization(from, to, bucket));
+    }
+}
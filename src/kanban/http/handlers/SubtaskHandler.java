@@ -2,19 +2,20 @@ package kanban.http.handlers;
 
 import com.sun.net.httpserver.HttpExchange;
 import kanban.exceptions.ManagerSaveException;
+import kanban.http.ResponseCache;
 import kanban.http.ResponseEntity;
 import kanban.http.util.PathMatcher;
 import kanban.managers.TaskManager;
 import kanban.tasks.Subtask;
+import kanban.tasks.TaskStatus;
+import kanban.tasks.TaskType;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-import java.util.List;
 
 public class SubtaskHandler extends BaseHttpHandler {
 
     private final TaskManager manager;
+    private final ResponseCache cache = new ResponseCache("subtasks");
 
     public SubtaskHandler(TaskManager manager) {
         this.manager = manager;
@@ -23,9 +24,7 @@ public class SubtaskHandler extends BaseHttpHandler {
     @Override
     protected ResponseEntity handleGet(HttpExchange exchange) {
 
-        PathMatcher matcher = PathMatcher.with(exchange.getRequestURI().getPath())
-                .match("/subtasks")
-                .match("/subtasks/{id}");
+        PathMatcher matcher = matchPath(exchange, "/subtasks", "/subtasks/{id}");
 
         if (matcher.getMatchedPath() == null) {
             return getBadRequest(exchange);
@@ -33,8 +32,18 @@ public class SubtaskHandler extends BaseHttpHandler {
 
         return switch (matcher.getMatchedPath()) {
             case "/subtasks" -> {
-                List<Subtask> subs = manager.getSubtasks();
-                yield new ResponseEntity(200, subs);
+                TaskStatus status;
+                try {
+                    status = getStatusParameter(exchange);
+                } catch (IllegalArgumentException e) {
+                    yield getBadRequest(exchange);
+                }
+
+                if (status != null) {
+                    yield new ResponseEntity(200, manager.getByStatus(TaskType.SUBTASK, status));
+                }
+
+                yield getCachedCollection(exchange, cache, manager.getVersion(TaskType.SUBTASK), manager::getSubtasks);
             }
             case "/subtasks/{id}" -> {
                 String id = matcher.getPathParameters().getFirst();
@@ -50,16 +59,13 @@ public class SubtaskHandler extends BaseHttpHandler {
     @Override
     public ResponseEntity handlePost(HttpExchange exchange) throws IOException {
 
-        PathMatcher matcher = PathMatcher.with(exchange.getRequestURI().getPath())
-                .match("/subtasks");
+        PathMatcher matcher = matchPath(exchange, "/subtasks");
 
         if (matcher.getMatchedPath() == null || !matcher.getMatchedPath().equals("/subtasks")) {
             return getBadRequest(exchange);
         }
 
-        InputStream inputStream = exchange.getRequestBody();
-        String body = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
-        Subtask sub = GSON.fromJson(body, Subtask.class);
+        Subtask sub = readBody(exchange, Subtask.class);
 
         try {
             if (sub.getId() == null) {
@@ -77,8 +83,7 @@ public class SubtaskHandler extends BaseHttpHandler {
     @Override
     protected ResponseEntity handleDelete(HttpExchange exchange) {
 
-        PathMatcher matcher = PathMatcher.with(exchange.getRequestURI().getPath())
-                .match("/subtasks/{id}");
+        PathMatcher matcher = matchPath(exchange, "/subtasks/{id}");
 
         if (matcher.getMatchedPath() == null || !matcher.getMatchedPath().equals("/subtasks/{id}")) {
             return getBadRequest(exchange);
@@ -2,19 +2,20 @@ package kanban.http.handlers;
 
 import com.sun.net.httpserver.HttpExchange;
 import kanban.exceptions.ManagerSaveException;
+import kanban.http.ResponseCache;
 import kanban.http.ResponseEntity;
 import kanban.http.util.PathMatcher;
 import kanban.managers.TaskManager;
 import kanban.tasks.Task;
+import kanban.tasks.TaskStatus;
+import kanban.tasks.TaskType;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-import java.util.List;
 
 public class TaskHandler extends BaseHttpHandler {
 
     private final TaskManager manager;
+    private final ResponseCache cache = new ResponseCache("tasks");
 
     public TaskHandler(TaskManager manager) {
         this.manager = manager;
@@ -23,9 +24,7 @@ public class TaskHandler extends BaseHttpHandler {
     @Override
     protected ResponseEntity handleGet(HttpExchange exchange) {
 
-        PathMatcher matcher = PathMatcher.with(exchange.getRequestURI().getPath())
-                .match("/tasks")
-                .match("/tasks/{id}");
+        PathMatcher matcher = matchPath(exchange, "/tasks", "/tasks/{id}");
 
         if (matcher.getMatchedPath() == null) {
             return getBadRequest(exchange);
@@ -33,8 +32,18 @@ public class TaskHandler extends BaseHttpHandler {
 
         return switch (matcher.getMatchedPath()) {
             case "/tasks" -> {
-                List<Task> tasks = manager.getTasks();
-                yield new ResponseEntity(200, tasks);
+                TaskStatus status;
+                try {
+                    status = getStatusParameter(exchange);
+                } catch (IllegalArgumentException e) {
+                    yield getBadRequest(exchange);
+                }
+
+                if (status != null) {
+                    yield new ResponseEntity(200, manager.getByStatus(TaskType.TASK, status));
+                }
+
+                yield getCachedCollection(exchange, cache, manager.getVersion(TaskType.TASK), manager::getTasks);
             }
             case "/tasks/{id}" -> {
                 String id = matcher.getPathParameters().getFirst();
@@ -49,16 +58,13 @@ public class TaskHandler extends BaseHttpHandler {
 
     @Override
     public ResponseEntity handlePost(HttpExchange exchange) throws IOException {
-        PathMatcher matcher = PathMatcher.with(exchange.getRequestURI().getPath())
-                .match("/tasks");
+        PathMatcher matcher = matchPath(exchange, "/tasks");
 
         if (matcher.getMatchedPath() == null || !matcher.getMatchedPath().equals("/tasks")) {
             return getBadRequest(exchange);
         }
 
-        InputStream inputStream = exchange.getRequestBody();
-        String body = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
-        Task task = GSON.fromJson(body, Task.class);
+        Task task = readBody(exchange, Task.class);
 
         try {
             if (task.getId() == null) {
@@ -76,8 +82,7 @@ public class TaskHandler extends BaseHttpHandler {
     @Override
     protected ResponseEntity handleDelete(HttpExchange exchange) {
 
-        PathMatcher matcher = PathMatcher.with(exchange.getRequestURI().getPath())
-                .match("/tasks/{id}");
+        PathMatcher matcher = matchPath(exchange, "/tasks/{id}");
 
         if (matcher.getMatchedPath() == null || !matcher.getMatchedPath().equals("/tasks/{id}")) {
             return getBadRequest(exchange);
@@ -0,0 +1,95 @@
+package kanban.http.sse;
+
+import com.google.gson.Gson;
+import kanban.HttpTaskServer;
+import kanban.managers.DeadlineNotifier;
+import kanban.managers.TaskEvent;
+import kanban.managers.TaskListener;
+import kanban.tasks.Task;
+import kanban.tasks.TaskType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Кольцевой буфер последних изменений и наступивших сроков. Номера событий идут подряд с единицы, поэтому клиент
+// может продолжить чтение с Last-Event-ID, пока нужные события еще не вытеснены из буфера
+public class ChangeFeed implements TaskListener, DeadlineNotifier.Listener {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final Gson GSON = HttpTaskServer.getGson();
+
+    private final FeedEvent[] events;
+    private long lastId;
+    private Runnable onAppend = () -> { };
+
+    public ChangeFeed() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ChangeFeed(int capacity) {
+        this.events = new FeedEvent[capacity];
+    }
+
+    public void setOnAppend(Runnable onAppend) {
+        this.onAppend = onAppend;
+    }
+
+    @Override
+    public void onTaskEvent(TaskEvent event) {
+        Task task = event.getAfter() != null ? event.getAfter() : event.getBefore();
+        String data = GSON.toJson(new Payload(event.getTaskType(), event.getTaskId(),
+                event.getAfter() == null ? null : task));
+        append(event.getType().name().toLowerCase(), data);
+    }
+
+    @Override
+    public void onDeadline(DeadlineNotifier.Deadline deadline) {
+        append(deadline.getType().name().toLowerCase(), GSON.toJson(deadline));
+    }
+
+    public void append(String name, String data) {
+        synchronized (this) {
+            lastId++;
+            events[(int) (lastId % events.length)] = new FeedEvent(lastId, name, data);
+        }
+        onAppend.run();
+    }
+
+    public synchronized long getLastId() {
+        return lastId;
+    }
+
+    // Возвращает события с номером больше afterId или null, если часть из них уже вытеснена из буфера.
+    // Номер больше последнего клиент мог получить только до перезапуска сервера, поэтому он тоже устарел
+    public synchronized List<FeedEvent> eventsAfter(long afterId) {
+        if (afterId > lastId || afterId < 0 || afterId < lastId - events.length) {
+            return null;
+        }
+
+        if (afterId == lastId) {
+            return List.of();
+        }
+
+        List<FeedEvent> result = new ArrayList<>((int) (lastId - afterId));
+        for (long id = afterId + 1; id <= lastId; id++) {
+            result.add(events[(int) (id % events.length)]);
+        }
+        return result;
+    }
+
+    public record FeedEvent(long id, String name, String data) {
+    }
+
+    private static class Payload {
+        private final TaskType type;
+        private final int id;
+        private final Task task;
+
+        Payload(TaskType type, int id, Task task) {
+            this.type = type;
+            this.id = id;
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package kanban.http.sse;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Рассылает события из ChangeFeed всем подписчикам из одного потока. Обработчик HTTP только регистрирует
+// подписчика и сразу освобождает поток сервера, так что простаивающие клиенты потоков не занимают.
+// Рассыльщик сам в сокеты не пишет: сообщения складываются в очередь подписчика, а пишет их поток
+// из небольшого пула, который занят, только пока очередь не пуста. Поэтому медленный клиент не задерживает
+// остальных, а зависший занимает не больше одного писателя: его запись и закрытие идут в одном потоке.
+// Виртуальные потоки не подходят: запись в сокет сервера идет под монитором и занимает поток-носитель
+public class SseBroadcaster {
+
+    private static final long HEARTBEAT_SECONDS = 15;
+    private static final int WRITER_THREADS = 4;
+
+    // подписчик, у которого накопилось столько неотправленных символов, не успевает читать и отключается
+    private static final int MAX_PENDING_CHARS = 4 * 1024 * 1024;
+
+    private final ChangeFeed feed;
+    private final ScheduledExecutorService executor;
+    private final ExecutorService writers;
+    private final AtomicBoolean isPushScheduled = new AtomicBoolean();
+
+    // подписчики меняются и читаются только в потоке executor
+    private final List<Subscriber> subscribers = new ArrayList<>();
+
+    public SseBroadcaster(ChangeFeed feed) {
+        this.feed = feed;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sse-broadcaster");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writers = Executors.newFixedThreadPool(WRITER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "sse-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        feed.setOnAppend(this::schedulePush);
+        executor.scheduleAtFixedRate(this::heartbeat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // lastEventId == null означает, что клиент хочет получать только новые события. Позиция в ленте фиксируется
+    // до отправки заголовков, чтобы не потерять изменения, сделанные сразу после ответа клиенту
+    public void subscribe(HttpExchange exchange, Long lastEventId) throws IOException {
+        long startId = lastEventId == null ? feed.getLastId() : lastEventId;
+
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        exchange.getResponseBody().flush();
+
+        executor.execute(() -> {
+            Subscriber subscriber = new Subscriber(exchange, startId);
+            subscribers.add(subscriber);
+            if (!push(subscriber)) {
+                subscribers.remove(subscriber);
+            }
+        });
+    }
+
+    public void close() {
+        executor.execute(() -> {
+            subscribers.forEach(Subscriber::close);
+            subscribers.clear();
+            writers.shutdown();
+        });
+        executor.shutdown();
+    }
+
+    // Несколько изменений подряд объединяются в одну рассылку
+    private void schedulePush() {
+        if (isPushScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    isPushScheduled.set(false);
+                    pushAll();
+                });
+            } catch (RuntimeException e) {
+                // рассыльщик уже остановлен
+                isPushScheduled.set(false);
+            }
+        }
+    }
+
+    private void pushAll() {
+        Iterator<Subscriber> iterator = subscribers.iterator();
+        while (iterator.hasNext()) {
+            if (!push(iterator.next())) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void heartbeat() {
+        Iterator<Subscriber> iterator = subscribers.iterator();
+        while (iterator.hasNext()) {
+            Subscriber subscriber = iterator.next();
+            if (!subscriber.send(": ping\n\n")) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private boolean push(Subscriber subscriber) {
+        List<ChangeFeed.FeedEvent> events = feed.eventsAfter(subscriber.lastSentId);
+
+        if (events == null) {
+            // клиент отстал больше, чем помещается в буфер: пусть перечитает коллекции целиком
+            long lastId = feed.getLastId();
+            subscriber.lastSentId = lastId;
+            return subscriber.send("id: " + lastId + "\nevent: reset\ndata: {}\n\n");
+        }
+
+        if (events.isEmpty()) {
+            return true;
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (ChangeFeed.FeedEvent event : events) {
+            builder.append("id: ").append(event.id()).append('\n')
+                    .append("event: ").append(event.name()).append('\n')
+                    .append("data: ").append(event.data()).append("\n\n");
+        }
+        subscriber.lastSentId = events.getLast().id();
+        return subscriber.send(builder.toString());
+    }
+
+    private void runAsync(Runnable task) {
+        try {
+            writers.execute(task);
+        } catch (RejectedExecutionException e) {
+            // рассыльщик уже остановлен
+            task.run();
+        }
+    }
+
+    private class Subscriber {
+        private final HttpExchange exchange;
+        private final OutputStream out;
+        private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingChars = new AtomicInteger();
+        private final AtomicBoolean isWriting = new AtomicBoolean();
+        private final AtomicBoolean isClosed = new AtomicBoolean();
+        private long lastSentId;
+
+        Subscriber(HttpExchange exchange, long lastSentId) {
+            this.exchange = exchange;
+            this.out = exchange.getResponseBody();
+            this.lastSentId = lastSentId;
+        }
+
+        // Вызывается из потока рассыльщика и не блокируется; false, если подписчик отключен
+        boolean send(String text) {
+            if (isClosed.get()) {
+                return false;
+            }
+            if (pendingChars.addAndGet(text.length()) > MAX_PENDING_CHARS) {
+                close();
+                return false;
+            }
+
+            pending.add(text);
+            if (isWriting.compareAndSet(false, true)) {
+                runAsync(this::drain);
+            }
+            return true;
+        }
+
+        // Пишет все накопленные сообщения одним блоком. Флаг снимается до последней проверки очереди,
+        // чтобы сообщение, добавленное в этот момент, не осталось без писателя. Закрытие тоже идет здесь:
+        // после него флаг больше не снимается, и ответ закрывается ровно один раз
+        private void drain() {
+            do {
+                if (isClosed.get()) {
+                    pending.clear();
+                    exchange.close();
+                    return;
+                }
+
+                StringBuilder builder = new StringBuilder();
+                String text;
+                while ((text = pending.poll()) != null) {
+                    pendingChars.addAndGet(-text.length());
+                    builder.append(text);
+                }
+                if (!builder.isEmpty() && !write(builder.toString())) {
+                    isClosed.set(true);
+                }
+                isWriting.set(false);
+            } while ((isClosed.get() || !pending.isEmpty()) && isWriting.compareAndSet(false, true));
+        }
+
+        private boolean write(String text) {
+            try {
+                out.write(text.getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        // Закрытие дописывает завершающий блок ответа и на медленном клиенте тоже может заблокироваться,
+        // поэтому его выполняет писатель: если он сейчас пишет, то закроет ответ после этой записи
+        void close() {
+            if (isClosed.compareAndSet(false, true)) {
+                pending.clear();
+                if (isWriting.compareAndSet(false, true)) {
+                    runAsync(this::drain);
+                }
+            }
+        }
+    }
+}
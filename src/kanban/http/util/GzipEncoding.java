@@ -0,0 +1,57 @@
+package kanban.http.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+public class GzipEncoding {
+
+    // Ответы меньше этого размера не сжимаются: выигрыш не окупает заголовок gzip и работу процессора
+    public static final int MIN_SIZE = 1024;
+
+    private GzipEncoding() {
+
+    }
+
+    // Разбирает Accept-Encoding вида "gzip, deflate;q=0.5"; gzip с q=0 считается запрещенным
+    public static boolean isAccepted(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        boolean isAccepted = false;
+        for (String item : acceptEncoding.split(",")) {
+            String[] chunks = item.split(";");
+            String coding = chunks[0].trim().toLowerCase();
+            double quality = 1.0;
+            for (int i = 1; i < chunks.length; i++) {
+                String param = chunks[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                return quality > 0;
+            } else if (coding.equals("*")) {
+                isAccepted = quality > 0;
+            }
+        }
+        return isAccepted;
+    }
+
+    public static byte[] compress(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,44 @@
+package kanban.http.util;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+public class QueryParameters {
+
+    private final Map<String, String> parameters = new HashMap<>();
+
+    public static QueryParameters of(String rawQuery) {
+        return new QueryParameters(rawQuery);
+    }
+
+    private QueryParameters(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return;
+        }
+
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int idx = pair.indexOf('=');
+            String name = idx < 0 ? pair : pair.substring(0, idx);
+            String value = idx < 0 ? "" : pair.substring(idx + 1);
+            parameters.putIfAbsent(decode(name), decode(value));
+        }
+    }
+
+    public Optional<String> get(String name) {
+        return Optional.ofNullable(parameters.get(name));
+    }
+
+    public boolean isEmpty() {
+        return parameters.isEmpty();
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,62 @@
+package kanban.managers;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+// Доставляет события слушателю в отдельном потоке. Операции менеджера только кладут событие в неблокирующую
+// очередь (много писателей, один читатель) и не ждут, пока слушатель его обработает
+class AsyncTaskListener implements TaskListener {
+
+    private static final Object COMMIT = new Object();
+
+    private final TaskListener listener;
+    private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private volatile boolean isRunning = true;
+
+    AsyncTaskListener(TaskListener listener) {
+        this.listener = listener;
+        this.worker = new Thread(this::drain, "task-listener-" + listener.getClass().getSimpleName());
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void onTaskEvent(TaskEvent event) {
+        queue.offer(event);
+        LockSupport.unpark(worker);
+    }
+
+    @Override
+    public void onCommit() {
+        queue.offer(COMMIT);
+        LockSupport.unpark(worker);
+    }
+
+    // Уже принятые события будут доставлены до остановки потока
+    void close() {
+        isRunning = false;
+        LockSupport.unpark(worker);
+    }
+
+    private void drain() {
+        while (isRunning || !queue.isEmpty()) {
+            Object item = queue.poll();
+            if (item == null) {
+                LockSupport.park(this);
+                continue;
+            }
+
+            try {
+                if (item == COMMIT) {
+                    listener.onCommit();
+                } else {
+                    listener.onTaskEvent((TaskEvent) item);
+                }
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package kanban.managers;
+
+import kanban.tasks.Epic;
+import kanban.tasks.Subtask;
+import kanban.tasks.Task;
+import kanban.tasks.TaskStatus;
+import kanban.tasks.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+// Неблокирующий фасад над менеджером. Операции выполняются одним потоком в порядке вызова, поэтому
+// их можно отправлять подряд, не дожидаясь результатов: чтение после записи увидит эту запись
+public class AsyncTaskManager implements AutoCloseable {
+
+    private final EventLoopTaskManager loop;
+
+    public AsyncTaskManager(TaskManager manager) {
+        this.loop = manager instanceof EventLoopTaskManager eventLoop ? eventLoop : EventLoopTaskManager.start(manager);
+    }
+
+    // Синхронный вид того же менеджера, например, для HTTP-обработчиков
+    public TaskManager blocking() {
+        return loop;
+    }
+
+    @Override
+    public void close() {
+        loop.close();
+    }
+
+    public CompletableFuture<Integer> saveTask(Task task) {
+        return loop.submit(m -> m.saveTask(task));
+    }
+
+    public CompletableFuture<Integer> saveEpic(Epic epic) {
+        return loop.submit(m -> m.saveEpic(epic));
+    }
+
+    public CompletableFuture<Integer> saveSubtask(Subtask subtask) {
+        return loop.submit(m -> m.saveSubtask(subtask));
+    }
+
+    public CompletableFuture<List<Task>> getTasks() {
+        return loop.submit(TaskManager::getTasks);
+    }
+
+    public CompletableFuture<Optional<Task>> getTaskById(int id) {
+        return loop.submit(m -> m.getTaskById(id));
+    }
+
+    public CompletableFuture<List<Epic>> getEpics() {
+        return loop.submit(m -> m.getEpics());
+    }
+
+    public CompletableFuture<Optional<Epic>> getEpicById(int id) {
+        return loop.submit(m -> m.getEpicById(id));
+    }
+
+    public CompletableFuture<List<Subtask>> getSubtasks() {
+        return loop.submit(TaskManager::getSubtasks);
+    }
+
+    public CompletableFuture<Optional<Subtask>> getSubtaskById(int id) {
+        return loop.submit(m -> m.getSubtaskById(id));
+    }
+
+    public CompletableFuture<List<Subtask>> getSubtasksOfEpic(Epic epic) {
+        return loop.submit(m -> m.getSubtasksOfEpic(epic));
+    }
+
+    public CompletableFuture<Void> updateTask(Task task) {
+        return loop.submit(m -> {
+            m.updateTask(task);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> updateEpic(Epic epic) {
+        return loop.submit(m -> {
+            m.updateEpic(epic);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> updateSubtask(Subtask subtask) {
+        return loop.submit(m -> {
+            m.updateSubtask(subtask);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> removeTasks() {
+        return loop.submit(m -> {
+            m.removeTasks();
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> removeTaskById(int id) {
+        return loop.submit(m -> {
+            m.removeTaskById(id);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> removeEpics() {
+        return loop.submit(m -> {
+            m.removeEpics();
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> removeEpicById(int id) {
+        return loop.submit(m -> {
+            m.removeEpicById(id);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> removeSubtasks() {
+        return loop.submit(m -> {
+            m.removeSubtasks();
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> removeSubtaskById(int id) {
+        return loop.submit(m -> {
+            m.removeSubtaskById(id);
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<Task>> getHistory() {
+        return loop.submit(m -> m.getHistory());
+    }
+
+    public CompletableFuture<List<Task>> getPrioritizedTasks() {
+        return loop.submit(TaskManager::getPrioritizedTasks);
+    }
+
+    public CompletableFuture<Optional<LocalDateTime>> findFreeSlot(Duration duration, LocalDateTime notBefore,
+                                                                   LocalDateTime notAfter) {
+        return loop.submit(m -> m.findFreeSlot(duration, notBefore, notAfter));
+    }
+
+    public CompletableFuture<List<Task>> scheduleUnscheduled(LocalDateTime notBefore, Comparator<Task> priority) {
+        return loop.submit(m -> m.scheduleUnscheduled(notBefore, priority));
+    }
+
+    public CompletableFuture<Void> addDependency(int blockerId, int blockedId) {
+        return loop.submit(m -> {
+            m.addDependency(blockerId, blockedId);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> removeDependency(int blockerId, int blockedId) {
+        return loop.submit(m -> {
+            m.removeDependency(blockerId, blockedId);
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<Task>> getBlockers(int taskId) {
+        return loop.submit(m -> m.getBlockers(taskId));
+    }
+
+    public CompletableFuture<CriticalPath> getCriticalPath(LocalDateTime notBefore) {
+        return loop.submit(m -> m.getCriticalPath(notBefore));
+    }
+
+    public CompletableFuture<List<Task>> getByStatus(TaskType type, TaskStatus status) {
+        return loop.submit(m -> m.getByStatus(type, status));
+    }
+
+    public CompletableFuture<List<Task>> search(String query, int offset, int limit) {
+        return loop.submit(m -> m.search(query, offset, limit));
+    }
+
+    public CompletableFuture<List<Task>> getOverdue(LocalDateTime now, LocalDateTime afterEndTime, int afterId,
+                                                    int limit) {
+        return loop.submit(m -> m.getOverdue(now, afterEndTime, afterId, limit));
+    }
+
+    public CompletableFuture<List<Utilization>> getUtilization(LocalDate from, LocalDate to, ChronoUnit bucket) {
+        return loop.submit(m -> m.getUtilization(from, to, bucket));
+    }
+
+    public CompletableFuture<BoardStats> getStats() {
+        return loop.submit(TaskManager::getStats);
+    }
+}
@@ -0,0 +1,57 @@
+package kanban.managers;
+
+import kanban.tasks.Task;
+import kanban.tasks.TaskStatus;
+import kanban.tasks.TaskType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Статистика доски без обхода задач. Число задач по типу и статусу берется из StatusIndex,
+// здесь остается только суммарная продолжительность. Продолжительность эпика выводится
+// из подзадач и в сумму не входит
+class BoardCounters extends TaskIndex<Long> {
+
+    private final StatusIndex statusIndex;
+    private final LongAdder durationMinutes = new LongAdder();
+
+    BoardCounters(StatusIndex statusIndex) {
+        this.statusIndex = statusIndex;
+    }
+
+    @Override
+    Long keyOf(Task task) {
+        return task.getType() == TaskType.EPIC || task.getDuration() == null ? null : task.getDuration().toMinutes();
+    }
+
+    @Override
+    void insert(Task task, Long minutes) {
+        durationMinutes.add(minutes);
+    }
+
+    @Override
+    void delete(int id, Long minutes) {
+        durationMinutes.add(-minutes);
+    }
+
+    BoardStats snapshot(int historySize) {
+        Map<TaskType, Long> byType = new EnumMap<>(TaskType.class);
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        Map<TaskStatus, Long> epicsByStatus = new EnumMap<>(TaskStatus.class);
+        long total = 0;
+        for (TaskType type : TaskType.values()) {
+            long typeCount = statusIndex.count(type);
+            byType.put(type, typeCount);
+            total += typeCount;
+        }
+        for (TaskStatus status : TaskStatus.values()) {
+            byStatus.put(status, (long) statusIndex.count(status));
+            epicsByStatus.put(status, (long) statusIndex.count(TaskType.EPIC, status));
+        }
+
+        long minutes = durationMinutes.sum();
+        double averageMinutes = size() == 0 ? 0 : (double) minutes / size();
+        return new BoardStats(total, byType, byStatus, epicsByStatus, minutes, averageMinutes, historySize);
+    }
+}
@@ -0,0 +1,69 @@
+package kanban.managers;
+
+import kanban.tasks.TaskStatus;
+import kanban.tasks.TaskType;
+
+import java.util.Map;
+
+// Сводная статистика доски. Продолжительности считаются по задачам и подзадачам, у которых она задана
+public class BoardStats {
+
+    private final long total;
+    private final Map<TaskType, Long> byType;
+    private final Map<TaskStatus, Long> byStatus;
+    private final Map<TaskStatus, Long> epicsByStatus;
+    private final long totalDurationMinutes;
+    private final double averageDurationMinutes;
+    private final int historySize;
+
+    BoardStats(long total, Map<TaskType, Long> byType, Map<TaskStatus, Long> byStatus,
+               Map<TaskStatus, Long> epicsByStatus, long totalDurationMinutes, double averageDurationMinutes,
+               int historySize) {
+        this.total = total;
+        this.byType = byType;
+        this.byStatus = byStatus;
+        this.epicsByStatus = epicsByStatus;
+        this.totalDurationMinutes = totalDurationMinutes;
+        this.averageDurationMinutes = averageDurationMinutes;
+        this.historySize = historySize;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Map<TaskType, Long> getByType() {
+        return byType;
+    }
+
+    public Map<TaskStatus, Long> getByStatus() {
+        return byStatus;
+    }
+
+    public Map<TaskStatus, Long> getEpicsByStatus() {
+        return epicsByStatus;
+    }
+
+    public long getTotalDurationMinutes() {
+        return totalDurationMinutes;
+    }
+
+    public double getAverageDurationMinutes() {
+        return averageDurationMinutes;
+    }
+
+    public int getHistorySize() {
+        return historySize;
+    }
+
+    @Override
+    public String toString() {
+        return "BoardStats{" +
+                "total=" + total +
+                ", byType=" + byType +
+                ", byStatus=" + byStatus +
+                ", totalDurationMinutes=" + totalDurationMinutes +
+                ", historySize=" + historySize +
+                '}';
+    }
+}
@@ -0,0 +1,42 @@
+package kanban.managers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Самые ранние начала задач с зависимостями и критический путь - цепочка зависимостей,
+// которая определяет, когда закончится последняя из них
+public class CriticalPath {
+
+    private final List<Integer> taskIds;
+    private final LocalDateTime finish;
+    private final Map<Integer, LocalDateTime> earliestStarts;
+
+    CriticalPath(List<Integer> taskIds, LocalDateTime finish, Map<Integer, LocalDateTime> earliestStarts) {
+        this.taskIds = taskIds;
+        this.finish = finish;
+        this.earliestStarts = earliestStarts;
+    }
+
+    public List<Integer> getTaskIds() {
+        return taskIds;
+    }
+
+    // null, если зависимостей нет
+    public LocalDateTime getFinish() {
+        return finish;
+    }
+
+    // В топологическом порядке
+    public Map<Integer, LocalDateTime> getEarliestStarts() {
+        return earliestStarts;
+    }
+
+    @Override
+    public String toString() {
+        return "CriticalPath{" +
+                "taskIds=" + taskIds +
+                ", finish=" + finish +
+                '}';
+    }
+}
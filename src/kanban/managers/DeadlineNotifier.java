@@ -0,0 +1,219 @@
+package kanban.managers;
+
+import kanban.tasks.Task;
+import kanban.tasks.TaskStatus;
+import kanban.tasks.TaskType;
+import kanban.util.TimerWheel;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Сообщает о наступлении startTime и окончании задач, которые еще не выполнены. Сроки хранятся в колесе таймеров
+// с тактом в секунду и обновляются по событиям менеджера, поэтому менеджер не опрашивается.
+// Сроки, прошедшие до сохранения задачи, не сообщаются
+public class DeadlineNotifier implements TaskListener, AutoCloseable {
+
+    public interface Listener {
+        void onDeadline(Deadline deadline);
+    }
+
+    private final Clock clock;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService executor;
+
+    // колесо и сроки меняются под блокировкой this, слушатели вызываются без нее
+    private final TimerWheel<Deadline> wheel;
+    private final Map<Integer, Timers> timers = new HashMap<>();
+
+    public DeadlineNotifier(Clock clock) {
+        this.clock = clock;
+        this.wheel = new TimerWheel<>(toTick(LocalDateTime.now(clock)));
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deadline-notifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Такт раз в секунду запускается отдельно, уже после того как уведомитель создан и заполнен
+    public void start() {
+        executor.scheduleAtFixedRate(this::tick, 1, 1, TimeUnit.SECONDS);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // Начальное заполнение для задач, сохраненных до подписки на менеджер
+    public void track(List<? extends Task> tasks) {
+        tasks.forEach(this::track);
+    }
+
+    @Override
+    public void onTaskEvent(TaskEvent event) {
+        if (event.getAfter() == null) {
+            untrack(event.getTaskId());
+        } else {
+            track(event.getAfter());
+        }
+    }
+
+    public synchronized int size() {
+        return wheel.size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    void tick() {
+        advanceTo(LocalDateTime.now(clock));
+    }
+
+    void advanceTo(LocalDateTime now) {
+        List<Deadline> fired;
+        synchronized (this) {
+            fired = wheel.advance(toTick(now));
+            for (Deadline deadline : fired) {
+                Timers taskTimers = timers.get(deadline.taskId);
+                if (taskTimers != null && taskTimers.clear(deadline.type)) {
+                    timers.remove(deadline.taskId);
+                }
+            }
+        }
+
+        for (Deadline deadline : fired) {
+            for (Listener listener : listeners) {
+                try {
+                    listener.onDeadline(deadline);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private synchronized void track(Task task) {
+        untrack(task.getId());
+        if (task.getStatus() == TaskStatus.DONE || task.getStartTime() == null) {
+            return;
+        }
+
+        long now = wheel.getCurrentTick();
+        Timers taskTimers = new Timers();
+        long start = toTick(task.getStartTime());
+        if (start > now) {
+            taskTimers.start = wheel.schedule(start,
+                    new Deadline(Deadline.Type.STARTED, task.getType(), task.getId(), task.getStartTime()));
+        }
+
+        LocalDateTime endTime = getEndTime(task);
+        if (endTime != null && toTick(endTime) > now) {
+            taskTimers.end = wheel.schedule(toTick(endTime),
+                    new Deadline(Deadline.Type.OVERDUE, task.getType(), task.getId(), endTime));
+        }
+
+        if (taskTimers.start != null || taskTimers.end != null) {
+            timers.put(task.getId(), taskTimers);
+        }
+    }
+
+    private synchronized void untrack(int taskId) {
+        Timers taskTimers = timers.remove(taskId);
+        if (taskTimers != null) {
+            if (taskTimers.start != null) {
+                wheel.cancel(taskTimers.start);
+            }
+            if (taskTimers.end != null) {
+                wheel.cancel(taskTimers.end);
+            }
+        }
+    }
+
+    // У эпика время окончания хранится, у остальных задач вычисляется и требует продолжительности
+    private static LocalDateTime getEndTime(Task task) {
+        if (task.getType() != TaskType.EPIC && task.getDuration() == null) {
+            return null;
+        }
+        return task.getEndTime();
+    }
+
+    // Окончание сообщается, когда оно уже прошло, поэтому доли секунды округляются вверх
+    private static long toTick(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) + (time.getNano() > 0 ? 1 : 0);
+    }
+
+    private static class Timers {
+        private TimerWheel.Timeout<Deadline> start;
+        private TimerWheel.Timeout<Deadline> end;
+
+        // true, если у задачи больше нет таймеров
+        boolean clear(Deadline.Type type) {
+            if (type == Deadline.Type.STARTED) {
+                start = null;
+            } else {
+                end = null;
+            }
+            return start == null && end == null;
+        }
+    }
+
+    public static class Deadline {
+
+        public enum Type {
+            STARTED,
+            OVERDUE
+        }
+
+        private final Type type;
+        private final TaskType taskType;
+        private final int taskId;
+        private final LocalDateTime time;
+
+        public Deadline(Type type, TaskType taskType, int taskId, LocalDateTime time) {
+            this.type = type;
+            this.taskType = taskType;
+            this.taskId = taskId;
+            this.time = time;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public TaskType getTaskType() {
+            return taskType;
+        }
+
+        public int getTaskId() {
+            return taskId;
+        }
+
+        public LocalDateTime getTime() {
+            return time;
+        }
+
+        @Override
+        public String toString() {
+            return "Deadline{" +
+                    "type=" + type +
+                    ", taskType=" + taskType +
+                    ", taskId=" + taskId +
+                    ", time=" + time +
+                    '}';
+        }
+    }
+}
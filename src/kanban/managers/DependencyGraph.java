@@ -0,0 +1,164 @@
+package kanban.managers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Граф зависимостей между задачами: ребро blocker -> blocked. Топологический порядок поддерживается
+// инкрементально (алгоритм Пирса-Келли): ребро, не нарушающее порядок, добавляется за O(1), иначе
+// переупорядочиваются только вершины между концами ребра, достижимые из них. Цикл обнаруживается
+// тем же обходом, и граф при этом не меняется
+class DependencyGraph {
+
+    private final Map<Integer, Node> nodes = new HashMap<>();
+    private int nextOrder;
+
+    // false, если ребро создало бы цикл
+    boolean add(int blockerId, int blockedId) {
+        if (blockerId == blockedId) {
+            return false;
+        }
+
+        Node blocker = nodes.computeIfAbsent(blockerId, this::newNode);
+        Node blocked = nodes.computeIfAbsent(blockedId, this::newNode);
+        if (blocker.successors.contains(blocked)) {
+            return true;
+        }
+
+        if (blocker.order > blocked.order && !reorder(blocker, blocked)) {
+            removeIfIsolated(blocker);
+            removeIfIsolated(blocked);
+            return false;
+        }
+
+        blocker.successors.add(blocked);
+        blocked.predecessors.add(blocker);
+        return true;
+    }
+
+    void remove(int blockerId, int blockedId) {
+        Node blocker = nodes.get(blockerId);
+        Node blocked = nodes.get(blockedId);
+        if (blocker == null || blocked == null) {
+            return;
+        }
+
+        // удаление ребра порядок не нарушает
+        blocker.successors.remove(blocked);
+        blocked.predecessors.remove(blocker);
+        removeIfIsolated(blocker);
+        removeIfIsolated(blocked);
+    }
+
+    // Удаляет задачу вместе со всеми ее зависимостями
+    void removeNode(int id) {
+        Node node = nodes.remove(id);
+        if (node == null) {
+            return;
+        }
+
+        for (Node successor : node.successors) {
+            successor.predecessors.remove(node);
+            removeIfIsolated(successor);
+        }
+        for (Node predecessor : node.predecessors) {
+            predecessor.successors.remove(node);
+            removeIfIsolated(predecessor);
+        }
+    }
+
+    void clear() {
+        nodes.clear();
+    }
+
+    List<Integer> getPredecessors(int id) {
+        Node node = nodes.get(id);
+        return node == null ? List.of() : node.predecessors.stream().map(n -> n.id).toList();
+    }
+
+    // Задачи, у которых есть зависимости, в топологическом порядке
+    List<Integer> getOrder() {
+        return nodes.values().stream()
+                .sorted(Comparator.comparingInt(node -> node.order))
+                .map(node -> node.id)
+                .toList();
+    }
+
+    // Ребро blocker -> blocked нарушает порядок: blocked стоит раньше blocker. Вершины, достижимые из blocked
+    // и стоящие не позже blocker, и вершины, из которых достижим blocker и стоящие не раньше blocked,
+    // получают те же номера заново: сначала вторые, потом первые
+    private boolean reorder(Node blocker, Node blocked) {
+        List<Node> forward = collect(blocked, blocker.order, true, blocker);
+        if (forward == null) {
+            return false;
+        }
+        List<Node> backward = collect(blocker, blocked.order, false, null);
+
+        Comparator<Node> byOrder = Comparator.comparingInt(node -> node.order);
+        forward.sort(byOrder);
+        backward.sort(byOrder);
+
+        List<Node> affected = new ArrayList<>(backward.size() + forward.size());
+        affected.addAll(backward);
+        affected.addAll(forward);
+        int[] orders = affected.stream().mapToInt(node -> node.order).sorted().toArray();
+        for (int i = 0; i < orders.length; i++) {
+            affected.get(i).order = orders[i];
+        }
+        return true;
+    }
+
+    // Обход в глубину без рекурсии в пределах bound. null - встретилась вершина target, то есть цикл
+    private static List<Node> collect(Node start, int bound, boolean isForward, Node target) {
+        List<Node> visited = new ArrayList<>();
+        Set<Node> seen = new HashSet<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(start);
+        seen.add(start);
+
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            visited.add(node);
+            for (Node next : isForward ? node.successors : node.predecessors) {
+                if (next == target) {
+                    return null;
+                }
+                boolean isInRange = isForward ? next.order <= bound : next.order >= bound;
+                if (isInRange && seen.add(next)) {
+                    stack.push(next);
+                }
+            }
+        }
+        return visited;
+    }
+
+    private Node newNode(int id) {
+        return new Node(id, nextOrder++);
+    }
+
+    private void removeIfIsolated(Node node) {
+        if (node.successors.isEmpty() && node.predecessors.isEmpty()) {
+            nodes.remove(node.id);
+        }
+    }
+
+    private static class Node {
+
+        private final int id;
+        private int order;
+        private final Set<Node> successors = new LinkedHashSet<>();
+        private final Set<Node> predecessors = new LinkedHashSet<>();
+
+        Node(int id, int order) {
+            this.id = id;
+            this.order = order;
+        }
+    }
+}
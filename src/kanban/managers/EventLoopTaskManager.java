@@ -0,0 +1,458 @@
+package kanban.managers;
+
+import kanban.tasks.Epic;
+import kanban.tasks.Subtask;
+import kanban.tasks.Task;
+import kanban.tasks.TaskStatus;
+import kanban.tasks.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+// Менеджер с одним потоком-владельцем: все команды попадают в неблокирующую очередь и выполняются
+// этим потоком строго по порядку, пачками. После каждой пачки публикуются версии коллекций, это O(1).
+// Списки задач и расписание хранятся вместе со своей версией: пока она совпадает с опубликованной, они
+// читаются без очереди, а устаревший список пересобирается командой цикла при первом чтении. Так копию
+// коллекции оплачивает чтение, а не каждая пачка записей
+public class EventLoopTaskManager implements TaskManager, AutoCloseable {
+
+    static final int MAX_BATCH_SIZE = 256;
+
+    private final TaskManager manager;
+    private final Queue<Command<?>> mailbox = new ConcurrentLinkedQueue<>();
+    private final Thread loop;
+    private volatile boolean isRunning = true;
+    private volatile Versions versions;
+
+    private final View<Task> tasks = new View<>(v -> v.of(TaskType.TASK), TaskManager::getTasks);
+    private final View<Epic> epics = new View<>(v -> v.of(TaskType.EPIC), TaskManager::getEpics);
+    private final View<Subtask> subtasks = new View<>(v -> v.of(TaskType.SUBTASK), TaskManager::getSubtasks);
+    private final View<Task> prioritized = new View<>(Versions::prioritized, TaskManager::getPrioritizedTasks);
+
+    // Переданный менеджер дальше используется только потоком цикла
+    private EventLoopTaskManager(TaskManager manager) {
+        this.manager = manager;
+        this.versions = Versions.of(manager);
+        this.loop = new Thread(this::run, "task-manager-loop");
+        this.loop.setDaemon(true);
+    }
+
+    public static EventLoopTaskManager start() {
+        return start(new InMemoryTaskManager());
+    }
+
+    // Поток цикла запускается уже после конструктора, когда менеджер полностью создан
+    public static EventLoopTaskManager start(TaskManager manager) {
+        EventLoopTaskManager eventLoop = new EventLoopTaskManager(manager);
+        eventLoop.loop.start();
+        return eventLoop;
+    }
+
+    // Команда выполняется в потоке цикла; будущее завершается после публикации снимка с ее изменениями
+    public <T> CompletableFuture<T> submit(Function<TaskManager, T> action) {
+        Command<T> command = new Command<>(action);
+        if (Thread.currentThread() == loop) {
+            // вызов из слушателя внутри цикла: ставить в очередь нельзя, иначе цикл будет ждать сам себя
+            command.run(manager);
+            command.complete();
+            return command.future;
+        }
+
+        if (!isRunning) {
+            command.future.completeExceptionally(new RejectedExecutionException("Менеджер остановлен"));
+            return command.future;
+        }
+
+        mailbox.offer(command);
+        LockSupport.unpark(loop);
+        return command.future;
+    }
+
+    @Override
+    public void close() {
+        isRunning = false;
+        LockSupport.unpark(loop);
+    }
+
+    @Override
+    public int saveTask(Task task) {
+        return await(submit(m -> m.saveTask(task)));
+    }
+
+    @Override
+    public int saveEpic(Epic epic) {
+        return await(submit(m -> m.saveEpic(epic)));
+    }
+
+    @Override
+    public int saveSubtask(Subtask subtask) {
+        return await(submit(m -> m.saveSubtask(subtask)));
+    }
+
+    @Override
+    public List<Task> getTasks() {
+        return read(tasks);
+    }
+
+    @Override
+    public Optional<Task> getTaskById(int id) {
+        return await(submit(m -> m.getTaskById(id)));
+    }
+
+    @Override
+    public List<Epic> getEpics() {
+        return read(epics);
+    }
+
+    @Override
+    public Optional<Epic> getEpicById(int id) {
+        return await(submit(m -> m.getEpicById(id)));
+    }
+
+    @Override
+    public List<Subtask> getSubtasks() {
+        return read(subtasks);
+    }
+
+    @Override
+    public Optional<Subtask> getSubtaskById(int id) {
+        return await(submit(m -> m.getSubtaskById(id)));
+    }
+
+    @Override
+    public List<Subtask> getSubtasksOfEpic(Epic epic) {
+        return await(submit(m -> m.getSubtasksOfEpic(epic)));
+    }
+
+    @Override
+    public Epic getEpicOfSubtask(Subtask subtask) {
+        return await(submit(m -> m.getEpicOfSubtask(subtask)));
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        await(submit(m -> {
+            m.updateTask(task);
+            return null;
+        }));
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        await(submit(m -> {
+            m.updateEpic(epic);
+            return null;
+        }));
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        await(submit(m -> {
+            m.updateSubtask(subtask);
+            return null;
+        }));
+    }
+
+    @Override
+    public void removeTasks() {
+        await(submit(m -> {
+            m.removeTasks();
+            return null;
+        }));
+    }
+
+    @Override
+    public void removeTaskById(int id) {
+        await(submit(m -> {
+            m.removeTaskById(id);
+            return null;
+        }));
+    }
+
+    @Override
+    public void removeEpics() {
+        await(submit(m -> {
+            m.removeEpics();
+            return null;
+        }));
+    }
+
+    @Override
+    public void removeEpicById(int id) {
+        await(submit(m -> {
+            m.removeEpicById(id);
+            return null;
+        }));
+    }
+
+    @Override
+    public void removeSubtasks() {
+        await(submit(m -> {
+            m.removeSubtasks();
+            return null;
+        }));
+    }
+
+    @Override
+    public void removeSubtaskById(int id) {
+        await(submit(m -> {
+            m.removeSubtaskById(id);
+            return null;
+        }));
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return await(submit(m -> m.getHistory()));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return read(prioritized);
+    }
+
+    @Override
+    public Optional<LocalDateTime> findFreeSlot(Duration duration, LocalDateTime notBefore, LocalDateTime notAfter) {
+        return await(submit(m -> m.findFreeSlot(duration, notBefore, notAfter)));
+    }
+
+    @Override
+    public List<Task> scheduleUnscheduled(LocalDateTime notBefore, Comparator<Task> priority) {
+        return await(submit(m -> m.scheduleUnscheduled(notBefore, priority)));
+    }
+
+    @Override
+    public void addDependency(int blockerId, int blockedId) {
+        await(submit(m -> {
+            m.addDependency(blockerId, blockedId);
+            return null;
+        }));
+    }
+
+    @Override
+    public void removeDependency(int blockerId, int blockedId) {
+        await(submit(m -> {
+            m.removeDependency(blockerId, blockedId);
+            return null;
+        }));
+    }
+
+    @Override
+    public List<Task> getBlockers(int taskId) {
+        return await(submit(m -> m.getBlockers(taskId)));
+    }
+
+    @Override
+    public CriticalPath getCriticalPath(LocalDateTime notBefore) {
+        return await(submit(m -> m.getCriticalPath(notBefore)));
+    }
+
+    @Override
+    public List<Task> getByStatus(TaskStatus status) {
+        return await(submit(m -> m.getByStatus(status)));
+    }
+
+    @Override
+    public List<Task> getByStatus(TaskType type, TaskStatus status) {
+        return await(submit(m -> m.getByStatus(type, status)));
+    }
+
+    @Override
+    public int countByStatus(TaskStatus status) {
+        return await(submit(m -> m.countByStatus(status)));
+    }
+
+    @Override
+    public int countByType(TaskType type) {
+        return await(submit(m -> m.countByType(type)));
+    }
+
+    @Override
+    public long getVersion(TaskType type) {
+        return versions.of(type);
+    }
+
+    @Override
+    public long getPrioritizedVersion() {
+        return versions.prioritized();
+    }
+
+    @Override
+    public void addListener(TaskListener listener) {
+        await(submit(m -> {
+            m.addListener(listener);
+            return null;
+        }));
+    }
+
+    @Override
+    public void addAsyncListener(TaskListener listener) {
+        await(submit(m -> {
+            m.addAsyncListener(listener);
+            return null;
+        }));
+    }
+
+    @Override
+    public void removeListener(TaskListener listener) {
+        await(submit(m -> {
+            m.removeListener(listener);
+            return null;
+        }));
+    }
+
+    @Override
+    public List<Task> search(String query, int offset, int limit) {
+        return await(submit(m -> m.search(query, offset, limit)));
+    }
+
+    @Override
+    public List<Task> getOverdue(LocalDateTime now, LocalDateTime afterEndTime, int afterId, int limit) {
+        return await(submit(m -> m.getOverdue(now, afterEndTime, afterId, limit)));
+    }
+
+    @Override
+    public List<Utilization> getUtilization(LocalDate from, LocalDate to, ChronoUnit bucket) {
+        return await(submit(m -> m.getUtilization(from, to, bucket)));
+    }
+
+    @Override
+    public BoardStats getStats() {
+        return await(submit(TaskManager::getStats));
+    }
+
+    private void run() {
+        List<Command<?>> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (isRunning || !mailbox.isEmpty()) {
+            Command<?> command;
+            while (batch.size() < MAX_BATCH_SIZE && (command = mailbox.poll()) != null) {
+                command.run(manager);
+                batch.add(command);
+            }
+
+            if (batch.isEmpty()) {
+                LockSupport.park(this);
+                continue;
+            }
+
+            versions = Versions.of(manager);
+            batch.forEach(Command::complete);
+            batch.clear();
+        }
+
+        Command<?> rejected;
+        while ((rejected = mailbox.poll()) != null) {
+            rejected.future.completeExceptionally(new RejectedExecutionException("Менеджер остановлен"));
+        }
+    }
+
+    // В потоке цикла список берется прямо из менеджера: опубликованные версии могут отставать от текущей пачки
+    private <T> List<T> read(View<T> view) {
+        if (Thread.currentThread() == loop) {
+            return new ArrayList<>(view.load(manager).list());
+        }
+
+        Cached<T> cached = view.cached;
+        if (cached.version() != view.version.applyAsLong(versions)) {
+            cached = await(submit(view::load));
+        }
+        return new ArrayList<>(cached.list());
+    }
+
+    // Исключения команды, например ManagerSaveException, пробрасываются вызывающему как есть
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static class Command<T> {
+        private final Function<TaskManager, T> action;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private Throwable error;
+
+        private Command(Function<TaskManager, T> action) {
+            this.action = action;
+        }
+
+        // Ошибка любой команды, даже Error, достается только ее вызывающему, а цикл продолжает работу
+        private void run(TaskManager manager) {
+            try {
+                result = action.apply(manager);
+            } catch (Throwable e) {
+                error = e;
+            }
+        }
+
+        private void complete() {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+
+    private record Versions(long task, long epic, long subtask, long prioritized) {
+
+        static Versions of(TaskManager manager) {
+            return new Versions(manager.getVersion(TaskType.TASK), manager.getVersion(TaskType.EPIC),
+                    manager.getVersion(TaskType.SUBTASK), manager.getPrioritizedVersion());
+        }
+
+        long of(TaskType type) {
+            return switch (type) {
+                case TASK -> task;
+                case EPIC -> epic;
+                case SUBTASK -> subtask;
+            };
+        }
+    }
+
+    private record Cached<T>(long version, List<T> list) {
+    }
+
+    // Последняя собранная копия коллекции. Пересобирается только в потоке цикла, поэтому несколько
+    // читателей устаревшей версии получат одну и ту же новую копию
+    private static class View<T> {
+        private final ToLongFunction<Versions> version;
+        private final Function<TaskManager, List<T>> loader;
+        private volatile Cached<T> cached = new Cached<>(Long.MIN_VALUE, List.of());
+
+        View(ToLongFunction<Versions> version, Function<TaskManager, List<T>> loader) {
+            this.version = version;
+            this.loader = loader;
+        }
+
+        Cached<T> load(TaskManager manager) {
+            long current = version.applyAsLong(Versions.of(manager));
+            if (cached.version() != current) {
+                cached = new Cached<>(current, List.copyOf(loader.apply(manager)));
+            }
+            return cached;
+        }
+    }
+}
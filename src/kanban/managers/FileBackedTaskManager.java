@@ -4,20 +4,60 @@ import kanban.exceptions.ManagerSaveException;
 import kanban.tasks.Epic;
 import kanban.tasks.Subtask;
 import kanban.tasks.Task;
+import kanban.tasks.TaskType;
 import kanban.util.CSVFormat;
+import kanban.util.HistoryLog;
+import kanban.util.TaskJournal;
 import kanban.util.Tasks;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 
-public class FileBackedTaskManager extends InMemoryTaskManager {
+public class FileBackedTaskManager extends InMemoryTaskManager implements AutoCloseable {
+
+    // Размер журнала, после которого состояние переписывается в файл задач, а журнал очищается
+    static final long JOURNAL_COMPACTION_SIZE = 4 * 1024 * 1024;
 
     private final Path taskFile;
+    private final Executor ioExecutor;
+    private final CSVFormat.SyncPolicy syncPolicy;
+    private final TaskJournal journal;
+    private final PersistentHistoryManager persistentHistory;
+
+    // Копия сохраненного состояния, которую видит только поток записи
+    private final Queue<TaskEvent> pendingEvents = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, Task> savedTasks = new LinkedHashMap<>();
+    private final Map<Integer, Epic> savedEpics = new LinkedHashMap<>();
+    private final Map<Integer, Subtask> savedSubtasks = new LinkedHashMap<>();
+    private volatile ManagerSaveException lastSaveError;
+
+    private FileBackedTaskManager(Path taskFile, Executor ioExecutor, CSVFormat.SyncPolicy syncPolicy,
+                                  PersistentHistoryManager persistentHistory) {
+        super(persistentHistory == null ? Managers.getDefaultHistory() : persistentHistory);
+        this.taskFile = taskFile;
+        this.ioExecutor = ioExecutor;
+        this.syncPolicy = syncPolicy;
+        this.journal = null;
+        this.persistentHistory = persistentHistory;
+    }
 
-    public FileBackedTaskManager(Path taskFile) {
+    private FileBackedTaskManager(TaskJournal journal, Path taskFile, CSVFormat.SyncPolicy syncPolicy) {
         super();
         this.taskFile = taskFile;
+        this.ioExecutor = null;
+        this.syncPolicy = syncPolicy;
+        this.journal = journal;
+        this.persistentHistory = null;
     }
 
     public static void main(String[] args) throws IOException {
@@ -27,7 +67,7 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         Path taskFile = Files.createTempFile("tasks", ".csv");
         System.out.println("Сохраняем задачи в " + taskFile.toAbsolutePath());
 
-        TaskManager manager = new FileBackedTaskManager(taskFile);
+        TaskManager manager = create(taskFile);
 
         Tasks.createAndSaveTask(manager, "task1", "desc1", null, null);
         Tasks.createAndSaveTask(manager, "task2", "desc2", null, null);
@@ -39,108 +79,284 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         Tasks.printTasks(managerFromFile);
     }
 
-    public static FileBackedTaskManager loadFromFile(Path path) throws IOException {
-
-        FileBackedTaskManager manager = new FileBackedTaskManager(path);
+    public static FileBackedTaskManager create(Path taskFile) {
+        return create(taskFile, null);
+    }
 
-        CSVFormat.loadTasksFromFile(path).forEach(task -> {
-            if (task instanceof Epic) {
-                manager.saveEpic((Epic)task);
-            } else if (task instanceof Subtask) {
-                manager.saveSubtask((Subtask)task);
-            } else {
-                manager.saveTask(task);
-            }
-        });
+    public static FileBackedTaskManager create(Path taskFile, Executor ioExecutor) {
+        return create(taskFile, ioExecutor, CSVFormat.SyncPolicy.NONE);
+    }
 
+    // Без ioExecutor файл перезаписывается синхронно, один раз на операцию, а не на каждое событие.
+    // С ним запись уходит в ioExecutor, и операции менеджера не ждут диска: они только ставят
+    // события в очередь. Операции, накопившиеся за время записи, сохраняются одной записью
+    public static FileBackedTaskManager create(Path taskFile, Executor ioExecutor, CSVFormat.SyncPolicy syncPolicy) {
+        FileBackedTaskManager manager = new FileBackedTaskManager(taskFile, ioExecutor, syncPolicy, null);
+        manager.attachFileWriter();
         return manager;
     }
 
-    @Override
-    public int saveTask(Task task) {
-        int id = super.saveTask(task);
-        save();
-        return id;
+    public static FileBackedTaskManager loadFromFile(Path path) throws IOException {
+        return loadFromFile(path, null);
     }
 
-    @Override
-    public int saveEpic(Epic epic) {
-        int id = super.saveEpic(epic);
-        save();
-        return id;
+    // ioExecutor = null - файл сохраняется синхронно
+    public static FileBackedTaskManager loadFromFile(Path path, Executor ioExecutor) throws IOException {
+
+        CSVFormat.deleteTempFile(path);
+        FileBackedTaskManager manager = new FileBackedTaskManager(path, ioExecutor, CSVFormat.SyncPolicy.NONE,
+                null);
+        manager.restore(CSVFormat.loadTasksFromFile(path));
+        manager.attachFileWriter();
+        return manager;
     }
 
-    @Override
-    public int saveSubtask(Subtask subtask) {
-        int id = super.saveSubtask(subtask);
-        save();
-        return id;
+    // История просмотров дописывается в журнал historyFile отдельным потоком и восстанавливается после задач
+    // за один проход по журналу, без повторного просмотра задач. Id удаленных задач пропускаются
+    public static FileBackedTaskManager loadFromFile(Path path, Path historyFile, Executor ioExecutor)
+            throws IOException {
+
+        CSVFormat.deleteTempFile(path);
+        List<Task> tasks = Files.exists(path) ? CSVFormat.loadTasksFromFile(path) : List.of();
+        Map<Integer, Task> tasksById = new LinkedHashMap<>();
+        tasks.forEach(task -> tasksById.put(task.getId(), task));
+        List<Integer> historyIds = HistoryLog.replay(historyFile).stream()
+                .filter(tasksById::containsKey)
+                .toList();
+
+        PersistentHistoryManager history = new PersistentHistoryManager(HistoryLog.open(historyFile, historyIds));
+        FileBackedTaskManager manager = new FileBackedTaskManager(path, ioExecutor, CSVFormat.SyncPolicy.NONE,
+                history);
+        try {
+            manager.restore(tasks);
+            manager.attachFileWriter();
+            // restore отбрасывает подзадачи без эпика, поэтому id сверяются уже с загруженными задачами
+            history.restore(historyIds.stream().flatMap(id -> manager.findById(id).stream()).toList());
+        } catch (RuntimeException e) {
+            history.close();
+            throw e;
+        }
+        return manager;
     }
 
-    @Override
-    public void updateTask(Task task) {
-        super.updateTask(task);
-        save();
+    // Операции дописывают в двоичный журнал только изменившиеся поля, а файл задач целиком
+    // переписывается, лишь когда журнал вырастает до JOURNAL_COMPACTION_SIZE.
+    // При загрузке журнал применяется поверх файла задач, оборванный при сбое хвост отбрасывается
+    public static FileBackedTaskManager loadWithJournal(Path taskFile, Path journalFile,
+                                                        CSVFormat.SyncPolicy syncPolicy) throws IOException {
+
+        CSVFormat.deleteTempFile(taskFile);
+        Map<Integer, Task> tasks = new LinkedHashMap<>();
+        if (Files.exists(taskFile)) {
+            CSVFormat.loadTasksFromFile(taskFile).forEach(task -> tasks.put(task.getId(), task));
+        }
+        TaskJournal.replay(journalFile, tasks);
+
+        TaskJournal journal = TaskJournal.open(journalFile, syncPolicy);
+        FileBackedTaskManager manager = new FileBackedTaskManager(journal, taskFile, syncPolicy);
+        try {
+            manager.restore(tasks.values());
+        } catch (RuntimeException e) {
+            journal.close();
+            throw e;
+        }
+
+        // слушатель добавляется после загрузки, чтобы загруженные задачи не попали в журнал повторно
+        // ошибка записи откладывается до конца операции, чтобы не прервать ее посередине изменений в памяти
+        manager.addListener(new TaskListener() {
+            private IOException appendError;
+
+            @Override
+            public void onTaskEvent(TaskEvent event) {
+                if (appendError != null) {
+                    return;
+                }
+                try {
+                    journal.append(event);
+                } catch (IOException e) {
+                    appendError = e;
+                }
+            }
+
+            @Override
+            public void onCommit() {
+                if (appendError == null) {
+                    manager.commitJournal();
+                    return;
+                }
+                IOException error = appendError;
+                appendError = null;
+                manager.recoverJournal(error);
+            }
+        });
+        return manager;
     }
 
-    @Override
-    public void updateEpic(Epic epic) {
-        super.updateEpic(epic);
-        save();
+    // Слушатель добавляется после загрузки: загруженные задачи уже лежат в файле и повторно не пишутся.
+    // Фоновой записи достается копия загруженного состояния, дальше она меняется только событиями
+    private void attachFileWriter() {
+        if (ioExecutor == null) {
+            addListener(new TaskListener() {
+                @Override
+                public void onTaskEvent(TaskEvent event) {
+                }
+
+                @Override
+                public void onCommit() {
+                    save();
+                }
+            });
+            return;
+        }
+
+        getTasks().forEach(task -> savedTasks.put(task.getId(), task));
+        getEpics().forEach(epic -> savedEpics.put(epic.getId(), epic));
+        getSubtasks().forEach(subtask -> savedSubtasks.put(subtask.getId(), subtask));
+        addListener(new TaskListener() {
+            @Override
+            public void onTaskEvent(TaskEvent event) {
+                // задачи неизменяемы, поэтому событие можно отдать потоку записи как есть
+                pendingEvents.offer(event);
+            }
+
+            @Override
+            public void onCommit() {
+                ioExecutor.execute(FileBackedTaskManager.this::savePending);
+            }
+        });
     }
 
-    @Override
-    public void updateSubtask(Subtask subtask) {
-        super.updateSubtask(subtask);
-        save();
+    // Завершается, когда все операции до этого момента записаны в файл
+    public CompletableFuture<Void> flush() {
+        if (ioExecutor == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(this::savePending, ioExecutor);
     }
 
-    @Override
-    public void removeTasks() {
-        super.removeTasks();
-        save();
+    // Ошибку фоновой записи нельзя пробросить вызывающему, поэтому последняя сохраняется здесь
+    public Optional<ManagerSaveException> getLastSaveError() {
+        return Optional.ofNullable(lastSaveError);
     }
 
+    // Дожидается фоновой записи и закрывает журналы
     @Override
-    public void removeTaskById(int id) {
-        super.removeTaskById(id);
-        save();
+    public void close() throws IOException {
+        flush().join();
+        if (journal != null) {
+            journal.close();
+        }
+        if (persistentHistory != null) {
+            persistentHistory.close();
+        }
     }
 
-    @Override
-    public void removeEpics() {
-        super.removeEpics();
-        save();
+    private void commitJournal() {
+        long start = System.nanoTime();
+        try {
+            long sizeBefore = journal.size();
+            journal.commit();
+            long size = journal.size();
+            TaskManagerMetrics.FILE_WRITTEN_BYTES.add(size - sizeBefore);
+            TaskManagerMetrics.JOURNAL_COMMIT.recordSince(start);
+
+            if (size >= JOURNAL_COMPACTION_SIZE) {
+                // журнал очищается только после того, как файл задач записан целиком
+                save();
+                journal.reset();
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось записать журнал", e);
+        }
     }
 
-    @Override
-    public void removeEpicById(int id) {
-        super.removeEpicById(id);
-        save();
+    // Операция попала в журнал не целиком: файл задач переписывается текущим состоянием, а журнал очищается,
+    // чтобы недописанные записи не применились при загрузке
+    private void recoverJournal(IOException error) {
+        try {
+            save();
+            journal.reset();
+        } catch (IOException | ManagerSaveException e) {
+            error.addSuppressed(e);
+        }
+        throw new ManagerSaveException("Не удалось записать журнал", error);
     }
 
-    @Override
-    public void removeSubtasks() {
-        super.removeSubtasks();
-        save();
+    private void save() {
+        write(getTasks(), getEpics(), getSubtasks());
     }
 
-    @Override
-    public void removeSubtaskById(int id) {
-        super.removeSubtaskById(id);
-        save();
+    private synchronized void savePending() {
+        TaskEvent event;
+        boolean isChanged = false;
+        while ((event = pendingEvents.poll()) != null) {
+            isChanged = true;
+            Map<Integer, ? extends Task> saved = switch (event.getTaskType()) {
+                case TASK -> savedTasks;
+                case EPIC -> savedEpics;
+                case SUBTASK -> savedSubtasks;
+            };
+            if (event.getAfter() == null) {
+                saved.remove(event.getTaskId());
+            } else {
+                put(saved, event.getAfter());
+            }
+        }
+
+        if (!isChanged) {
+            return;
+        }
+
+        try {
+            write(savedTasks.values(), savedEpics.values(), savedSubtasks.values());
+            lastSaveError = null;
+        } catch (ManagerSaveException e) {
+            lastSaveError = e;
+            e.printStackTrace();
+        }
     }
 
-    private void save() {
+    @SuppressWarnings("unchecked")
+    private static <T extends Task> void put(Map<Integer, T> saved, Task task) {
+        saved.put(task.getId(), (T) task);
+    }
+
+    private void write(Collection<Task> tasks, Collection<Epic> epics, Collection<Subtask> subtasks) {
 
-        try (CSVFormat.TaskFileWriter writer = CSVFormat.writer(taskFile)) {
+        long start = System.nanoTime();
+        CSVFormat.TaskFileWriter writer;
+        try {
+            writer = CSVFormat.writer(taskFile, syncPolicy);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось сохранить задачи", e);
+        }
 
-            getTasks().forEach(writer::println);
-            getEpics().forEach(writer::println);
-            getSubtasks().forEach(writer::println);
+        try {
+            tasks.forEach(writer::println);
+            epics.forEach(writer::println);
+            subtasks.forEach(writer::println);
+        } catch (RuntimeException | Error e) {
+            // недописанный временный файл не должен подменить файл задач
+            try {
+                writer.abort();
+            } catch (IOException abortError) {
+                e.addSuppressed(abortError);
+            }
+            throw e;
+        }
 
+        try {
+            writer.close();
         } catch (IOException e) {
             throw new ManagerSaveException("Не удалось сохранить задачи", e);
         }
+
+        // файл каждый раз переписывается целиком, поэтому его размер и есть объем записи
+        try {
+            TaskManagerMetrics.FILE_WRITTEN_BYTES.add(Files.size(taskFile));
+        } catch (IOException e) {
+            // метрика не должна ломать сохранение
+        }
+        TaskManagerMetrics.FILE_SAVE.recordSince(start);
     }
 }
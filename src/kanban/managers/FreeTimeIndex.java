@@ -0,0 +1,84 @@
+package kanban.managers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+// Свободные промежутки расписания для пакетной расстановки задач. Промежутки лежат в массивах
+// по порядку, дерево отрезков над их длинами за O(log n) находит первый, куда помещается задача.
+// Задача всегда встает в начало промежутка, поэтому он только укорачивается слева и не делится
+class FreeTimeIndex {
+
+    private long[] gapStart = new long[16];
+    private long[] gapEnd = new long[16];
+    private int gapCount;
+    private long cursor;
+
+    private long[] maxLength;
+    private int leafCount;
+
+    // Занятые интервалы добавляются в порядке начала, пересекающиеся допустимы
+    FreeTimeIndex(LocalDateTime notBefore) {
+        this.cursor = toSecondsCeil(notBefore);
+    }
+
+    void addBusy(LocalDateTime start, LocalDateTime end) {
+        long startSeconds = start.toEpochSecond(ZoneOffset.UTC);
+        long endSeconds = toSecondsCeil(end);
+        if (endSeconds <= cursor) {
+            return;
+        }
+        if (startSeconds > cursor) {
+            addGap(cursor, startSeconds);
+        }
+        cursor = endSeconds;
+    }
+
+    // Вызывается после всех addBusy: последний промежуток не ограничен
+    void build() {
+        addGap(cursor, Long.MAX_VALUE);
+
+        leafCount = Integer.highestOneBit(Math.max(1, gapCount - 1)) << 1;
+        maxLength = new long[2 * leafCount];
+        for (int i = 0; i < gapCount; i++) {
+            maxLength[leafCount + i] = gapEnd[i] - gapStart[i];
+        }
+        for (int node = leafCount - 1; node > 0; node--) {
+            maxLength[node] = Math.max(maxLength[2 * node], maxLength[2 * node + 1]);
+        }
+    }
+
+    // Занимает самое раннее место продолжительностью duration и возвращает его начало
+    LocalDateTime take(Duration duration) {
+        long length = duration.toSeconds() + (duration.getNano() > 0 ? 1 : 0);
+
+        int node = 1;
+        while (node < leafCount) {
+            node = maxLength[2 * node] >= length ? 2 * node : 2 * node + 1;
+        }
+        int gap = node - leafCount;
+
+        long start = gapStart[gap];
+        gapStart[gap] += length;
+        maxLength[node] = gapEnd[gap] - gapStart[gap];
+        for (node /= 2; node > 0; node /= 2) {
+            maxLength[node] = Math.max(maxLength[2 * node], maxLength[2 * node + 1]);
+        }
+        return LocalDateTime.ofEpochSecond(start, 0, ZoneOffset.UTC);
+    }
+
+    private void addGap(long start, long end) {
+        if (gapCount == gapStart.length) {
+            gapStart = Arrays.copyOf(gapStart, gapCount * 2);
+            gapEnd = Arrays.copyOf(gapEnd, gapCount * 2);
+        }
+        gapStart[gapCount] = start;
+        gapEnd[gapCount] = end;
+        gapCount++;
+    }
+
+    private static long toSecondsCeil(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) + (time.getNano() > 0 ? 1 : 0);
+    }
+}
@@ -12,4 +12,6 @@ public interface HistoryManager {
     void clear();
 
     List<Task> getHistory();
+
+    int size();
 }
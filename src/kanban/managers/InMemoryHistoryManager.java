@@ -32,6 +32,17 @@ class InMemoryHistoryManager implements HistoryManager {
         return tasks.getTasks();
     }
 
+    // Заменяет историю задачами в порядке от самого старого просмотра за один проход
+    synchronized void restore(List<Task> history) {
+        tasks.clear();
+        history.forEach(tasks::linkLast);
+    }
+
+    @Override
+    public int size() {
+        return tasks.size();
+    }
+
     private static class TaskLinkedList {
         private Node head;
         private Node tail;
@@ -57,6 +68,10 @@ class InMemoryHistoryManager implements HistoryManager {
             head = tail = null;
         }
 
+        public int size() {
+            return nodeByTaskId.size();
+        }
+
         public List<Task> getTasks() {
             List<Task> tasks = new ArrayList<>();
 
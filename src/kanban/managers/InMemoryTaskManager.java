@@ -1,30 +1,68 @@
 package kanban.managers;
 
 import kanban.exceptions.ManagerSaveException;
+import kanban.metrics.LatencyHistogram;
 import kanban.repo.InMemoryRepo;
 import kanban.repo.TaskRepo;
 import kanban.tasks.Epic;
 import kanban.tasks.Subtask;
 import kanban.tasks.Task;
+import kanban.tasks.TaskStatus;
+import kanban.tasks.TaskType;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 public class InMemoryTaskManager implements TaskManager {
 
-    private static int taskCounter;
+    private int taskCounter;
 
     private final TaskRepo<Task> taskRepo;
     private final TaskRepo<Epic> epicRepo;
     private final TaskRepo<Subtask> subtaskRepo;
     private final HistoryManager historyManager;
-    private final Set<Task> prioritizedTasks = new TreeSet<>(Comparator.comparing(Task::getStartTime));
+    // Задачи неизменяемы, поэтому хранятся и отдаются наружу без копирования. Ключ расписания
+    // хранит начало и окончание, чтобы проверка пересечений не обращалась к самим задачам
+    private final NavigableMap<ScheduleKey, Task> prioritizedTasks = new TreeMap<>();
+    private final Map<Integer, ScheduleKey> scheduleKeyById = new HashMap<>();
+    // Задачи, пересекавшиеся с другими при загрузке: проверка пересечений их не пропускает, а файл
+    // старой версии мог их содержать. Пока множество не пусто, поиск по расписанию обходит все задачи,
+    // начавшиеся раньше, потому что окончания уже не идут в порядке начал
+    private final Set<Integer> overlappingIds = new HashSet<>();
+    private final StatusIndex statusIndex = new StatusIndex();
+    private final OverdueIndex overdueIndex = new OverdueIndex();
+    private final UtilizationIndex utilizationIndex = new UtilizationIndex();
+    private final BoardCounters counters = new BoardCounters(statusIndex);
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final DependencyGraph dependencies = new DependencyGraph();
+
+    // Версии коллекций растут при каждом изменении, по ним HTTP-обработчики понимают, что кеш устарел
+    private final Map<TaskType, AtomicLong> versions = new EnumMap<>(TaskType.class);
+    private final AtomicLong prioritizedVersion = new AtomicLong();
+
+    private final List<TaskListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<TaskListener, AsyncTaskListener> asyncListeners = new ConcurrentHashMap<>();
+    private boolean hasUncommittedEvents;
 
     public InMemoryTaskManager() {
+        this(Managers.getDefaultHistory());
+    }
+
+    protected InMemoryTaskManager(HistoryManager historyManager) {
         taskRepo = new InMemoryRepo<>();
         epicRepo = new InMemoryRepo<>();
         subtaskRepo = new InMemoryRepo<>();
-        historyManager = Managers.getDefaultHistory();
+        this.historyManager = historyManager;
+        for (TaskType type : TaskType.values()) {
+            versions.put(type, new AtomicLong());
+        }
     }
 
     private synchronized int generateTaskId() {
@@ -41,23 +79,29 @@ public class InMemoryTaskManager implements TaskManager {
     @Override
     public int saveTask(Task task) {
 
+        long start = System.nanoTime();
+
         checkDurationBeforeSaving(task);
 
         if (isIntercepted(task)) {
             throw new ManagerSaveException("Задача не должна пересекаться с другими!");
         }
 
+        Task oldTask = null;
         if (task.getId() == null) {
             int id = generateTaskId();
             task.setId(id);
         } else {
             setGeneratedId(task.getId());
+            oldTask = taskRepo.findById(task.getId()).orElse(null);
         }
 
         prioritize(task);
         taskRepo.save(task);
+        onSaved(oldTask, task);
 
         System.out.println("task created: " + task);
+        commit(TaskManagerMetrics.SAVE_TASK, start);
 
         return task.getId();
     }
@@ -65,18 +109,24 @@ public class InMemoryTaskManager implements TaskManager {
     @Override
     public int saveEpic(Epic epic) {
 
+        long start = System.nanoTime();
+
         checkDurationBeforeSaving(epic);
 
+        Epic oldEpic = null;
         if (epic.getId() == null) {
             int id = generateTaskId();
             epic.setId(id);
         } else {
             setGeneratedId(epic.getId());
+            oldEpic = epicRepo.findById(epic.getId()).orElse(null);
         }
 
         epicRepo.save(epic);
+        onSaved(oldEpic, epic);
 
         System.out.println("epic created: " + epic);
+        commit(TaskManagerMetrics.SAVE_EPIC, start);
 
         return epic.getId();
     }
@@ -84,6 +134,8 @@ public class InMemoryTaskManager implements TaskManager {
     @Override
     public int saveSubtask(Subtask subtask) {
 
+        long start = System.nanoTime();
+
         checkDurationBeforeSaving(subtask);
 
         if (isIntercepted(subtask)) {
@@ -93,20 +145,23 @@ public class InMemoryTaskManager implements TaskManager {
         Epic epic = getEpicOfSubtask(subtask);
         if (epic != null) {
 
+            Subtask oldSubtask = null;
             if (subtask.getId() == null) {
                 int id = generateTaskId();
                 subtask.setId(id);
             } else {
                 setGeneratedId(subtask.getId());
+                oldSubtask = subtaskRepo.findById(subtask.getId()).orElse(null);
             }
 
             prioritize(subtask);
             subtaskRepo.save(subtask);
+            onSaved(oldSubtask, subtask);
 
-            epic.addSubtaskIdIfAbsent(subtask);
-            updateEpicProperties(epic);
+            updateEpicProperties(epic, epic.withSubtaskId(subtask.getId()));
 
             System.out.println("subtask created: " + subtask);
+            commit(TaskManagerMetrics.SAVE_SUBTASK, start);
 
             return subtask.getId();
         }
@@ -151,8 +206,14 @@ public class InMemoryTaskManager implements TaskManager {
         return sub;
     }
 
+    // Эпик снаружи может быть устаревшей копией, поэтому подзадачи берутся у сохраненного эпика
     @Override
     public List<Subtask> getSubtasksOfEpic(Epic epic) {
+        Epic stored = epic.getId() == null ? null : epicRepo.findById(epic.getId()).orElse(null);
+        return subtasksOf(stored != null ? stored : epic);
+    }
+
+    private List<Subtask> subtasksOf(Epic epic) {
         List<Subtask> subtasks = new ArrayList<>();
         epic.getSubtasksId().forEach(subtaskId ->
             subtaskRepo.findById(subtaskId).ifPresent(subtasks::add));
@@ -167,6 +228,7 @@ public class InMemoryTaskManager implements TaskManager {
     // Обновление
     @Override
     public void updateTask(Task task) {
+        long start = System.nanoTime();
         if (task.getId() == null || taskRepo.findById(task.getId()).isEmpty()) {
             System.out.println("Обновить можно только ранее сохраненную задачу");
             return;
@@ -176,27 +238,37 @@ public class InMemoryTaskManager implements TaskManager {
             throw new ManagerSaveException("Подзадача не должна пересекаться с другими!");
         }
 
-        taskRepo.findById(task.getId()).ifPresent(this::deprioritize);
+        Task oldTask = taskRepo.findById(task.getId()).orElseThrow();
+        deprioritize(oldTask);
         prioritize(task);
 
         taskRepo.save(task);
-
+        onSaved(oldTask, task);
+        commit(TaskManagerMetrics.UPDATE_TASK, start);
     }
 
     @Override
     public void updateEpic(Epic epic) {
+        long start = System.nanoTime();
         if (epic.getId() == null || epicRepo.findById(epic.getId()).isEmpty()) {
             System.out.println("Обновить можно только ранее сохраненный эпик");
             return;
         }
-        epicRepo.save(epic);
-        updateEpicProperties(epic);
+        Epic oldEpic = epicRepo.findById(epic.getId()).orElseThrow();
+        long recomputeStart = System.nanoTime();
+        Epic newEpic = epic.updated(subtasksOf(epic));
+        TaskManagerMetrics.EPIC_RECOMPUTE.recordSince(recomputeStart);
+        epicRepo.save(newEpic);
+        onSaved(oldEpic, newEpic);
+        commit(TaskManagerMetrics.UPDATE_EPIC, start);
     }
 
     // При обновлении подзадачи нужно обновить родительский эпик
     @Override
     public void updateSubtask(Subtask subtask) {
 
+        long start = System.nanoTime();
+
         if (subtask.getId() == null) {
             System.out.println("Изменить можно только сохраненную подзадачу");
             return;
@@ -221,89 +293,113 @@ public class InMemoryTaskManager implements TaskManager {
             throw new ManagerSaveException("Подзадача не должна пересекаться с другими!");
         }
 
-        subtaskRepo.findById(subtask.getId()).ifPresent(this::deprioritize);
+        deprioritize(oldSubtask.get());
         prioritize(subtask);
 
         subtaskRepo.save(subtask);
+        onSaved(oldSubtask.get(), subtask);
 
-        updateEpicProperties(epic);
+        updateEpicProperties(epic, epic);
+        commit(TaskManagerMetrics.UPDATE_SUBTASK, start);
     }
 
     // Удаление
     @Override
     public void removeTasks() {
+        long start = System.nanoTime();
         taskRepo.findAll().forEach(task -> {
             deprioritize(task);
             historyManager.remove(task.getId());
+            onRemoved(task);
         });
         taskRepo.delete();
+        commit(TaskManagerMetrics.REMOVE_TASK, start);
     }
 
     @Override
     public void removeTaskById(int id) {
+        long start = System.nanoTime();
         taskRepo.findById(id)
                 .ifPresent(task -> {
                     deprioritize(task);
                     historyManager.remove(id);
                     taskRepo.deleteById(id);
+                    onRemoved(task);
                 });
+        commit(TaskManagerMetrics.REMOVE_TASK, start);
     }
 
     @Override
     public void removeEpics() {
+        long start = System.nanoTime();
         subtaskRepo.findAll().forEach(task -> {
             deprioritize(task);
             historyManager.remove(task.getId());
+            onRemoved(task);
         });
         subtaskRepo.delete();
 
-        epicRepo.findAll().forEach(task -> historyManager.remove(task.getId()));
+        epicRepo.findAll().forEach(task -> {
+            historyManager.remove(task.getId());
+            onRemoved(task);
+        });
         epicRepo.delete();
+        commit(TaskManagerMetrics.REMOVE_EPIC, start);
     }
 
     // При удалении эпика все его подзадачи тоже удаляются
     @Override
     public void removeEpicById(int id) {
 
+        long start = System.nanoTime();
+
         epicRepo.findById(id).ifPresent(epic -> {
             epic.getSubtasksId().forEach(subtaskId -> {
-                subtaskRepo.findById(subtaskId).ifPresent(this::deprioritize);
+                subtaskRepo.findById(subtaskId).ifPresent(subtask -> {
+                    deprioritize(subtask);
+                    onRemoved(subtask);
+                });
                 historyManager.remove(subtaskId);
                 subtaskRepo.deleteById(subtaskId);
             });
             historyManager.remove(id);
             epicRepo.deleteById(id);
+            onRemoved(epic);
         });
+        commit(TaskManagerMetrics.REMOVE_EPIC, start);
     }
 
     // При удалении подзадач из хранилища также нужно удалить их у эпиков
     @Override
     public void removeSubtasks() {
+        long start = System.nanoTime();
         subtaskRepo.findAll().forEach(task -> {
             deprioritize(task);
             historyManager.remove(task.getId());
+            onRemoved(task);
         });
         subtaskRepo.delete();
 
-        epicRepo.findAll().forEach(epic -> {
-            epic.removeSubtasks();
-            updateEpicProperties(epic);
-        });
+        new ArrayList<>(epicRepo.findAll()).forEach(epic ->
+                updateEpicProperties(epic, epic.withSubtasksId(List.of())));
+        commit(TaskManagerMetrics.REMOVE_SUBTASK, start);
     }
 
     // При удалении подзадачи нужно обновить родительский эпик
     @Override
     public void removeSubtaskById(int id) {
+        long start = System.nanoTime();
         subtaskRepo.findById(id).ifPresent(subtask -> {
             Epic epic = getEpicOfSubtask(subtask);
             if (epic != null) {
                 deprioritize(subtask);
                 historyManager.remove(id);
                 subtaskRepo.deleteById(id);
-                epic.removeSubtask(subtask);
-                updateEpicProperties(epic);
+                onRemoved(subtask);
+                updateEpicProperties(epic, epic.withoutSubtaskId(id));
             }
         });
+        commit(TaskManagerMetrics.REMOVE_SUBTASK, start);
     }
 
     @Override
@@ -313,7 +409,276 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public List<Task> getPrioritizedTasks() {
-        return new ArrayList<>(prioritizedTasks);
+        return new ArrayList<>(prioritizedTasks.values());
+    }
+
+    // Идет по промежуткам между задачами расписания начиная с notBefore: O(log n) на поиск начала
+    // и по одному шагу на каждую задачу, в которую упирается окно
+    @Override
+    public Optional<LocalDateTime> findFreeSlot(Duration duration, LocalDateTime notBefore, LocalDateTime notAfter) {
+        if (duration == null || duration.isNegative() || notBefore == null) {
+            throw new IllegalArgumentException("Нужны неотрицательная продолжительность и время начала поиска");
+        }
+
+        ScheduleKey from = new ScheduleKey(notBefore, null, Integer.MIN_VALUE);
+        LocalDateTime candidate = notBefore;
+
+        // задача, начавшаяся раньше notBefore, может еще идти. Без пересечений достаточно последней
+        // из них с известным окончанием
+        for (ScheduleKey key : prioritizedTasks.headMap(from, false).descendingKeySet()) {
+            if (key.endTime() != null) {
+                candidate = max(candidate, key.endTime());
+                if (overlappingIds.isEmpty()) {
+                    break;
+                }
+            }
+        }
+
+        for (ScheduleKey key : prioritizedTasks.tailMap(from, true).keySet()) {
+            if (notAfter != null && candidate.plus(duration).isAfter(notAfter)) {
+                return Optional.empty();
+            }
+            if (key.endTime() == null) {
+                continue;
+            }
+            // то же условие пересечения, что и в isIntercepted
+            if (!key.startTime().isBefore(candidate.plus(duration))) {
+                break;
+            }
+            candidate = max(candidate, key.endTime());
+        }
+
+        if (notAfter != null && candidate.plus(duration).isAfter(notAfter)) {
+            return Optional.empty();
+        }
+        return Optional.of(candidate);
+    }
+
+    // Задачи собираются в группы (подзадачи эпика - одна группа), и каждая группа целиком занимает
+    // первый подходящий промежуток. Пересечения исключены построением, поэтому isIntercepted
+    // не вызывается, а все изменения уходят слушателям одной операцией
+    @Override
+    public List<Task> scheduleUnscheduled(LocalDateTime notBefore, Comparator<Task> priority) {
+        if (notBefore == null) {
+            throw new IllegalArgumentException("Нужно время начала расстановки");
+        }
+
+        long start = System.nanoTime();
+        Comparator<Task> order = priority == null
+                ? Comparator.comparing(Task::getId)
+                : priority.thenComparing(Task::getId);
+
+        List<List<Task>> groups = new ArrayList<>();
+        taskRepo.findAll().stream()
+                .filter(InMemoryTaskManager::isUnscheduled)
+                .forEach(task -> groups.add(List.of(task)));
+        Map<Integer, List<Task>> subtasksByEpic = new HashMap<>();
+        subtaskRepo.findAll().stream()
+                .filter(InMemoryTaskManager::isUnscheduled)
+                .forEach(sub -> subtasksByEpic.computeIfAbsent(sub.getEpicId(), id -> new ArrayList<>()).add(sub));
+        subtasksByEpic.values().forEach(subtasks -> {
+            subtasks.sort(order);
+            groups.add(subtasks);
+        });
+        groups.sort(Comparator.comparing(List::getFirst, order));
+
+        FreeTimeIndex freeTime = new FreeTimeIndex(notBefore);
+        prioritizedTasks.keySet().stream()
+                .filter(key -> key.endTime() != null)
+                .forEach(key -> freeTime.addBusy(key.startTime(), key.endTime()));
+        freeTime.build();
+
+        List<Task> scheduled = new ArrayList<>();
+        Set<Epic> epics = new LinkedHashSet<>();
+        for (List<Task> group : groups) {
+            Duration total = group.stream().map(Task::getDuration).reduce(Duration.ZERO, Duration::plus);
+            LocalDateTime startTime = freeTime.take(total);
+
+            for (Task task : group) {
+                Task placed = task.withStartTime(startTime);
+                startTime = startTime.plus(task.getDuration());
+                prioritize(placed);
+                if (placed instanceof Subtask subtask) {
+                    subtaskRepo.save(subtask);
+                    epicRepo.findById(subtask.getEpicId()).ifPresent(epics::add);
+                } else {
+                    taskRepo.save(placed);
+                }
+                onSaved(task, placed);
+                scheduled.add(placed);
+            }
+        }
+        epics.forEach(epic -> updateEpicProperties(epic, epic));
+
+        commit(TaskManagerMetrics.SCHEDULE, start);
+        return scheduled;
+    }
+
+    private static boolean isUnscheduled(Task task) {
+        return task.getStartTime() == null && task.getDuration() != null && !task.getDuration().isNegative();
+    }
+
+    @Override
+    public void addDependency(int blockerId, int blockedId) {
+        if (findById(blockerId).isEmpty() || findById(blockedId).isEmpty()) {
+            throw new ManagerSaveException("Зависимость можно добавить только между сохраненными задачами");
+        }
+        if (!dependencies.add(blockerId, blockedId)) {
+            throw new ManagerSaveException("Зависимости не должны образовывать цикл!");
+        }
+    }
+
+    @Override
+    public void removeDependency(int blockerId, int blockedId) {
+        dependencies.remove(blockerId, blockedId);
+    }
+
+    @Override
+    public List<Task> getBlockers(int taskId) {
+        List<Task> blockers = new ArrayList<>();
+        dependencies.getPredecessors(taskId).forEach(id -> findById(id).ifPresent(blockers::add));
+        return blockers;
+    }
+
+    // Один проход в поддерживаемом топологическом порядке: O(V log V + E)
+    @Override
+    public CriticalPath getCriticalPath(LocalDateTime notBefore) {
+        if (notBefore == null) {
+            throw new IllegalArgumentException("Нужно время, с которого могут начаться задачи без startTime");
+        }
+
+        Map<Integer, LocalDateTime> earliestStarts = new LinkedHashMap<>();
+        Map<Integer, LocalDateTime> finishes = new HashMap<>();
+        Map<Integer, Integer> drivers = new HashMap<>();
+        Integer last = null;
+        LocalDateTime finish = null;
+
+        for (int id : dependencies.getOrder()) {
+            Task task = findById(id).orElseThrow();
+            LocalDateTime start = task.getStartTime() != null ? task.getStartTime() : notBefore;
+            for (int blockerId : dependencies.getPredecessors(id)) {
+                LocalDateTime blockerFinish = finishes.get(blockerId);
+                if (blockerFinish.isAfter(start)) {
+                    start = blockerFinish;
+                    drivers.put(id, blockerId);
+                }
+            }
+
+            LocalDateTime end = task.getDuration() == null ? start : start.plus(task.getDuration());
+            earliestStarts.put(id, start);
+            finishes.put(id, end);
+            if (finish == null || end.isAfter(finish)) {
+                finish = end;
+                last = id;
+            }
+        }
+
+        LinkedList<Integer> path = new LinkedList<>();
+        for (Integer id = last; id != null; id = drivers.get(id)) {
+            path.addFirst(id);
+        }
+        return new CriticalPath(path, finish, earliestStarts);
+    }
+
+    @Override
+    public List<Task> getByStatus(TaskStatus status) {
+        return statusIndex.get(status);
+    }
+
+    @Override
+    public List<Task> getByStatus(TaskType type, TaskStatus status) {
+        return statusIndex.get(type, status);
+    }
+
+    @Override
+    public int countByStatus(TaskStatus status) {
+        return statusIndex.count(status);
+    }
+
+    @Override
+    public int countByType(TaskType type) {
+        return statusIndex.count(type);
+    }
+
+    @Override
+    public long getVersion(TaskType type) {
+        return versions.get(type).get();
+    }
+
+    @Override
+    public long getPrioritizedVersion() {
+        return prioritizedVersion.get();
+    }
+
+    @Override
+    public void addListener(TaskListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void addAsyncListener(TaskListener listener) {
+        AsyncTaskListener asyncListener = new AsyncTaskListener(listener);
+        if (asyncListeners.putIfAbsent(listener, asyncListener) == null) {
+            listeners.add(asyncListener);
+        } else {
+            asyncListener.close();
+        }
+    }
+
+    @Override
+    public void removeListener(TaskListener listener) {
+        AsyncTaskListener asyncListener = asyncListeners.remove(listener);
+        if (asyncListener != null) {
+            listeners.remove(asyncListener);
+            asyncListener.close();
+        } else {
+            listeners.remove(listener);
+        }
+    }
+
+    // Поиск не считается просмотром, поэтому история не меняется
+    @Override
+    public List<Task> search(String query, int offset, int limit) {
+        List<Task> tasks = new ArrayList<>();
+        searchIndex.search(query, offset, limit).forEach(id -> findById(id).ifPresent(tasks::add));
+        return tasks;
+    }
+
+    @Override
+    public List<Task> getOverdue(LocalDateTime now, LocalDateTime afterEndTime, int afterId, int limit) {
+        return overdueIndex.get(now, afterEndTime, afterId, limit);
+    }
+
+    // Каждая корзина - разность двух префиксных сумм, поэтому широкий промежуток не требует обхода задач
+    @Override
+    public List<Utilization> getUtilization(LocalDate from, LocalDate to, ChronoUnit bucket) {
+        if (bucket != ChronoUnit.DAYS && bucket != ChronoUnit.WEEKS) {
+            throw new IllegalArgumentException("Корзина может быть только днем или неделей");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Начало промежутка позже его конца");
+        }
+
+        List<Utilization> result = new ArrayList<>();
+        LocalDate end = to.plusDays(1);
+        LocalDate start = from;
+        while (start.isBefore(end)) {
+            LocalDate next = start.plus(1, bucket);
+            if (next.isAfter(end)) {
+                next = end;
+            }
+            long booked = utilizationIndex.bookedSeconds(start, next);
+            long capacity = ChronoUnit.DAYS.between(start, next) * 24 * 60 * 60;
+            result.add(new Utilization(start.atStartOfDay(), next.atStartOfDay(), booked / 60,
+                    Math.max(capacity - booked, 0) / 60));
+            start = next;
+        }
+        return result;
+    }
+
+    @Override
+    public BoardStats getStats() {
+        return counters.snapshot(historyManager.size());
     }
 
     private void checkDurationBeforeSaving(Task task) {
@@ -327,44 +692,220 @@ public class InMemoryTaskManager implements TaskManager {
             return false;
         }
 
+        long start = System.nanoTime();
         LocalDateTime startTime = task.getStartTime();
         LocalDateTime endTime = startTime.plus(task.getDuration());
 
-        Optional<Task> interceptingTask = getPrioritizedTasks().stream()
-                .filter(t -> {
-                    if (t.equals(task)) {
-                        return false;
-                    }
+        // Если задачи расписания не пересекаются, их окончания идут в том же порядке, что и начала:
+        // с новой задачей может пересечься только последняя задача с известным окончанием, начавшаяся
+        // раньше ее окончания. Поиск - O(log n) плюс пропущенные задачи без продолжительности
+        boolean isIntercepted = false;
+        ScheduleKey to = new ScheduleKey(endTime, null, Integer.MIN_VALUE);
+        for (ScheduleKey key : prioritizedTasks.headMap(to, false).descendingKeySet()) {
+            if (key.endTime() != null && !key.id().equals(task.getId())) {
+                isIntercepted = key.endTime().isAfter(startTime);
+                if (isIntercepted || overlappingIds.isEmpty()) {
+                    break;
+                }
+            }
+        }
+        TaskManagerMetrics.OVERLAP_CHECK.recordSince(start);
+        return isIntercepted;
+    }
+
+    private static LocalDateTime max(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    protected Optional<Task> findById(int id) {
+        return taskRepo.findById(id)
+                .or(() -> epicRepo.findById(id))
+                .or(() -> subtaskRepo.findById(id));
+    }
 
-                    if (t.getDuration() == null) {
-                        return false;
+    // Восстанавливает сохраненное состояние одним проходом. Задачи уже проверялись при сохранении, поэтому
+    // пересечения не проверяются, события не публикуются, а эпик пересчитывается один раз по всем подзадачам.
+    // Подзадачи без эпика пропускаются, как и в saveSubtask
+    protected void restore(Collection<Task> tasks) {
+        Map<Integer, Epic> epics = new LinkedHashMap<>();
+        Map<Integer, List<Subtask>> subtasksByEpic = new HashMap<>();
+        tasks.stream()
+                .filter(task -> task.getType() == TaskType.EPIC)
+                .forEach(task -> epics.put(task.getId(), (Epic) task));
+
+        for (Task task : tasks) {
+            switch (task.getType()) {
+                case TASK -> {
+                    taskRepo.save(task);
+                    restoreScheduled(task);
+                }
+                case SUBTASK -> {
+                    Subtask subtask = (Subtask) task;
+                    if (epics.containsKey(subtask.getEpicId())) {
+                        subtaskRepo.save(subtask);
+                        restoreScheduled(subtask);
+                        subtasksByEpic.computeIfAbsent(subtask.getEpicId(), id -> new ArrayList<>()).add(subtask);
                     }
+                }
+                case EPIC -> {
+                }
+            }
+        }
+
+        for (Epic epic : epics.values()) {
+            List<Subtask> subtasks = subtasksByEpic.getOrDefault(epic.getId(), List.of());
+            Epic restored = epic.withSubtasksId(subtasks.stream().map(Task::getId).toList()).updated(subtasks);
+            setGeneratedId(restored.getId());
+            epicRepo.save(restored);
+            index(restored);
+        }
+        findOverlapping();
+    }
+
+    // Проход по расписанию с наибольшим окончанием среди уже пройденных задач
+    private void findOverlapping() {
+        LocalDateTime maxEndTime = null;
+        Integer maxEndId = null;
+        for (ScheduleKey key : prioritizedTasks.keySet()) {
+            if (key.endTime() == null) {
+                continue;
+            }
+            if (maxEndTime != null && key.startTime().isBefore(maxEndTime)) {
+                overlappingIds.add(key.id());
+                overlappingIds.add(maxEndId);
+            }
+            if (maxEndTime == null || key.endTime().isAfter(maxEndTime)) {
+                maxEndTime = key.endTime();
+                maxEndId = key.id();
+            }
+        }
+    }
 
-                    LocalDateTime startTime1 = t.getStartTime();
-                    LocalDateTime endTime1 = startTime1.plus(t.getDuration());
+    private void restoreScheduled(Task task) {
+        setGeneratedId(task.getId());
+        prioritize(task);
+        index(task);
+    }
+
+    // Вызываются после каждого изменения хранилища: обновляют индексы, версии и оповещают слушателей
+    private void onSaved(Task before, Task after) {
+        index(after);
+        publish(before == null ? TaskEvent.Type.CREATED : TaskEvent.Type.UPDATED, before, after);
+    }
 
-                    return startTime1.isBefore(endTime) && endTime1.isAfter(startTime);
-                })
-                .findAny();
+    private void index(Task task) {
+        statusIndex.add(task);
+        overdueIndex.add(task);
+        utilizationIndex.add(task);
+        counters.add(task);
+        searchIndex.add(task);
+        versions.get(task.getType()).incrementAndGet();
+    }
 
-        return interceptingTask.isPresent();
+    private void onRemoved(Task task) {
+        dependencies.removeNode(task.getId());
+        statusIndex.remove(task.getId());
+        overdueIndex.remove(task.getId());
+        utilizationIndex.remove(task.getId());
+        counters.remove(task.getId());
+        searchIndex.remove(task.getId());
+        versions.get(task.getType()).incrementAndGet();
+        publish(TaskEvent.Type.DELETED, task, null);
     }
 
-    private void updateEpicProperties(Epic epic) {
-        List<Subtask> subtasks = getSubtasksOfEpic(epic);
-        epic.update(subtasks);
+    // Синхронные слушатели вызываются в потоке операции. Если кто-то из них упал (например, не удалось
+    // сохранить файл), остальные все равно получают событие, а первая ошибка пробрасывается вызывающему
+    private void publish(TaskEvent.Type type, Task before, Task after) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+
+        Task task = after != null ? after : before;
+        TaskEvent event = new TaskEvent(type, task.getType(), task.getId(), before, after);
+        hasUncommittedEvents = true;
+        notifyListeners(listener -> listener.onTaskEvent(event));
+    }
+
+    // Завершает операцию менеджера: слушатели узнают, что все ее события уже разосланы.
+    // Время операции учитывается вместе с синхронными слушателями, например, записью в файл
+    private void commit(LatencyHistogram operation, long start) {
+        try {
+            if (hasUncommittedEvents) {
+                hasUncommittedEvents = false;
+                notifyListeners(TaskListener::onCommit);
+            }
+        } finally {
+            operation.recordSince(start);
+        }
+    }
+
+    private void notifyListeners(Consumer<TaskListener> action) {
+        RuntimeException error = null;
+        for (TaskListener listener : listeners) {
+            try {
+                action.accept(listener);
+            } catch (RuntimeException e) {
+                if (error == null) {
+                    error = e;
+                } else {
+                    error.addSuppressed(e);
+                }
+            }
+        }
+
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    // Пересчитанная копия epic заменяет сохраненный эпик before, который при этом не меняется
+    private void updateEpicProperties(Epic before, Epic epic) {
+        long start = System.nanoTime();
+        Epic after = epic.updated(subtasksOf(epic));
+        TaskManagerMetrics.EPIC_RECOMPUTE.recordSince(start);
+        epicRepo.save(after);
+        statusIndex.add(after);
+        counters.add(after);
+        versions.get(TaskType.EPIC).incrementAndGet();
+        publish(TaskEvent.Type.UPDATED, before, after);
     }
 
     private void prioritize(Task task) {
         if (task != null && task.getStartTime() != null) {
-            prioritizedTasks.add(task);
+            ScheduleKey key = ScheduleKey.of(task);
+            ScheduleKey oldKey = scheduleKeyById.put(task.getId(), key);
+            if (oldKey != null) {
+                prioritizedTasks.remove(oldKey);
+            }
+            prioritizedTasks.put(key, task);
+            prioritizedVersion.incrementAndGet();
         }
     }
 
+    // Удаляем по сохраненному ключу, а не по текущим полям задачи
     private void deprioritize(Task task) {
-        if (task != null && task.getStartTime() != null) {
-            prioritizedTasks.remove(task);
+        if (task != null) {
+            ScheduleKey key = scheduleKeyById.remove(task.getId());
+            overlappingIds.remove(task.getId());
+            if (key != null) {
+                prioritizedTasks.remove(key);
+                prioritizedVersion.incrementAndGet();
+            }
         }
     }
 
+    private record ScheduleKey(LocalDateTime startTime, LocalDateTime endTime, Integer id)
+            implements Comparable<ScheduleKey> {
+
+        static ScheduleKey of(Task task) {
+            LocalDateTime endTime = task.getDuration() == null ? null : task.getEndTime();
+            return new ScheduleKey(task.getStartTime(), endTime, task.getId());
+        }
+
+        @Override
+        public int compareTo(ScheduleKey other) {
+            int result = startTime.compareTo(other.startTime);
+            return result != 0 ? result : id.compareTo(other.id);
+        }
+    }
 }
@@ -0,0 +1,270 @@
+package kanban.managers;
+
+import kanban.tasks.Epic;
+import kanban.tasks.Subtask;
+import kanban.tasks.Task;
+import kanban.tasks.TaskStatus;
+import kanban.tasks.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// Делает непотокобезопасный менеджер доступным из нескольких потоков. Получение задачи по id пишет
+// в историю, поэтому идет под блокировкой записи; списки, выборки и поиск читаются параллельно.
+// Чтения возвращают новые коллекции неизменяемых задач, поэтому результат можно обходить и сериализовать
+// уже после снятия блокировки
+public class LockingTaskManager implements TaskManager {
+
+    private final TaskManager manager;
+    private final Lock readLock;
+    private final Lock writeLock;
+
+    public LockingTaskManager(TaskManager manager) {
+        this.manager = manager;
+        ReadWriteLock lock = new ReentrantReadWriteLock();
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
+    }
+
+    @Override
+    public int saveTask(Task task) {
+        return write(() -> manager.saveTask(task));
+    }
+
+    @Override
+    public int saveEpic(Epic epic) {
+        return write(() -> manager.saveEpic(epic));
+    }
+
+    @Override
+    public int saveSubtask(Subtask subtask) {
+        return write(() -> manager.saveSubtask(subtask));
+    }
+
+    @Override
+    public List<Task> getTasks() {
+        return read(manager::getTasks);
+    }
+
+    @Override
+    public Optional<Task> getTaskById(int id) {
+        return write(() -> manager.getTaskById(id));
+    }
+
+    @Override
+    public List<Epic> getEpics() {
+        return read(manager::getEpics);
+    }
+
+    @Override
+    public Optional<Epic> getEpicById(int id) {
+        return write(() -> manager.getEpicById(id));
+    }
+
+    @Override
+    public List<Subtask> getSubtasks() {
+        return read(manager::getSubtasks);
+    }
+
+    @Override
+    public Optional<Subtask> getSubtaskById(int id) {
+        return write(() -> manager.getSubtaskById(id));
+    }
+
+    @Override
+    public List<Subtask> getSubtasksOfEpic(Epic epic) {
+        return read(() -> manager.getSubtasksOfEpic(epic));
+    }
+
+    @Override
+    public Epic getEpicOfSubtask(Subtask subtask) {
+        return read(() -> manager.getEpicOfSubtask(subtask));
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        write(() -> manager.updateTask(task));
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        write(() -> manager.updateEpic(epic));
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        write(() -> manager.updateSubtask(subtask));
+    }
+
+    @Override
+    public void removeTasks() {
+        write(manager::removeTasks);
+    }
+
+    @Override
+    public void removeTaskById(int id) {
+        write(() -> manager.removeTaskById(id));
+    }
+
+    @Override
+    public void removeEpics() {
+        write(manager::removeEpics);
+    }
+
+    @Override
+    public void removeEpicById(int id) {
+        write(() -> manager.removeEpicById(id));
+    }
+
+    @Override
+    public void removeSubtasks() {
+        write(manager::removeSubtasks);
+    }
+
+    @Override
+    public void removeSubtaskById(int id) {
+        write(() -> manager.removeSubtaskById(id));
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return read(manager::getHistory);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return read(manager::getPrioritizedTasks);
+    }
+
+    @Override
+    public Optional<LocalDateTime> findFreeSlot(Duration duration, LocalDateTime notBefore, LocalDateTime notAfter) {
+        return read(() -> manager.findFreeSlot(duration, notBefore, notAfter));
+    }
+
+    @Override
+    public List<Task> scheduleUnscheduled(LocalDateTime notBefore, Comparator<Task> priority) {
+        return write(() -> manager.scheduleUnscheduled(notBefore, priority));
+    }
+
+    @Override
+    public void addDependency(int blockerId, int blockedId) {
+        write(() -> manager.addDependency(blockerId, blockedId));
+    }
+
+    @Override
+    public void removeDependency(int blockerId, int blockedId) {
+        write(() -> manager.removeDependency(blockerId, blockedId));
+    }
+
+    @Override
+    public List<Task> getBlockers(int taskId) {
+        return read(() -> manager.getBlockers(taskId));
+    }
+
+    @Override
+    public CriticalPath getCriticalPath(LocalDateTime notBefore) {
+        return read(() -> manager.getCriticalPath(notBefore));
+    }
+
+    @Override
+    public List<Task> getByStatus(TaskStatus status) {
+        return read(() -> manager.getByStatus(status));
+    }
+
+    @Override
+    public List<Task> getByStatus(TaskType type, TaskStatus status) {
+        return read(() -> manager.getByStatus(type, status));
+    }
+
+    @Override
+    public int countByStatus(TaskStatus status) {
+        return read(() -> manager.countByStatus(status));
+    }
+
+    @Override
+    public int countByType(TaskType type) {
+        return read(() -> manager.countByType(type));
+    }
+
+    // Версии хранятся в атомарных счетчиках и блокировки не требуют
+    @Override
+    public long getVersion(TaskType type) {
+        return manager.getVersion(type);
+    }
+
+    @Override
+    public long getPrioritizedVersion() {
+        return manager.getPrioritizedVersion();
+    }
+
+    @Override
+    public void addListener(TaskListener listener) {
+        write(() -> manager.addListener(listener));
+    }
+
+    @Override
+    public void addAsyncListener(TaskListener listener) {
+        write(() -> manager.addAsyncListener(listener));
+    }
+
+    @Override
+    public void removeListener(TaskListener listener) {
+        write(() -> manager.removeListener(listener));
+    }
+
+    @Override
+    public List<Task> search(String query, int offset, int limit) {
+        return read(() -> manager.search(query, offset, limit));
+    }
+
+    @Override
+    public List<Task> getOverdue(LocalDateTime now, LocalDateTime afterEndTime, int afterId, int limit) {
+        return read(() -> manager.getOverdue(now, afterEndTime, afterId, limit));
+    }
+
+    @Override
+    public List<Utilization> getUtilization(LocalDate from, LocalDate to, ChronoUnit bucket) {
+        return read(() -> manager.getUtilization(from, to, bucket));
+    }
+
+    @Override
+    public BoardStats getStats() {
+        return read(manager::getStats);
+    }
+
+    private <T> T read(Supplier<T> action) {
+        readLock.lock();
+        try {
+            return action.get();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private <T> T write(Supplier<T> action) {
+        writeLock.lock();
+        try {
+            return action.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void write(Runnable action) {
+        writeLock.lock();
+        try {
+            action.run();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -2,6 +2,9 @@ package kanban.managers;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class Managers {
 
@@ -13,7 +16,21 @@ public class Managers {
         return new InMemoryHistoryManager();
     }
 
+    public static ShardedTaskManager getSharded() {
+        return new ShardedTaskManager(Managers::getDefault);
+    }
+
     public static TaskManager getFileManager() throws IOException {
-        return new FileBackedTaskManager(Files.createTempFile("tasks", ".csv"));
+        return FileBackedTaskManager.create(Files.createTempFile("tasks", ".csv"));
+    }
+
+    // Файл пишется отдельным потоком, операции менеджера диска не ждут. История просмотров
+    // хранится в журнале рядом с файлом задач
+    public static TaskManager getAsyncFileManager() throws IOException {
+        ExecutorService ioExecutor = Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().name("task-file-writer").daemon().factory());
+        Path taskFile = Files.createTempFile("tasks", ".csv");
+        Path historyFile = taskFile.resolveSibling(taskFile.getFileName() + ".history");
+        return FileBackedTaskManager.loadFromFile(taskFile, historyFile, ioExecutor);
     }
 }
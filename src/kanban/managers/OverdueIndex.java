@@ -0,0 +1,65 @@
+package kanban.managers;
+
+import kanban.tasks.Task;
+import kanban.tasks.TaskStatus;
+import kanban.tasks.TaskType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Невыполненные задачи и подзадачи по времени окончания. Просроченные к моменту now - это начало дерева,
+// поэтому страница из k задач находится за O(log n + k). Эпики не индексируются: их время и статус
+// выводятся из подзадач
+class OverdueIndex extends TaskIndex<OverdueIndex.EndKey> {
+
+    private final NavigableMap<EndKey, Task> tasks = new TreeMap<>();
+
+    @Override
+    EndKey keyOf(Task task) {
+        if (task.getType() == TaskType.EPIC || task.getStatus() == TaskStatus.DONE
+                || task.getStartTime() == null || task.getDuration() == null) {
+            return null;
+        }
+        return new EndKey(task.getEndTime(), task.getId());
+    }
+
+    @Override
+    void insert(Task task, EndKey key) {
+        tasks.put(key, task);
+    }
+
+    @Override
+    void delete(int id, EndKey key) {
+        tasks.remove(key);
+    }
+
+    // Задачи, закончившиеся раньше now, после позиции (afterEndTime, afterId)
+    List<Task> get(LocalDateTime now, LocalDateTime afterEndTime, int afterId, int limit) {
+        NavigableMap<EndKey, Task> overdue = tasks.headMap(new EndKey(now, Integer.MIN_VALUE), false);
+        if (afterEndTime != null) {
+            overdue = overdue.tailMap(new EndKey(afterEndTime, afterId), false);
+        }
+
+        // size() у подкарты TreeMap линеен, поэтому просто идем по ней до limit
+        List<Task> result = new ArrayList<>();
+        for (Task task : overdue.values()) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(task);
+        }
+        return result;
+    }
+
+    record EndKey(LocalDateTime endTime, int id) implements Comparable<EndKey> {
+
+        @Override
+        public int compareTo(EndKey other) {
+            int result = endTime.compareTo(other.endTime);
+            return result != 0 ? result : Integer.compare(id, other.id);
+        }
+    }
+}
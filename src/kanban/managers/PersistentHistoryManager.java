@@ -0,0 +1,60 @@
+package kanban.managers;
+
+import kanban.tasks.Task;
+import kanban.util.HistoryLog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+// История в памяти, каждое изменение которой дописывается в HistoryLog. Запись в журнал только ставится
+// в очередь, а блокировка нужна, чтобы порядок в журнале совпадал с порядком в истории. Чтение идет под той же
+// блокировкой: InMemoryHistoryManager сам по себе не потокобезопасен
+class PersistentHistoryManager implements HistoryManager, Closeable {
+
+    private final InMemoryHistoryManager history = new InMemoryHistoryManager();
+    private final HistoryLog log;
+
+    PersistentHistoryManager(HistoryLog log) {
+        this.log = log;
+    }
+
+    @Override
+    public synchronized void add(Task task) {
+        history.add(task);
+        log.view(task.getId());
+    }
+
+    @Override
+    public synchronized void remove(int id) {
+        history.remove(id);
+        log.remove(id);
+    }
+
+    @Override
+    public synchronized void clear() {
+        history.clear();
+        log.clear();
+    }
+
+    @Override
+    public synchronized List<Task> getHistory() {
+        return history.getHistory();
+    }
+
+    @Override
+    public synchronized int size() {
+        return history.size();
+    }
+
+    // Дожидается записи журнала и закрывает его
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    // Журнал уже содержит восстановленную историю, поэтому в него ничего не пишется
+    synchronized void restore(List<Task> tasks) {
+        history.restore(tasks);
+    }
+}
@@ -0,0 +1,100 @@
+package kanban.managers;
+
+import kanban.tasks.Task;
+
+import java.util.*;
+
+// Инвертированный индекс по имени и описанию задач. Хранит для каждого слова id задач и число
+// вхождений слова в задачу; поиск требует совпадения всех слов запроса
+class SearchIndex extends TaskIndex<Map<String, Integer>> {
+
+    private final Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+
+    // Ключ задачи - число вхождений каждого ее слова
+    @Override
+    Map<String, Integer> keyOf(Task task) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokenize(task.getName()).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+        tokenize(task.getDescription()).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+        return frequencies;
+    }
+
+    @Override
+    void insert(Task task, Map<String, Integer> frequencies) {
+        frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(task.getId(), frequency));
+    }
+
+    @Override
+    void delete(int id, Map<String, Integer> frequencies) {
+        frequencies.keySet().forEach(term -> {
+            Map<Integer, Integer> ids = postings.get(term);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+            }
+        });
+    }
+
+    // Возвращает id найденных задач по убыванию релевантности (tf-idf), при равенстве - по возрастанию id
+    List<Integer> search(String query, int offset, int limit) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        List<Map<Integer, Integer>> lists = new ArrayList<>();
+        for (String term : terms) {
+            Map<Integer, Integer> ids = postings.get(term);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+
+        // пересечение начинаем с самого короткого списка
+        lists.sort(Comparator.comparingInt(Map::size));
+        Map<Integer, Double> scores = new HashMap<>();
+        Map<Integer, Integer> shortest = lists.getFirst();
+
+        candidates:
+        for (Integer id : shortest.keySet()) {
+            double score = 0;
+            for (Map<Integer, Integer> ids : lists) {
+                Integer frequency = ids.get(id);
+                if (frequency == null) {
+                    continue candidates;
+                }
+                score += frequency * Math.log(1 + (double) size() / ids.size());
+            }
+            scores.put(id, score);
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .skip(offset)
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isWordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isWordChar && start < 0) {
+                start = i;
+            } else if (!isWordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,95 @@
+package kanban.managers;
+
+import kanban.exceptions.ManagerSaveException;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+// Доски независимы: у каждой свой менеджер со своими идентификаторами, расписанием, историей и блокировкой,
+// поэтому операции над разными досками не ждут друг друга
+public class ShardedTaskManager {
+
+    public static final int DEFAULT_MAX_BOARDS = 1024;
+
+    private static final Pattern BOARD_KEY = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final Supplier<TaskManager> factory;
+    private final int maxBoards;
+    private final Map<String, Board> boards = new ConcurrentHashMap<>();
+
+    public ShardedTaskManager(Supplier<TaskManager> factory) {
+        this(factory, DEFAULT_MAX_BOARDS);
+    }
+
+    public ShardedTaskManager(Supplier<TaskManager> factory, int maxBoards) {
+        this.factory = factory;
+        this.maxBoards = maxBoards;
+    }
+
+    public static boolean isValidBoard(String board) {
+        return board != null && BOARD_KEY.matcher(board).matches();
+    }
+
+    // Доска создается при первом обращении
+    public TaskManager getBoard(String board) {
+        return getOrCreate(board).getManager();
+    }
+
+    // Число досок ограничено: иначе каждый запрос с новым именем занимал бы память под еще один менеджер
+    public Board getOrCreate(String board) {
+        Board existing = boards.get(board);
+        if (existing != null) {
+            return existing;
+        }
+
+        if (!isValidBoard(board)) {
+            throw new IllegalArgumentException("Недопустимое имя доски: " + board);
+        }
+        return boards.computeIfAbsent(board, key -> {
+            if (boards.size() >= maxBoards) {
+                throw new ManagerSaveException("Нельзя создать больше " + maxBoards + " досок");
+            }
+            return new Board(new LockingTaskManager(factory.get()));
+        });
+    }
+
+    public Optional<Board> findBoard(String board) {
+        return Optional.ofNullable(boards.get(board));
+    }
+
+    public Set<String> getBoards() {
+        return new TreeSet<>(boards.keySet());
+    }
+
+    public boolean removeBoard(String board) {
+        return boards.remove(board) != null;
+    }
+
+    // Менеджер доски и то, что к ней привязали снаружи, например, обработчики HTTP со своими кешами.
+    // Все хранится в одной записи и удаляется вместе с доской одной операцией
+    public static class Board {
+
+        private final TaskManager manager;
+        private final Map<Object, Object> attachments = new ConcurrentHashMap<>();
+
+        Board(TaskManager manager) {
+            this.manager = manager;
+        }
+
+        public TaskManager getManager() {
+            return manager;
+        }
+
+        // Значение создается при первом обращении по ключу и дальше переиспользуется
+        @SuppressWarnings("unchecked")
+        public <T> T getAttachment(Object key, Function<TaskManager, T> factory) {
+            return (T) attachments.computeIfAbsent(key, k -> factory.apply(manager));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package kanban.managers;
+
+import kanban.tasks.Task;
+import kanban.tasks.TaskStatus;
+import kanban.tasks.TaskType;
+
+import java.util.*;
+
+// Вторичный индекс задач по типу и статусу
+class StatusIndex extends TaskIndex<StatusIndex.Entry> {
+
+    private final Map<TaskType, Map<TaskStatus, Map<Integer, Task>>> tasks = new EnumMap<>(TaskType.class);
+
+    StatusIndex() {
+        for (TaskType type : TaskType.values()) {
+            Map<TaskStatus, Map<Integer, Task>> tasksByStatus = new EnumMap<>(TaskStatus.class);
+            for (TaskStatus status : TaskStatus.values()) {
+                tasksByStatus.put(status, new LinkedHashMap<>());
+            }
+            tasks.put(type, tasksByStatus);
+        }
+    }
+
+    @Override
+    Entry keyOf(Task task) {
+        return new Entry(task.getType(), task.getStatus());
+    }
+
+    @Override
+    void insert(Task task, Entry entry) {
+        bucket(entry).put(task.getId(), task);
+    }
+
+    @Override
+    void delete(int id, Entry entry) {
+        bucket(entry).remove(id);
+    }
+
+    List<Task> get(TaskStatus status) {
+        List<Task> result = new ArrayList<>();
+        for (TaskType type : TaskType.values()) {
+            result.addAll(tasks.get(type).get(status).values());
+        }
+        return result;
+    }
+
+    List<Task> get(TaskType type, TaskStatus status) {
+        return new ArrayList<>(tasks.get(type).get(status).values());
+    }
+
+    int count(TaskStatus status) {
+        int count = 0;
+        for (TaskType type : TaskType.values()) {
+            count += tasks.get(type).get(status).size();
+        }
+        return count;
+    }
+
+    int count(TaskType type) {
+        int count = 0;
+        for (Map<Integer, Task> tasksById : tasks.get(type).values()) {
+            count += tasksById.size();
+        }
+        return count;
+    }
+
+    int count(TaskType type, TaskStatus status) {
+        return tasks.get(type).get(status).size();
+    }
+
+    private Map<Integer, Task> bucket(Entry entry) {
+        return tasks.get(entry.type()).get(entry.status());
+    }
+
+    record Entry(TaskType type, TaskStatus status) {
+    }
+}
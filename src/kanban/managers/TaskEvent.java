@@ -0,0 +1,61 @@
+package kanban.managers;
+
+import kanban.tasks.Task;
+import kanban.tasks.TaskType;
+
+// Изменение задачи в менеджере: before - сохраненная до изменения версия (null при создании),
+// after - версия после изменения (null при удалении). Версии - неизменяемые задачи, поэтому событие можно
+// хранить и читать из другого потока: следующие операции менеджера его уже не поменяют.
+// В операции сначала идет событие самой задачи, за ним UPDATED эпика, пересчитанного по подзадачам,
+// а после всех событий операции слушатель получает onCommit
+public class TaskEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final TaskType taskType;
+    private final int taskId;
+    private final Task before;
+    private final Task after;
+
+    public TaskEvent(Type type, TaskType taskType, int taskId, Task before, Task after) {
+        this.type = type;
+        this.taskType = taskType;
+        this.taskId = taskId;
+        this.before = before;
+        this.after = after;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public TaskType getTaskType() {
+        return taskType;
+    }
+
+    public int getTaskId() {
+        return taskId;
+    }
+
+    public Task getBefore() {
+        return before;
+    }
+
+    public Task getAfter() {
+        return after;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskEvent{" +
+                "type=" + type +
+                ", taskType=" + taskType +
+                ", taskId=" + taskId +
+                '}';
+    }
+}
@@ -0,0 +1,41 @@
+package kanban.managers;
+
+import kanban.tasks.Task;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Общая часть вторичных индексов менеджера. Для каждой задачи запоминается ключ, под которым она учтена,
+// и удаление идет по нему: менеджер передает при удалении только id, а прежняя версия задачи могла
+// попасть в индекс под другим ключом. Если keyOf вернул null, задача в индекс не попадает
+abstract class TaskIndex<K> {
+
+    private final Map<Integer, K> keyById = new HashMap<>();
+
+    final void add(Task task) {
+        remove(task.getId());
+        K key = keyOf(task);
+        if (key != null) {
+            keyById.put(task.getId(), key);
+            insert(task, key);
+        }
+    }
+
+    final void remove(int id) {
+        K key = keyById.remove(id);
+        if (key != null) {
+            delete(id, key);
+        }
+    }
+
+    // Число задач в индексе
+    final int size() {
+        return keyById.size();
+    }
+
+    abstract K keyOf(Task task);
+
+    abstract void insert(Task task, K key);
+
+    abstract void delete(int id, K key);
+}
@@ -0,0 +1,9 @@
+package kanban.managers;
+
+public interface TaskListener {
+    void onTaskEvent(TaskEvent event);
+
+    // Вызывается один раз после того, как операция менеджера разослала все свои события
+    default void onCommit() {
+    }
+}
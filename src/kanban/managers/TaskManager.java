@@ -3,7 +3,14 @@ package kanban.managers;
 import kanban.tasks.Epic;
 import kanban.tasks.Subtask;
 import kanban.tasks.Task;
-
+import kanban.tasks.TaskStatus;
+import kanban.tasks.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -59,4 +66,61 @@ public interface TaskManager {
     List<Task> getHistory();
 
     List<Task> getPrioritizedTasks();
+
+    // Самое раннее время не раньше notBefore, с которого задача продолжительностью duration не пересечется
+    // с расписанием и закончится не позже notAfter (null - без ограничения)
+    Optional<LocalDateTime> findFreeSlot(Duration duration, LocalDateTime notBefore, LocalDateTime notAfter);
+
+    // Расставляет задачи и подзадачи без времени начала по свободному времени не раньше notBefore.
+    // Задачи идут в порядке priority (null - по id), подзадачи одного эпика ставятся подряд.
+    // Задачи без продолжительности не расставляются. Возвращает расставленные задачи
+    List<Task> scheduleUnscheduled(LocalDateTime notBefore, Comparator<Task> priority);
+
+    // Зависимости: blocked не может начаться, пока не закончится blocker. Зависимость, образующая цикл,
+    // не добавляется. При удалении задачи ее зависимости удаляются
+    void addDependency(int blockerId, int blockedId);
+
+    void removeDependency(int blockerId, int blockedId);
+
+    List<Task> getBlockers(int taskId);
+
+    // Самые ранние начала с учетом зависимостей, startTime и duration задач. Задача без startTime
+    // может начаться с notBefore
+    CriticalPath getCriticalPath(LocalDateTime notBefore);
+
+    // Выборки и счетчики по статусу и типу берутся из индекса, без перебора всех задач
+    List<Task> getByStatus(TaskStatus status);
+
+    List<Task> getByStatus(TaskType type, TaskStatus status);
+
+    int countByStatus(TaskStatus status);
+
+    int countByType(TaskType type);
+
+    // Версия коллекции увеличивается при каждом ее изменении
+    long getVersion(TaskType type);
+
+    long getPrioritizedVersion();
+
+    // Слушатели получают события о создании, изменении и удалении задач. Обычный слушатель вызывается
+    // в потоке операции, асинхронный - в своем отдельном потоке в том же порядке
+    void addListener(TaskListener listener);
+
+    void addAsyncListener(TaskListener listener);
+
+    void removeListener(TaskListener listener);
+
+    // Полнотекстовый поиск по имени и описанию, результаты отсортированы по релевантности
+    List<Task> search(String query, int offset, int limit);
+
+    // Невыполненные задачи и подзадачи, закончившиеся раньше now, по времени окончания. Следующая страница
+    // начинается после последней задачи предыдущей: afterEndTime - ее время окончания (null - с начала)
+    List<Task> getOverdue(LocalDateTime now, LocalDateTime afterEndTime, int afterId, int limit);
+
+    // Занятое и свободное время с from по to включительно по дням или неделям. Корзины начинаются с from,
+    // последняя обрезается по to
+    List<Utilization> getUtilization(LocalDate from, LocalDate to, ChronoUnit bucket);
+
+    // Счетчики по типам и статусам, продолжительности и размер истории без обхода задач
+    BoardStats getStats();
 }
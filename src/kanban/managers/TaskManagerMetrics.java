@@ -0,0 +1,44 @@
+package kanban.managers;
+
+import kanban.metrics.Counter;
+import kanban.metrics.LatencyHistogram;
+import kanban.metrics.MetricsRegistry;
+
+// Метрики операций менеджеров. Общие для всех экземпляров, частоту операций дает счетчик гистограммы
+class TaskManagerMetrics {
+
+    private static final String OPERATION = "taskmanager_operation_duration_seconds";
+    private static final String OPERATION_HELP = "Время операции менеджера вместе с оповещением слушателей";
+
+    private static final MetricsRegistry REGISTRY = MetricsRegistry.getDefault();
+
+    static final LatencyHistogram SAVE_TASK = operation("save", "task");
+    static final LatencyHistogram SAVE_EPIC = operation("save", "epic");
+    static final LatencyHistogram SAVE_SUBTASK = operation("save", "subtask");
+    static final LatencyHistogram UPDATE_TASK = operation("update", "task");
+    static final LatencyHistogram UPDATE_EPIC = operation("update", "epic");
+    static final LatencyHistogram UPDATE_SUBTASK = operation("update", "subtask");
+    static final LatencyHistogram REMOVE_TASK = operation("remove", "task");
+    static final LatencyHistogram REMOVE_EPIC = operation("remove", "epic");
+    static final LatencyHistogram REMOVE_SUBTASK = operation("remove", "subtask");
+    static final LatencyHistogram SCHEDULE = operation("schedule", "task");
+
+    static final LatencyHistogram OVERLAP_CHECK = REGISTRY.histogram("taskmanager_overlap_check_duration_seconds",
+            "Время проверки пересечения задачи с расписанием");
+    static final LatencyHistogram EPIC_RECOMPUTE = REGISTRY.histogram("taskmanager_epic_recompute_duration_seconds",
+            "Время пересчета статуса и времени эпика");
+
+    static final LatencyHistogram FILE_SAVE = REGISTRY.histogram("taskmanager_file_save_duration_seconds",
+            "Время записи задач в файл");
+    static final Counter FILE_WRITTEN_BYTES = REGISTRY.counter("taskmanager_file_written_bytes_total",
+            "Количество байт, записанных в файл задач и журнал");
+    static final LatencyHistogram JOURNAL_COMMIT = REGISTRY.histogram("taskmanager_journal_commit_duration_seconds",
+            "Время записи операции в журнал");
+
+    private TaskManagerMetrics() {
+    }
+
+    private static LatencyHistogram operation(String operation, String type) {
+        return REGISTRY.histogram(OPERATION, OPERATION_HELP, "operation", operation, "type", type);
+    }
+}
@@ -0,0 +1,46 @@
+package kanban.managers;
+
+import java.time.LocalDateTime;
+
+// Занятое задачами и свободное время в промежутке [start, end)
+public class Utilization {
+
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final long bookedMinutes;
+    private final long freeMinutes;
+
+    Utilization(LocalDateTime start, LocalDateTime end, long bookedMinutes, long freeMinutes) {
+        this.start = start;
+        this.end = end;
+        this.bookedMinutes = bookedMinutes;
+        this.freeMinutes = freeMinutes;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    public long getBookedMinutes() {
+        return bookedMinutes;
+    }
+
+    // Пересекающиеся задачи учитываются каждая, поэтому свободное время не бывает меньше нуля
+    public long getFreeMinutes() {
+        return freeMinutes;
+    }
+
+    @Override
+    public String toString() {
+        return "Utilization{" +
+                "start=" + start +
+                ", end=" + end +
+                ", bookedMinutes=" + bookedMinutes +
+                ", freeMinutes=" + freeMinutes +
+                '}';
+    }
+}
@@ -0,0 +1,143 @@
+package kanban.managers;
+
+import kanban.tasks.Task;
+import kanban.tasks.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+// Занятое задачами время по дням. Секунды каждого дня лежат в массиве, а над ним дерево Фенвика,
+// поэтому сумма за любой промежуток дней считается за O(log n), а сохранение задачи стоит O(log n)
+// на каждый затронутый ею день. Задача через полночь делится между днями. Эпики не учитываются:
+// их время уже посчитано в подзадачах. Учитываются только дни с FIRST_DAY до LAST_DAY: задача
+// с нелепой датой или продолжительностью обрезается по ним, поэтому массив не растет без предела,
+// а сохранение обходит не больше дней, чем в этом окне
+class UtilizationIndex extends TaskIndex<UtilizationIndex.Interval> {
+
+    static final LocalDate FIRST_DAY = LocalDate.of(1900, 1, 1);
+    static final LocalDate LAST_DAY = LocalDate.of(2199, 12, 31);
+
+    private static final int INITIAL_DAYS = 64;
+    private static final LocalDateTime WINDOW_START = FIRST_DAY.atStartOfDay();
+    private static final LocalDateTime WINDOW_END = LAST_DAY.plusDays(1).atStartOfDay();
+    private static final long MAX_DAYS = ChronoUnit.DAYS.between(FIRST_DAY, LAST_DAY) + 1;
+    private static final long FIRST_EPOCH_DAY = FIRST_DAY.toEpochDay();
+    private static final long LAST_EPOCH_DAY = LAST_DAY.toEpochDay();
+
+    // день с индексом 0 и секунды по дням
+    private long origin;
+    private long[] seconds = new long[0];
+    // дерево Фенвика над seconds, индексы с единицы
+    private long[] tree = new long[1];
+
+    // Интервал задачи, обрезанный по окну; null, если от него ничего не осталось
+    @Override
+    Interval keyOf(Task task) {
+        if (task.getType() == TaskType.EPIC || task.getStartTime() == null || task.getDuration() == null
+                || !task.getDuration().isPositive()) {
+            return null;
+        }
+
+        LocalDateTime start = task.getStartTime();
+        if (!start.isBefore(WINDOW_END)) {
+            return null;
+        }
+        // конец считается без getEndTime: огромная продолжительность вышла бы за пределы LocalDateTime
+        LocalDateTime end = task.getDuration().compareTo(Duration.between(start, WINDOW_END)) >= 0
+                ? WINDOW_END : task.getEndTime();
+        if (start.isBefore(WINDOW_START)) {
+            start = WINDOW_START;
+        }
+        return start.isBefore(end) ? new Interval(start, end) : null;
+    }
+
+    @Override
+    void insert(Task task, Interval interval) {
+        apply(interval, 1);
+    }
+
+    @Override
+    void delete(int id, Interval interval) {
+        apply(interval, -1);
+    }
+
+    // Занятые секунды с начала дня from до начала дня to
+    long bookedSeconds(LocalDate from, LocalDate to) {
+        return prefix(to.toEpochDay()) - prefix(from.toEpochDay());
+    }
+
+    private void apply(Interval interval, int sign) {
+        LocalDateTime dayStart = interval.start().toLocalDate().atStartOfDay();
+        while (dayStart.isBefore(interval.end())) {
+            LocalDateTime nextDay = dayStart.plusDays(1);
+            LocalDateTime from = interval.start().isAfter(dayStart) ? interval.start() : dayStart;
+            LocalDateTime to = interval.end().isBefore(nextDay) ? interval.end() : nextDay;
+            addToDay(dayStart.toLocalDate().toEpochDay(), sign * ChronoUnit.SECONDS.between(from, to));
+            dayStart = nextDay;
+        }
+    }
+
+    private void addToDay(long day, long delta) {
+        ensureCovers(day);
+        int index = (int) (day - origin);
+        seconds[index] += delta;
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // Сумма за дни раньше day
+    private long prefix(long day) {
+        long count = Math.min(Math.max(day - origin, 0), seconds.length);
+        long sum = 0;
+        for (int i = (int) count; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    // Промежуток дней расширяется вдвое, дерево перестраивается за O(n). Промежуток не выходит за окно:
+    // иначе покрыть оба края окна не хватило бы и MAX_DAYS дней
+    private void ensureCovers(long day) {
+        if (seconds.length == 0) {
+            origin = clampOrigin(day - INITIAL_DAYS / 2, INITIAL_DAYS);
+            seconds = new long[INITIAL_DAYS];
+            tree = new long[INITIAL_DAYS + 1];
+            return;
+        }
+        if (day >= origin && day < origin + seconds.length) {
+            return;
+        }
+
+        long first = Math.min(origin, day);
+        long last = Math.max(origin + seconds.length - 1, day);
+        long length = seconds.length;
+        while (length < last - first + 1) {
+            length = Math.min(length * 2, MAX_DAYS);
+        }
+        long newOrigin = clampOrigin(day < origin ? last - length + 1 : first, length);
+
+        long[] newSeconds = new long[(int) length];
+        System.arraycopy(seconds, 0, newSeconds, (int) (origin - newOrigin), seconds.length);
+        origin = newOrigin;
+        seconds = newSeconds;
+
+        tree = new long[(int) length + 1];
+        for (int i = 1; i <= length; i++) {
+            tree[i] += seconds[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    private static long clampOrigin(long origin, long length) {
+        return Math.max(FIRST_EPOCH_DAY, Math.min(origin, LAST_EPOCH_DAY - length + 1));
+    }
+
+    record Interval(LocalDateTime start, LocalDateTime end) {
+    }
+}
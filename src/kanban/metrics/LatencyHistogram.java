@@ -0,0 +1,87 @@
+package kanban.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Гистограмма задержек в наносекундах в духе HdrHistogram: каждая степень двойки делится на 8 корзин,
+// поэтому относительная погрешность не больше 12,5%. Запись не создает объектов и не берет блокировок
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sumNanos = new LongAdder();
+
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(indexOf(value));
+        sumNanos.add(value);
+    }
+
+    // Замеряет время от start (System.nanoTime()) до текущего момента
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+
+    // Количество значений меньше 2^exponent наносекунд, границы степеней двойки совпадают с границами корзин
+    public long countBelowPowerOfTwo(int exponent) {
+        int end = exponent <= SUB_BUCKET_BITS ? 1 << exponent : (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+        long count = 0;
+        for (int i = 0; i < Math.min(end, BUCKETS); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    // Верхняя граница корзины, в которую попал квантиль; 0, если значений нет
+    public long valueAtQuantile(double quantile) {
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return highestValueOf(i);
+            }
+        }
+        return highestValueOf(BUCKETS - 1);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,116 @@
+package kanban.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Метрики регистрируются один раз и хранятся у того, кто их пишет, поэтому сама запись идет мимо реестра.
+// Повторная регистрация с тем же именем и метками возвращает уже существующую метрику
+public class MetricsRegistry {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    // границы корзин в выгрузке - степени двойки от ~1 мкс до ~34 с
+    private static final int MIN_BUCKET_EXPONENT = 10;
+    private static final int MAX_BUCKET_EXPONENT = 35;
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    // labels - пары имя, значение
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) register(name, help, "histogram", labels);
+    }
+
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) register(name, help, "counter", labels);
+    }
+
+    // Текстовый формат Prometheus
+    public String scrape() {
+        StringBuilder out = new StringBuilder();
+        families.forEach((name, family) -> {
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+            family.metrics.forEach((labels, metric) -> {
+                if (metric instanceof Counter counter) {
+                    appendSample(out, name, labels, null, counter.get());
+                } else {
+                    appendHistogram(out, name, labels, (LatencyHistogram) metric);
+                }
+            });
+        });
+        return out.toString();
+    }
+
+    private Object register(String name, String help, String type, String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Метки задаются парами имя, значение: " + name);
+        }
+
+        Family family = families.computeIfAbsent(name, key -> new Family(help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Метрика " + name + " уже зарегистрирована как " + family.type);
+        }
+
+        return family.metrics.computeIfAbsent(formatLabels(labels),
+                key -> type.equals("counter") ? new Counter() : new LatencyHistogram());
+    }
+
+    private static void appendHistogram(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        long count = histogram.getCount();
+        for (int exponent = MIN_BUCKET_EXPONENT; exponent <= MAX_BUCKET_EXPONENT; exponent++) {
+            String le = "le=\"" + toSeconds(1L << exponent) + "\"";
+            appendSample(out, name + "_bucket", labels, le, histogram.countBelowPowerOfTwo(exponent));
+        }
+        appendSample(out, name + "_bucket", labels, "le=\"+Inf\"", count);
+        appendSample(out, name + "_sum", labels, null, toSeconds(histogram.getSumNanos()));
+        appendSample(out, name + "_count", labels, null, count);
+    }
+
+    private static void appendSample(StringBuilder out, String name, String labels, String extraLabel, Object value) {
+        out.append(name);
+        if (!labels.isEmpty() || extraLabel != null) {
+            out.append('{').append(labels);
+            if (extraLabel != null) {
+                out.append(labels.isEmpty() ? "" : ",").append(extraLabel);
+            }
+            out.append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static double toSeconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    private static String formatLabels(String[] labels) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        return out.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static class Family {
+        private final String help;
+        private final String type;
+        private final Map<String, Object> metrics = new ConcurrentSkipListMap<>();
+
+        private Family(String help, String type) {
+            this.help = help;
+            this.type = type;
+        }
+    }
+}
@@ -10,7 +10,7 @@ import static kanban.tasks.TaskStatus.*;
 
 public class Epic extends Task {
 
-    private final List<Integer> subtasksId;
+    private List<Integer> subtasksId;
     private LocalDateTime endTime;
 
     public Epic(String name, String description) {
@@ -27,13 +27,18 @@ public class Epic extends Task {
 
     public Epic(Integer id, String name, String description, TaskStatus status) {
         super(id, name, description, status, null, null);
-        this.subtasksId = new ArrayList<>();
+        this.subtasksId = List.of();
     }
 
     public Epic(Integer id, String name, String description, TaskStatus status, LocalDateTime startTime,
                 Duration duration) {
         super(id, name, description, status, startTime, duration);
-        this.subtasksId = new ArrayList<>();
+        this.subtasksId = List.of();
+    }
+
+    @Override
+    public TaskType getType() {
+        return TaskType.EPIC;
     }
 
     @Override
@@ -41,35 +46,80 @@ public class Epic extends Task {
         return endTime;
     }
 
-    public void addSubtaskIdIfAbsent(Subtask subtask) {
-        if (!subtasksId.contains(subtask.getId())) {
-            subtasksId.add(subtask.getId());
-        }
+    public List<Integer> getSubtasksId() {
+        // эпик, прочитанный из JSON, приходит без списка или с изменяемым списком. Неизменяемый
+        // список List.copyOf не копирует
+        return subtasksId == null ? List.of() : List.copyOf(subtasksId);
     }
 
-    public void addSubtaskIdIfAbsent(Integer subtaskId) {
-        if (!subtasksId.contains(subtaskId)) {
-            subtasksId.add(subtaskId);
+    // Как и with-методы задачи, возвращают измененную копию эпика
+    public Epic withSubtaskId(Integer subtaskId) {
+        if (getSubtasksId().contains(subtaskId)) {
+            return this;
         }
+        List<Integer> ids = new ArrayList<>(getSubtasksId());
+        ids.add(subtaskId);
+        return withSubtasksId(ids);
     }
 
-    public List<Integer> getSubtasksId() {
-        return List.copyOf(subtasksId);
+    public Epic withoutSubtaskId(Integer subtaskId) {
+        List<Integer> ids = new ArrayList<>(getSubtasksId());
+        ids.remove(subtaskId);
+        return withSubtasksId(ids);
     }
 
-    public void removeSubtask(Subtask subtask) {
-        subtasksId.remove(subtask.getId());
+    public Epic withSubtasksId(List<Integer> subtasksId) {
+        Epic epic = copy();
+        epic.subtasksId = List.copyOf(subtasksId);
+        return epic;
     }
 
-    public void removeSubtasks() {
-        subtasksId.clear();
+    // Копия, у которой статус и время пересчитаны по подзадачам
+    public Epic updated(List<Subtask> subtasks) {
+        Epic epic = copy();
+        epic.status = calculateStatus(subtasks);
+        epic.duration = calculateDuration(subtasks);
+        epic.startTime = calculateStartTime(subtasks);
+        epic.endTime = calculateEndTime(subtasks);
+        return epic;
     }
 
-    public void update(List<Subtask> subtasks) {
-        status = calculateStatus(subtasks);
-        duration = calculateDuration(subtasks);
-        startTime = calculateStartTime(subtasks);
-        endTime = calculateEndTime(subtasks);
+    @Override
+    public Epic withStatus(TaskStatus status) {
+        return (Epic) super.withStatus(status);
+    }
+
+    @Override
+    public Epic withStartTime(LocalDateTime startTime) {
+        return (Epic) super.withStartTime(startTime);
+    }
+
+    @Override
+    public Epic withDuration(Duration duration) {
+        return (Epic) super.withDuration(duration);
+    }
+
+    @Override
+    public Epic withId(Integer id) {
+        return (Epic) super.withId(id);
+    }
+
+    @Override
+    public Epic withName(String name) {
+        return (Epic) super.withName(name);
+    }
+
+    @Override
+    public Epic withDescription(String description) {
+        return (Epic) super.withDescription(description);
+    }
+
+    @Override
+    public Epic copy() {
+        Epic epic = new Epic(id, name, description, status, startTime, duration);
+        epic.subtasksId = getSubtasksId();
+        epic.endTime = endTime;
+        return epic;
     }
 
     private TaskStatus calculateStatus(List<Subtask> subtasks) {
@@ -28,8 +28,8 @@ public class Subtask extends Task {
         this.epicId = epic.getId();
     }
 
-    public Subtask(Integer id, String name, String description, TaskStatus status, int epicId, LocalDateTime startTime,
-                   Duration duration) {
+    public Subtask(Integer id, String name, String description, TaskStatus status, Integer epicId,
+                   LocalDateTime startTime, Duration duration) {
 
         super(id, name, description, status, startTime, duration);
         this.epicId = epicId;
@@ -39,6 +39,46 @@ public class Subtask extends Task {
         return epicId;
     }
 
+    @Override
+    public TaskType getType() {
+        return TaskType.SUBTASK;
+    }
+
+    @Override
+    public Subtask withStatus(TaskStatus status) {
+        return (Subtask) super.withStatus(status);
+    }
+
+    @Override
+    public Subtask withStartTime(LocalDateTime startTime) {
+        return (Subtask) super.withStartTime(startTime);
+    }
+
+    @Override
+    public Subtask withDuration(Duration duration) {
+        return (Subtask) super.withDuration(duration);
+    }
+
+    @Override
+    public Subtask withId(Integer id) {
+        return (Subtask) super.withId(id);
+    }
+
+    @Override
+    public Subtask withName(String name) {
+        return (Subtask) super.withName(name);
+    }
+
+    @Override
+    public Subtask withDescription(String description) {
+        return (Subtask) super.withDescription(description);
+    }
+
+    @Override
+    public Subtask copy() {
+        return new Subtask(id, name, description, status, epicId, startTime, duration);
+    }
+
     @Override
     public String toString() {
         return "tasks.Subtask{" +
@@ -40,54 +40,83 @@ public class Task {
         return name;
     }
 
-    public void setName(String name) {
-        this.name = name;
-    }
-
     public String getDescription() {
         return description;
     }
 
-    public void setDescription(String description) {
-        this.description = description;
-    }
-
     public Integer getId() {
         return id;
     }
 
+    // Задача неизменяема: id назначается один раз, когда менеджер сохраняет новую задачу
     public void setId(Integer id) {
+        if (this.id != null) {
+            throw new IllegalStateException("У задачи уже есть id " + this.id);
+        }
         this.id = id;
     }
 
-    public TaskStatus getStatus() {
-        return status;
+    public TaskType getType() {
+        return TaskType.TASK;
     }
 
-    public void setStatus(TaskStatus status) {
-        this.status = status;
+    public TaskStatus getStatus() {
+        return status;
     }
 
     public Duration getDuration() {
         return duration;
     }
 
-    public void setDuration(Duration duration) {
-        this.duration = duration;
-    }
-
     public LocalDateTime getStartTime() {
         return startTime;
     }
 
-    public void setStartTime(LocalDateTime startTime) {
-        this.startTime = startTime;
-    }
-
     public LocalDateTime getEndTime() {
         return startTime.plus(duration);
     }
 
+    // Возвращают измененную копию задачи, оригинал при этом не меняется
+    public Task withId(Integer id) {
+        Task task = copy();
+        task.id = id;
+        return task;
+    }
+
+    public Task withName(String name) {
+        Task task = copy();
+        task.name = name;
+        return task;
+    }
+
+    public Task withDescription(String description) {
+        Task task = copy();
+        task.description = description;
+        return task;
+    }
+
+    public Task withStatus(TaskStatus status) {
+        Task task = copy();
+        task.status = status;
+        return task;
+    }
+
+    public Task withStartTime(LocalDateTime startTime) {
+        Task task = copy();
+        task.startTime = startTime;
+        return task;
+    }
+
+    public Task withDuration(Duration duration) {
+        Task task = copy();
+        task.duration = duration;
+        return task;
+    }
+
+    public Task copy() {
+        return new Task(id, name, description, status, startTime, duration);
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) return true;
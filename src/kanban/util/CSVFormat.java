@@ -3,14 +3,31 @@ package kanban.util;
 import kanban.tasks.*;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static kanban.tasks.TaskType.*;
@@ -20,24 +37,89 @@ public class CSVFormat {
     public static final String SEPARATOR = "\t";
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    private static final long PARALLEL_LOAD_THRESHOLD = 8 * 1024 * 1024;
+    private static final int PARALLEL_LOAD_CHUNK_SIZE = 1024 * 1024;
+
+    // Когда сбрасывать файл задач на диск: никогда (решает ОС), при каждой записи или раз в секунду в фоне
+    public enum SyncPolicy {
+        NONE,
+        PER_COMMIT,
+        PERIODIC
+    }
+
+    // Пишет во временный файл рядом с файлом задач и при закрытии атомарно подменяет им старый,
+    // поэтому после сбоя на диске остается либо прежняя, либо новая версия целиком. close подменяет файл
+    // всегда, поэтому если строки записаны не все, вместо него нужно вызвать abort
     public static class TaskFileWriter implements Closeable {
 
         private final Path taskFile;
+        private final Path tempFile;
+        private final SyncPolicy syncPolicy;
+        private final FileChannel channel;
         private final PrintWriter writer;
+        private boolean isClosed;
 
         public TaskFileWriter(Path taskFile) throws IOException {
+            this(taskFile, SyncPolicy.NONE);
+        }
 
-            this.taskFile = taskFile;
-            createTaskFileIfAbsent();
-            clearTaskFile();
+        public TaskFileWriter(Path taskFile, SyncPolicy syncPolicy) throws IOException {
 
-            this.writer = new PrintWriter(new FileWriter(taskFile.toFile(), StandardCharsets.UTF_8));
+            this.taskFile = taskFile;
+            this.syncPolicy = syncPolicy;
+            this.tempFile = getTempFile(taskFile);
+            this.channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            try {
+                copyPermissions(taskFile, tempFile);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            this.writer = new PrintWriter(new BufferedWriter(
+                    new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8)));
             setHeaders();
         }
 
         @Override
-        public void close() {
+        public void close() throws IOException {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+
+            try {
+                writer.flush();
+                if (writer.checkError()) {
+                    throw new IOException("Не удалось записать " + tempFile);
+                }
+                if (syncPolicy == SyncPolicy.PER_COMMIT) {
+                    channel.force(true);
+                }
+                writer.close();
+                replace(tempFile, taskFile);
+            } catch (IOException e) {
+                writer.close();
+                Files.deleteIfExists(tempFile);
+                throw e;
+            }
+
+            switch (syncPolicy) {
+                case PER_COMMIT -> syncDirectory(getDirectory(taskFile));
+                case PERIODIC -> PeriodicSync.add(taskFile);
+                case NONE -> {
+                }
+            }
+        }
+
+        // Отменяет запись: файл задач остается прежним
+        public void abort() throws IOException {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
             writer.close();
+            Files.deleteIfExists(tempFile);
         }
 
         private void setHeaders() {
@@ -60,21 +142,93 @@ public class CSVFormat {
             writer.println(line);
         }
 
-        private void createTaskFileIfAbsent() throws IOException {
-            if (!Files.exists(taskFile)) {
-                Files.createFile(taskFile);
+        // После подмены у файла задач будут права временного файла, поэтому они копируются с прежнего
+        private static void copyPermissions(Path source, Path target) throws IOException {
+            if (Files.exists(source)
+                    && Files.getFileStore(target).supportsFileAttributeView(PosixFileAttributeView.class)) {
+                Files.setPosixFilePermissions(target, Files.getPosixFilePermissions(source));
             }
         }
 
-        private void clearTaskFile() throws FileNotFoundException {
-            try (PrintWriter writer = new PrintWriter(taskFile.toFile())) {
-                // просто удаляем содержимое
+        private static void replace(Path source, Path target) throws IOException {
+            try {
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                // файлы лежат в одном каталоге, так что сюда попадаем только на экзотических файловых системах
+                Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
             }
         }
     }
 
+    // Сбрасывает на диск файлы, записанные с политикой PERIODIC
+    static class PeriodicSync {
+
+        private static final long INTERVAL_MILLIS = 1000;
+        private static final Set<Path> dirtyFiles = ConcurrentHashMap.newKeySet();
+        private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("task-file-sync").daemon().factory());
+
+        static {
+            scheduler.scheduleWithFixedDelay(PeriodicSync::syncAll, INTERVAL_MILLIS, INTERVAL_MILLIS,
+                    TimeUnit.MILLISECONDS);
+        }
+
+        static void add(Path file) {
+            dirtyFiles.add(file);
+        }
+
+        private static void syncAll() {
+            for (Path file : dirtyFiles) {
+                dirtyFiles.remove(file);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    channel.force(true);
+                    syncDirectory(getDirectory(file));
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    // Имя временного файла постоянное, поэтому остаток оборванной записи не копится, а перезаписывается
+    // следующей записью или удаляется при загрузке
+    private static Path getTempFile(Path taskFile) {
+        return taskFile.resolveSibling(taskFile.getFileName() + ".tmp");
+    }
+
+    public static void deleteTempFile(Path taskFile) throws IOException {
+        Files.deleteIfExists(getTempFile(taskFile));
+    }
+
+    private static Path getDirectory(Path file) {
+        return file.toAbsolutePath().getParent();
+    }
+
+    // Переименование становится надежным только после сброса каталога. Не все системы позволяют
+    // открыть каталог как файл, там остается положиться на ОС
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // например, Windows
+        }
+    }
+
+    public static TaskFileWriter writer(Path taskFile, SyncPolicy syncPolicy) throws IOException {
+        return new TaskFileWriter(taskFile, syncPolicy);
+    }
+
+    // Большие файлы разбираются параллельно, в том же порядке строк, что и последовательно
     public static List<Task> loadTasksFromFile(Path path) throws IOException {
 
+        if (Files.size(path) >= PARALLEL_LOAD_THRESHOLD) {
+            return loadTasksInParallel(path, ForkJoinPool.commonPool(), PARALLEL_LOAD_CHUNK_SIZE);
+        }
+        return loadTasksSequentially(path);
+    }
+
+    static List<Task> loadTasksSequentially(Path path) throws IOException {
+
         return Files.readAllLines(path, StandardCharsets.UTF_8)
                 .stream()
                 .skip(1)
@@ -82,6 +236,105 @@ public class CSVFormat {
                 .toList();
     }
 
+    // Файл делится по границам строк на куски, каждый кусок отображается в память и разбирается
+    // отдельной задачей пула. Результаты кусков склеиваются в порядке их следования в файле
+    static List<Task> loadTasksInParallel(Path path, ForkJoinPool pool, int chunkSize) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long headerEnd = findLineEnd(channel, 0, size);
+            ParseChunk root = new ParseChunk(channel, headerEnd, size, chunkSize);
+            try {
+                return pool.invoke(root).stream()
+                        .flatMap(List::stream)
+                        .toList();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    // Позиция сразу после ближайшего с position перевода строки (или конец файла)
+    private static long findLineEnd(FileChannel channel, long position, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        while (position < end) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return Math.min(position + i + 1, end);
+                }
+            }
+            position += read;
+        }
+        return end;
+    }
+
+    // Делит свой диапазон пополам по границе строки, пока он не станет меньше chunkSize.
+    // Перевод строки не встречается внутри многобайтовых символов UTF-8, поэтому граница всегда верная
+    private static class ParseChunk extends RecursiveTask<List<List<Task>>> {
+
+        // ForkJoinTask сериализуем только формально: задача живет в пуле и никуда не передается
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient FileChannel channel;
+        private final long start;
+        private final long end;
+        private final int chunkSize;
+
+        ParseChunk(FileChannel channel, long start, long end, int chunkSize) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected List<List<Task>> compute() {
+            try {
+                if (end - start > chunkSize) {
+                    long middle = findLineEnd(channel, start + (end - start) / 2, end);
+                    if (middle < end) {
+                        ParseChunk left = new ParseChunk(channel, start, middle, chunkSize);
+                        ParseChunk right = new ParseChunk(channel, middle, end, chunkSize);
+                        right.fork();
+                        List<List<Task>> result = new ArrayList<>(left.compute());
+                        result.addAll(right.join());
+                        return result;
+                    }
+                }
+                return List.of(parse());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private List<Task> parse() throws IOException {
+            if (start == end) {
+                return List.of();
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            CharBuffer chars = StandardCharsets.UTF_8.decode(mapped);
+
+            List<Task> tasks = new ArrayList<>();
+            int lineStart = 0;
+            for (int i = 0; i <= chars.limit(); i++) {
+                if (i == chars.limit() || chars.get(i) == '\n') {
+                    int lineEnd = i > lineStart && chars.get(i - 1) == '\r' ? i - 1 : i;
+                    if (lineEnd > lineStart) {
+                        tasks.add(fromString(chars.subSequence(lineStart, lineEnd).toString()));
+                    }
+                    lineStart = i + 1;
+                }
+            }
+            return tasks;
+        }
+    }
+
     public static TaskFileWriter writer(Path taskFile) throws IOException {
         return new TaskFileWriter(taskFile);
     }
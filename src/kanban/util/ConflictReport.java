@@ -0,0 +1,154 @@
+package kanban.util;
+
+import kanban.tasks.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Отчет о пересечениях в расписании. Пересечения могут появиться в обход isIntercepted: через
+// updateEpic, старые файлы или задачи со временем начала, но без продолжительности.
+// Задачи просматриваются по времени начала, активные (еще не закончившиеся) лежат в куче по окончанию,
+// поэтому отчет строится за O(n log n) плюс количество выданных пар.
+// Задача без продолжительности считается точкой: она пересекается с задачей, которая идет в этот момент
+// или начинается одновременно с ней. Пересекающиеся по цепочке задачи собираются в кластер
+public class ConflictReport {
+
+    private final int conflictingTasks;
+    private final boolean pairsTruncated;
+    private final List<Cluster> clusters;
+
+    private ConflictReport(int conflictingTasks, boolean pairsTruncated, List<Cluster> clusters) {
+        this.conflictingTasks = conflictingTasks;
+        this.pairsTruncated = pairsTruncated;
+        this.clusters = clusters;
+    }
+
+    // В отчет попадает не больше pairLimit пар, кластеры перечисляются все
+    public static ConflictReport of(List<Task> scheduledTasks, int pairLimit) {
+
+        Task[] tasks = scheduledTasks.stream()
+                .filter(task -> task.getStartTime() != null)
+                .sorted(Comparator.comparing(Task::getStartTime).thenComparing(Task::getId))
+                .toArray(Task[]::new);
+        LocalDateTime[] ends = new LocalDateTime[tasks.length];
+        for (int i = 0; i < tasks.length; i++) {
+            Duration duration = tasks[i].getDuration();
+            ends[i] = duration == null ? tasks[i].getStartTime() : tasks[i].getStartTime().plus(duration);
+        }
+
+        PriorityQueue<Integer> active = new PriorityQueue<>(Comparator.comparing((Integer i) -> ends[i]));
+        List<Cluster> clusters = new ArrayList<>();
+        List<Integer> component = new ArrayList<>();
+        List<int[]> pairs = new ArrayList<>();
+        LocalDateTime componentEnd = null;
+        int pairCount = 0;
+        boolean pairsTruncated = false;
+        int conflictingTasks = 0;
+
+        for (int i = 0; i < tasks.length; i++) {
+            LocalDateTime start = tasks[i].getStartTime();
+            while (!active.isEmpty() && isFinishedBy(tasks[active.peek()].getStartTime(), ends[active.peek()], start)) {
+                active.poll();
+            }
+
+            if (active.isEmpty()) {
+                if (component.size() > 1) {
+                    clusters.add(Cluster.of(tasks, component, componentEnd, pairs));
+                    conflictingTasks += component.size();
+                }
+                component.clear();
+                pairs = new ArrayList<>();
+                componentEnd = null;
+            } else if (!pairsTruncated && pairCount + active.size() <= pairLimit) {
+                for (int other : active) {
+                    pairs.add(new int[]{tasks[other].getId(), tasks[i].getId()});
+                }
+                pairCount += active.size();
+            } else {
+                pairsTruncated = true;
+            }
+
+            active.add(i);
+            component.add(i);
+            if (componentEnd == null || ends[i].isAfter(componentEnd)) {
+                componentEnd = ends[i];
+            }
+        }
+
+        if (component.size() > 1) {
+            clusters.add(Cluster.of(tasks, component, componentEnd, pairs));
+            conflictingTasks += component.size();
+        }
+        return new ConflictReport(conflictingTasks, pairsTruncated, clusters);
+    }
+
+    public int getConflictingTasks() {
+        return conflictingTasks;
+    }
+
+    public boolean isPairsTruncated() {
+        return pairsTruncated;
+    }
+
+    public List<Cluster> getClusters() {
+        return clusters;
+    }
+
+    // Задача [start, end) больше не пересекается с задачами, начинающимися в time.
+    // Точка остается активной, пока с ней одновременно начинаются другие задачи
+    private static boolean isFinishedBy(LocalDateTime start, LocalDateTime end, LocalDateTime time) {
+        return end.isBefore(time) || (end.isEqual(time) && start.isBefore(time));
+    }
+
+    public static class Cluster {
+
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final List<Integer> taskIds;
+        private final List<int[]> pairs;
+
+        private Cluster(LocalDateTime start, LocalDateTime end, List<Integer> taskIds, List<int[]> pairs) {
+            this.start = start;
+            this.end = end;
+            this.taskIds = taskIds;
+            this.pairs = pairs;
+        }
+
+        private static Cluster of(Task[] tasks, List<Integer> component, LocalDateTime end, List<int[]> pairs) {
+            List<Integer> taskIds = component.stream().map(i -> tasks[i].getId()).toList();
+            pairs.sort(Comparator.<int[]>comparingInt(pair -> pair[1]).thenComparingInt(pair -> pair[0]));
+            return new Cluster(tasks[component.getFirst()].getStartTime(), end, taskIds, pairs);
+        }
+
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        public LocalDateTime getEnd() {
+            return end;
+        }
+
+        public List<Integer> getTaskIds() {
+            return taskIds;
+        }
+
+        public List<int[]> getPairs() {
+            return pairs;
+        }
+
+        @Override
+        public String toString() {
+            return "Cluster{" +
+                    "start=" + start +
+                    ", end=" + end +
+                    ", taskIds=" + taskIds +
+                    ", pairs=" + pairs.stream().map(Arrays::toString).toList() +
+                    '}';
+        }
+    }
+}
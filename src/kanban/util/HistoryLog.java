@@ -0,0 +1,301 @@
+package kanban.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+// Журнал истории просмотров: после заголовка идут снимок (id истории по порядку) и дописанные за ним записи
+// "просмотр id", "удаление id", "очистка" - байт операции и id в varint. Когда записей становится заметно
+// больше, чем id в истории, файл заменяется новым снимком, так что его размер ограничен.
+// Операции только кладут запись в неблокирующую очередь, в файл ее пишет отдельный поток, поэтому
+// просмотр задачи диска не ждет. Запись, оборванная при сбое, при чтении отбрасывается
+public class HistoryLog implements Closeable {
+
+    private static final int MAGIC = 0x4B424831; // "KBH1"
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // файл переписывается, когда записей после снимка больше, чем id в истории, вдвое и хотя бы на столько
+    private static final int MIN_COMPACTION_RECORDS = 4096;
+
+    private static final byte OP_VIEW = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final byte OP_CLEAR = 3;
+
+    private final Path file;
+    private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+    private final Thread writer;
+    private volatile boolean isRunning = true;
+    // поток записи завершился: новые записи не принимаются, а flush сразу завершается ошибкой
+    private volatile boolean isStopped;
+    // будить поток записи нужно, только если он уснул: unpark на каждый просмотр - лишний системный вызов
+    private volatile boolean isWriterParked;
+
+    // ниже - только поток записи
+    private final LinkedHashSet<Integer> ids;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private FileChannel channel;
+    private long recordsSinceSnapshot;
+    // после ошибки хвост файла мог остаться недописанным, поэтому следующая запись - это новый снимок
+    private boolean needsSnapshot;
+
+    private HistoryLog(Path file, List<Integer> ids) throws IOException {
+        this.file = file;
+        this.ids = new LinkedHashSet<>(ids);
+        writeSnapshot();
+        this.writer = new Thread(this::drain, "history-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // Открывает журнал и сразу записывает снимок ids, прочитанных через replay
+    public static HistoryLog open(Path file, List<Integer> ids) throws IOException {
+        return new HistoryLog(file, ids);
+    }
+
+    // Восстанавливает историю за один проход по файлу: id от самого старого просмотра к последнему
+    public static List<Integer> replay(Path file) throws IOException {
+        LinkedHashSet<Integer> ids = new LinkedHashSet<>();
+        if (!Files.exists(file) || Files.size(file) < Integer.BYTES) {
+            return new ArrayList<>();
+        }
+
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (data.getInt() != MAGIC) {
+            throw new IOException("Файл " + file + " не является журналом истории");
+        }
+
+        while (data.hasRemaining()) {
+            int position = data.position();
+            byte op = data.get();
+            if (op == OP_CLEAR) {
+                ids.clear();
+                continue;
+            }
+
+            Integer id = readVarint(data);
+            if (id == null || (op != OP_VIEW && op != OP_REMOVE)) {
+                // оборванный или испорченный хвост
+                data.position(position);
+                break;
+            }
+            ids.remove(id);
+            if (op == OP_VIEW) {
+                ids.add(id);
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    public void view(int id) {
+        offer(((long) OP_VIEW << 32) | (id & 0xFFFFFFFFL));
+    }
+
+    public void remove(int id) {
+        offer(((long) OP_REMOVE << 32) | (id & 0xFFFFFFFFL));
+    }
+
+    public void clear() {
+        offer((long) OP_CLEAR << 32);
+    }
+
+    // Завершается, когда все записи до этого момента переданы в файл
+    public CompletableFuture<Void> flush() {
+        CompletableFuture<Void> flushed = new CompletableFuture<>();
+        queue.offer(flushed);
+        // флаг проверяется после добавления: иначе flush, пришедший во время остановки, ждал бы вечно
+        if (isStopped) {
+            failPending();
+        }
+        wakeWriter();
+        return flushed;
+    }
+
+    // Уже принятые записи будут записаны до закрытия файла
+    @Override
+    public void close() throws IOException {
+        isRunning = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private void offer(long record) {
+        if (isStopped) {
+            return;
+        }
+        queue.offer(record);
+        wakeWriter();
+    }
+
+    private void wakeWriter() {
+        if (isWriterParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (isRunning || !queue.isEmpty()) {
+                Object item = queue.poll();
+                if (item == null) {
+                    // флаг ставится до повторной проверки очереди, поэтому запись, добавленная между ними,
+                    // не потеряется
+                    isWriterParked = true;
+                    if (isRunning && queue.isEmpty()) {
+                        LockSupport.park(this);
+                    }
+                    isWriterParked = false;
+                    continue;
+                }
+                writeBatch(item);
+            }
+        } finally {
+            isStopped = true;
+            failPending();
+        }
+    }
+
+    // Все, что накопилось в очереди, уходит одной записью в файл
+    private void writeBatch(Object item) {
+        List<CompletableFuture<Void>> flushed = new ArrayList<>();
+        try {
+            for (; item != null; item = queue.poll()) {
+                if (item instanceof CompletableFuture<?>) {
+                    @SuppressWarnings("unchecked")
+                    CompletableFuture<Void> future = (CompletableFuture<Void>) item;
+                    flushed.add(future);
+                } else {
+                    append((Long) item);
+                }
+            }
+            if (needsSnapshot || recordsSinceSnapshot > Math.max(MIN_COMPACTION_RECORDS, 2L * ids.size())) {
+                buffer.clear();
+                writeSnapshot();
+            } else {
+                writeBuffer();
+            }
+            flushed.forEach(future -> future.complete(null));
+        } catch (IOException | RuntimeException e) {
+            // история не критична: ошибка записи не должна ломать работу с задачами и останавливать поток
+            e.printStackTrace();
+            buffer.clear();
+            needsSnapshot = true;
+            flushed.forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private void failPending() {
+        IOException closed = new IOException("Журнал истории " + file + " закрыт");
+        for (Object item = queue.poll(); item != null; item = queue.poll()) {
+            if (item instanceof CompletableFuture<?> future) {
+                future.completeExceptionally(closed);
+            }
+        }
+    }
+
+    private void append(long record) throws IOException {
+        byte op = (byte) (record >>> 32);
+        int id = (int) record;
+        if (buffer.remaining() < 1 + 5) {
+            writeBuffer();
+        }
+
+        buffer.put(op);
+        if (op == OP_CLEAR) {
+            ids.clear();
+        } else {
+            writeVarint(buffer, id);
+            ids.remove(id);
+            if (op == OP_VIEW) {
+                ids.add(id);
+            }
+        }
+        recordsSinceSnapshot++;
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Снимок пишется во временный файл и заменяет журнал целиком
+    private void writeSnapshot() throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        FileChannel snapshot = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            buffer.clear();
+            buffer.putInt(MAGIC);
+            for (int id : ids) {
+                if (buffer.remaining() < 1 + 5) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        snapshot.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                buffer.put(OP_VIEW);
+                writeVarint(buffer, id);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                snapshot.write(buffer);
+            }
+            buffer.clear();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            buffer.clear();
+            snapshot.close();
+            throw e;
+        }
+
+        if (channel != null) {
+            channel.close();
+        }
+        channel = snapshot;
+        recordsSinceSnapshot = 0;
+        needsSnapshot = false;
+    }
+
+    private static void writeVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    // null - значение оборвано
+    private static Integer readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                return null;
+            }
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,471 @@
+package kanban.util;
+
+import kanban.managers.TaskEvent;
+import kanban.tasks.Epic;
+import kanban.tasks.Subtask;
+import kanban.tasks.Task;
+import kanban.tasks.TaskStatus;
+import kanban.tasks.TaskType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+// Двоичный журнал изменений задач. В отличие от CSV, который хранит только состояние целиком,
+// здесь каждая запись - одно изменение, и в ней только поля, которые поменялись.
+// Запись: длина (4 байта), CRC32C содержимого (4 байта), содержимое:
+// операция, тип задачи, id (varint), маска полей и сами поля.
+// Записи одной операции менеджера заканчиваются записью COMMIT, при восстановлении
+// незавершенная операция и все, что за ней (оборванный хвост), отбрасываются
+public class TaskJournal implements Closeable {
+
+    private static final int MAGIC = 0x4B424A31; // "KBJ1"
+    private static final int FILE_HEADER_SIZE = 4;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte OP_CREATED = 0;
+    private static final byte OP_UPDATED = 1;
+    private static final byte OP_DELETED = 2;
+    private static final byte OP_COMMIT = 3;
+
+    private static final int NAME = 1;
+    private static final int DESCRIPTION = 1 << 1;
+    private static final int STATUS = 1 << 2;
+    private static final int DURATION = 1 << 3;
+    private static final int START_TIME = 1 << 4;
+    private static final int EPIC_ID = 1 << 5;
+    private static final int ALL_FIELDS = NAME | DESCRIPTION | STATUS | DURATION | START_TIME | EPIC_ID;
+    // статус, время и продолжительность эпика менеджер вычисляет по подзадачам
+    private static final int EPIC_FIELDS = NAME | DESCRIPTION;
+
+    private static final TaskType[] TASK_TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final Path file;
+    private final FileChannel channel;
+    private final CSVFormat.SyncPolicy syncPolicy;
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private boolean hasUncommittedRecords;
+
+    private TaskJournal(Path file, FileChannel channel, CSVFormat.SyncPolicy syncPolicy) {
+        this.file = file;
+        this.channel = channel;
+        this.syncPolicy = syncPolicy;
+    }
+
+    // Открывает журнал для дописывания. Перед этим его нужно прочитать через replay,
+    // иначе оборванный хвост останется в середине файла
+    public static TaskJournal open(Path file, CSVFormat.SyncPolicy syncPolicy) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                writeFileHeader(channel);
+            } else {
+                checkFileHeader(channel);
+            }
+            channel.position(channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new TaskJournal(file, channel, syncPolicy);
+    }
+
+    // Добавляет изменение в буфер, на диск оно попадет при commit
+    public void append(TaskEvent event) throws IOException {
+        Task before = event.getBefore();
+        Task after = event.getAfter();
+
+        switch (event.getType()) {
+            case CREATED -> appendFields(OP_CREATED, event.getTaskType(), event.getTaskId(), null, after);
+            case UPDATED -> appendFields(OP_UPDATED, event.getTaskType(), event.getTaskId(), before, after);
+            case DELETED -> appendRecord(OP_DELETED, event.getTaskType(), event.getTaskId(), 0, null, null, null);
+        }
+    }
+
+    // Завершает операцию и отдает буфер файлу. С политикой PER_COMMIT возвращается после сброса на диск
+    public void commit() throws IOException {
+        if (!hasUncommittedRecords) {
+            return;
+        }
+        hasUncommittedRecords = false;
+        appendRecord(OP_COMMIT, TaskType.TASK, 0, 0, null, null, null);
+        writeBuffer();
+
+        switch (syncPolicy) {
+            case PER_COMMIT -> channel.force(false);
+            case PERIODIC -> CSVFormat.PeriodicSync.add(file);
+            case NONE -> {
+            }
+        }
+    }
+
+    // Очищает журнал, когда его содержимое уже есть в файле задач
+    public void reset() throws IOException {
+        buffer.clear();
+        hasUncommittedRecords = false;
+        channel.truncate(FILE_HEADER_SIZE);
+        channel.position(FILE_HEADER_SIZE);
+        if (syncPolicy == CSVFormat.SyncPolicy.PER_COMMIT) {
+            channel.force(false);
+        }
+    }
+
+    public long size() throws IOException {
+        return channel.size() + buffer.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Применяет журнал к задачам, сохраненным по id. Оборванный хвост отрезается от файла.
+    // Возвращает количество примененных записей
+    public static long replay(Path file, Map<Integer, Task> tasks) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < FILE_HEADER_SIZE) {
+                channel.truncate(0);
+                return 0;
+            }
+            checkFileHeader(channel);
+
+            Replay replay = new Replay(channel, tasks);
+            replay.run();
+            if (replay.committedPosition < channel.size()) {
+                channel.truncate(replay.committedPosition);
+            }
+            return replay.appliedRecords;
+        }
+    }
+
+    private void appendFields(byte op, TaskType taskType, int id, Task before, Task after) throws IOException {
+        int mask = before == null || before == after ? ALL_FIELDS : changedFields(before, after);
+        if (taskType == TaskType.EPIC) {
+            mask &= EPIC_FIELDS;
+        }
+        if (taskType != TaskType.SUBTASK) {
+            mask &= ~EPIC_ID;
+        }
+        if (mask == 0 && op == OP_UPDATED) {
+            return;
+        }
+
+        byte[] name = (mask & NAME) != 0 ? encode(after.getName()) : null;
+        byte[] description = (mask & DESCRIPTION) != 0 ? encode(after.getDescription()) : null;
+        appendRecord(op, taskType, id, mask, after, name, description);
+    }
+
+    private static int changedFields(Task before, Task after) {
+        int mask = 0;
+        if (!Objects.equals(before.getName(), after.getName())) mask |= NAME;
+        if (!Objects.equals(before.getDescription(), after.getDescription())) mask |= DESCRIPTION;
+        if (before.getStatus() != after.getStatus()) mask |= STATUS;
+        if (!Objects.equals(before.getDuration(), after.getDuration())) mask |= DURATION;
+        if (!Objects.equals(before.getStartTime(), after.getStartTime())) mask |= START_TIME;
+        if (before instanceof Subtask subBefore && after instanceof Subtask subAfter
+                && !Objects.equals(subBefore.getEpicId(), subAfter.getEpicId())) {
+            mask |= EPIC_ID;
+        }
+        return mask;
+    }
+
+    private void appendRecord(byte op, TaskType taskType, int id, int mask, Task task, byte[] name,
+                              byte[] description) throws IOException {
+
+        // с запасом: varint занимает до 10 байт, длина строки - до 5
+        int maxSize = RECORD_HEADER_SIZE + 2 + 10 + 1 + 1 + 3 * 10
+                + (name == null ? 1 : name.length + 5) + (description == null ? 1 : description.length + 5);
+        if (maxSize > MAX_RECORD_SIZE) {
+            throw new IOException("Слишком большая запись журнала: " + maxSize + " байт");
+        }
+        ensureRemaining(maxSize);
+
+        int start = buffer.position();
+        buffer.position(start + RECORD_HEADER_SIZE);
+        buffer.put(op);
+        buffer.put((byte) taskType.ordinal());
+        putVarLong(buffer, id);
+        buffer.put((byte) mask);
+        if ((mask & NAME) != 0) putBytes(buffer, name);
+        if ((mask & DESCRIPTION) != 0) putBytes(buffer, description);
+        if ((mask & STATUS) != 0) buffer.put((byte) task.getStatus().ordinal());
+        if ((mask & DURATION) != 0) putVarLong(buffer, encodeDuration(task.getDuration()));
+        if ((mask & START_TIME) != 0) putVarLong(buffer, encodeTime(task.getStartTime()));
+        if ((mask & EPIC_ID) != 0) putVarLong(buffer, ((Subtask) task).getEpicId());
+
+        int end = buffer.position();
+        int length = end - start - RECORD_HEADER_SIZE;
+        crc.reset();
+        crc.update(buffer.slice(start + RECORD_HEADER_SIZE, length));
+        buffer.putInt(start, length);
+        buffer.putInt(start + 4, (int) crc.getValue());
+
+        hasUncommittedRecords = op != OP_COMMIT;
+    }
+
+    private void ensureRemaining(int size) throws IOException {
+        if (buffer.remaining() >= size) {
+            return;
+        }
+        // запись операции может уйти в файл частями, без COMMIT в конце она все равно не применится
+        writeBuffer();
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocateDirect(Integer.highestOneBit(size) << 1);
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void writeFileHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    private static void checkFileHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // читаем заголовок целиком
+        }
+        if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+            throw new IOException("Файл не является журналом задач");
+        }
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Строка: длина + 1 (0 - null) и байты UTF-8
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        putVarLong(buffer, bytes.length + 1L);
+        buffer.put(bytes);
+    }
+
+    // Продолжительность в секундах + 1, 0 - null
+    private static long encodeDuration(Duration duration) {
+        return duration == null ? 0 : duration.toSeconds() + 1;
+    }
+
+    private static Duration decodeDuration(long value) {
+        return value == 0 ? null : Duration.ofSeconds(value - 1);
+    }
+
+    // Время в секундах от эпохи в zigzag-кодировке + 1, 0 - null
+    private static long encodeTime(LocalDateTime time) {
+        if (time == null) {
+            return 0;
+        }
+        long seconds = time.toEpochSecond(ZoneOffset.UTC);
+        return ((seconds << 1) ^ (seconds >> 63)) + 1;
+    }
+
+    private static LocalDateTime decodeTime(long value) {
+        if (value == 0) {
+            return null;
+        }
+        long zigzag = value - 1;
+        long seconds = (zigzag >>> 1) ^ -(zigzag & 1);
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Слишком длинный varint");
+    }
+
+    // Чтение журнала. Изменения операции копятся в pending и применяются только на COMMIT
+    private static class Replay {
+
+        private final FileChannel channel;
+        private final Map<Integer, Task> tasks;
+        private final CRC32C crc = new CRC32C();
+        private final List<Change> pending = new ArrayList<>();
+        private ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+        private long bufferStart = FILE_HEADER_SIZE;
+        private long committedPosition = FILE_HEADER_SIZE;
+        private long appliedRecords;
+        private boolean isEof;
+
+        Replay(FileChannel channel, Map<Integer, Task> tasks) {
+            this.channel = channel;
+            this.tasks = tasks;
+            buffer.limit(0);
+        }
+
+        void run() throws IOException {
+            while (ensureAvailable(RECORD_HEADER_SIZE)) {
+                int recordStart = buffer.position();
+                int length = buffer.getInt(recordStart);
+                int checksum = buffer.getInt(recordStart + 4);
+                if (length <= 0 || length > MAX_RECORD_SIZE || !ensureAvailable(RECORD_HEADER_SIZE + length)) {
+                    return;
+                }
+                recordStart = buffer.position();
+
+                ByteBuffer payload = buffer.slice(recordStart + RECORD_HEADER_SIZE, length);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    return;
+                }
+                payload.rewind();
+
+                Change change;
+                try {
+                    change = Change.read(payload);
+                } catch (RuntimeException e) {
+                    // контрольная сумма сошлась, но разобрать запись не вышло - считаем хвост испорченным
+                    return;
+                }
+                buffer.position(recordStart + RECORD_HEADER_SIZE + length);
+
+                if (change == null) {
+                    pending.forEach(this::apply);
+                    appliedRecords += pending.size();
+                    pending.clear();
+                    committedPosition = bufferStart + buffer.position();
+                } else {
+                    pending.add(change);
+                }
+            }
+        }
+
+        // Дочитывает файл так, чтобы в буфере было не меньше size байт. false - файл кончился раньше
+        private boolean ensureAvailable(int size) throws IOException {
+            while (buffer.remaining() < size) {
+                if (isEof) {
+                    return false;
+                }
+                bufferStart += buffer.position();
+                buffer.compact();
+                if (buffer.capacity() < size) {
+                    ByteBuffer larger = ByteBuffer.allocateDirect(Integer.highestOneBit(size) << 1);
+                    larger.put(buffer.flip());
+                    buffer = larger;
+                }
+                isEof = channel.read(buffer, bufferStart + buffer.position()) < 0;
+                buffer.flip();
+            }
+            return true;
+        }
+
+        private void apply(Change change) {
+            switch (change.op) {
+                case OP_DELETED -> tasks.remove(change.id);
+                case OP_CREATED -> tasks.put(change.id, change.applyTo(create(change.taskType, change.id)));
+                case OP_UPDATED -> {
+                    Task task = tasks.get(change.id);
+                    if (task != null) {
+                        tasks.put(change.id, change.applyTo(task));
+                    }
+                }
+            }
+        }
+
+        private static Task create(TaskType taskType, int id) {
+            return switch (taskType) {
+                case TASK -> new Task(id, null, null, null, null);
+                case EPIC -> new Epic(id, null, null);
+                case SUBTASK -> new Subtask(id, null, null, TaskStatus.NEW, 0, null, null);
+            };
+        }
+    }
+
+    // Одна прочитанная запись. Для COMMIT read возвращает null
+    private record Change(byte op, TaskType taskType, int id, int mask, String name, String description,
+                          TaskStatus status, Duration duration, LocalDateTime startTime, int epicId) {
+
+        static Change read(ByteBuffer payload) {
+            byte op = payload.get();
+            TaskType taskType = TASK_TYPES[payload.get()];
+            int id = (int) getVarLong(payload);
+            int mask = payload.get();
+            if (op == OP_COMMIT) {
+                return null;
+            }
+            if (op != OP_CREATED && op != OP_UPDATED && op != OP_DELETED) {
+                throw new IllegalArgumentException("Неизвестная операция " + op);
+            }
+
+            String name = (mask & NAME) != 0 ? getString(payload) : null;
+            String description = (mask & DESCRIPTION) != 0 ? getString(payload) : null;
+            TaskStatus status = (mask & STATUS) != 0 ? STATUSES[payload.get()] : null;
+            Duration duration = (mask & DURATION) != 0 ? decodeDuration(getVarLong(payload)) : null;
+            LocalDateTime startTime = (mask & START_TIME) != 0 ? decodeTime(getVarLong(payload)) : null;
+            int epicId = (mask & EPIC_ID) != 0 ? (int) getVarLong(payload) : 0;
+            return new Change(op, taskType, id, mask, name, description, status, duration, startTime, epicId);
+        }
+
+        private static String getString(ByteBuffer payload) {
+            int length = (int) getVarLong(payload) - 1;
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            payload.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        Task applyTo(Task task) {
+            if ((mask & EPIC_ID) != 0 && task instanceof Subtask) {
+                task = new Subtask(task.getId(), task.getName(), task.getDescription(), task.getStatus(), epicId,
+                        task.getStartTime(), task.getDuration());
+            }
+            if ((mask & NAME) != 0) task = task.withName(name);
+            if ((mask & DESCRIPTION) != 0) task = task.withDescription(description);
+            if ((mask & STATUS) != 0) task = task.withStatus(status);
+            if ((mask & DURATION) != 0) task = task.withDuration(duration);
+            if ((mask & START_TIME) != 0) task = task.withStartTime(startTime);
+            return task;
+        }
+    }
+}
@@ -99,22 +99,15 @@ public class Tasks {
     }
 
     public static Task copy(Task task) {
-        return new Task(task.getId(), task.getName(), task.getDescription(), task.getStatus(), task.getStartTime(),
-                task.getDuration());
+        return task.copy();
     }
 
     public static Epic copy(Epic epic) {
-        Epic newEpic = new Epic(epic.getId(), epic.getName(), epic.getDescription(), epic.getStatus(), epic.getStartTime(),
-                epic.getDuration());
-
-        epic.getSubtasksId().forEach(newEpic::addSubtaskIdIfAbsent);
-
-        return newEpic;
+        return epic.copy();
     }
 
     public static Subtask copy(Subtask sub) {
-        return new Subtask(sub.getId(), sub.getName(), sub.getDescription(), sub.getStatus(), sub.getEpicId(),
-                sub.getStartTime(), sub.getDuration());
+        return sub.copy();
     }
 
     public static LocalDateTime parseTime(String formattedTime) {
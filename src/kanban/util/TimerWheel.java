@@ -0,0 +1,165 @@
+package kanban.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Иерархическое колесо таймеров (Varghese, Lauck). Время - целые такты, уровень l хранит таймеры, у которых
+// старший отличающийся от текущего такта разряд по основанию 64 - l-й. Такой таймер переносится уровнем ниже,
+// когда текущий такт доходит до начала его слота, и на нулевом уровне срабатывает точно в свой такт.
+// Добавление и отмена - O(1), продвижение на такт - O(1) в среднем плюс количество сработавших таймеров.
+// Не потокобезопасен
+public class TimerWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    // 11 уровней по 6 бит покрывают весь long
+    private static final int LEVELS = (Long.SIZE + SLOT_BITS - 1) / SLOT_BITS;
+
+    private final Timeout<T>[][] slots;
+    private final Timeout<T> due = new Timeout<>(0, null);
+    private long currentTick;
+    private int size;
+
+    public TimerWheel(long currentTick) {
+        this.currentTick = currentTick;
+        this.slots = newSlots();
+        for (Timeout<T>[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = new Timeout<>(0, null);
+            }
+        }
+    }
+
+    // Массив обобщенного типа создается только как сырой, поэтому предупреждения подавлены лишь здесь
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Timeout<T>[][] newSlots() {
+        return new Timeout[LEVELS][SLOTS];
+    }
+
+    // Таймер с уже наступившим тактом сработает при следующем advance
+    public Timeout<T> schedule(long deadline, T payload) {
+        Timeout<T> timeout = new Timeout<>(deadline, payload);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    // false, если таймер уже сработал или отменен
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout.head == null) {
+            return false;
+        }
+        timeout.unlink();
+        size--;
+        return true;
+    }
+
+    // Продвигает колесо до такта now и возвращает сработавшие таймеры в порядке тактов
+    public List<T> advance(long now) {
+        List<T> expired = new ArrayList<>();
+        drain(due, expired);
+
+        while (currentTick < now) {
+            if (size == 0) {
+                currentTick = now;
+                break;
+            }
+            currentTick++;
+
+            // сначала старшие уровни: их таймеры могут попасть в текущий слот нулевого уровня
+            int level = 0;
+            while (level + 1 < LEVELS && (currentTick & ((1L << (SLOT_BITS * (level + 1))) - 1)) == 0) {
+                level++;
+            }
+            for (; level > 0; level--) {
+                cascade(slots[level][slotIndex(currentTick, level)]);
+            }
+            drain(slots[0][(int) (currentTick & SLOT_MASK)], expired);
+            drain(due, expired);
+        }
+        return expired;
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void place(Timeout<T> timeout) {
+        if (timeout.deadline <= currentTick) {
+            timeout.linkAfter(due.prev);
+            return;
+        }
+        int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(timeout.deadline ^ currentTick)) / SLOT_BITS;
+        Timeout<T> head = slots[level][slotIndex(timeout.deadline, level)];
+        timeout.linkAfter(head.prev);
+    }
+
+    private void cascade(Timeout<T> head) {
+        Timeout<T> timeout = head.next;
+        while (timeout != head) {
+            Timeout<T> next = timeout.next;
+            timeout.unlink();
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    private void drain(Timeout<T> head, List<T> expired) {
+        Timeout<T> timeout = head.next;
+        while (timeout != head) {
+            Timeout<T> next = timeout.next;
+            timeout.unlink();
+            size--;
+            expired.add(timeout.payload);
+            timeout = next;
+        }
+    }
+
+    private static int slotIndex(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+
+    // Элемент двусвязного списка слота, поэтому отмена не ищет таймер. head == null - таймер не в колесе
+    public static class Timeout<T> {
+
+        private final long deadline;
+        private final T payload;
+        private Timeout<T> prev = this;
+        private Timeout<T> next = this;
+        private Timeout<T> head;
+
+        private Timeout(long deadline, T payload) {
+            this.deadline = deadline;
+            this.payload = payload;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        private void linkAfter(Timeout<T> node) {
+            head = node.head == null ? node : node.head;
+            prev = node;
+            next = node.next;
+            node.next.prev = this;
+            node.next = this;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = this;
+            next = this;
+            head = null;
+        }
+    }
+}
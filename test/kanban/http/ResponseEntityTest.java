@@ -5,6 +5,7 @@ import kanban.HttpTaskServer;
 import kanban.tasks.Task;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Map;
@@ -72,4 +73,14 @@ class ResponseEntityTest {
 
         assertEquals(expectedCacheControl, actualCacheControl);
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenBytes_whenGetMessage_gotDecodedString() {
+        byte[] body = "[{\"name\":\"задача\"}]".getBytes(StandardCharsets.UTF_8);
+        ResponseEntity response = ResponseEntity.ofBytes(200, body,
+                Map.of("Content-Type", ResponseEntity.JSON_CONTENT_TYPE));
+
+        assertSame(body, response.getBody());
+        assertEquals("[{\"name\":\"задача\"}]", response.getMessage());
+    }
+}
@@ -14,6 +14,7 @@ import java.io.IOException;
 import java.net.http.HttpResponse;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,12 +28,11 @@ abstract class AbstractHandlerTest<T extends Task> {
 
     abstract String getResourcePath();
     abstract T createTask();
-    abstract void updateTask(T task);
+    abstract T updateTask(T task);
     abstract T createAndSaveTask();
     abstract List<T> getAllTasks();
     abstract Optional<T> getTaskById(int id);
     abstract void assertTaskEquals(T expectedTask, T actualTask);
-    abstract T copyTask(T task);
 
     @BeforeAll
     static void start() throws IOException {
@@ -69,8 +69,7 @@ abstract class AbstractHandlerTest<T extends Task> {
     @DisplayName("если создаваемая задача пересекается с другими, то 406")
     public void givenTaskInterceptionWithOther_whenSave_got406() throws IOException, InterruptedException {
         T task = createAndSaveTask();
-        T newTask = copyTask(task);
-        newTask.setId(null);
+        T newTask = withSameType(task.withId(null));
 
         HttpResponse<String> resp = Request.post(getResourcePath(), newTask);
 
@@ -119,8 +118,7 @@ abstract class AbstractHandlerTest<T extends Task> {
     @DisplayName("обновляем задачу")
     public void givenExistingTask_whenUpdate_got200() throws IOException, InterruptedException {
         T task = createAndSaveTask();
-        T newTask = copyTask(task);
-        updateTask(newTask);
+        T newTask = updateTask(task);
 
         HttpResponse<String> resp = Request.post(getResourcePath(), newTask);
 
@@ -136,9 +134,9 @@ abstract class AbstractHandlerTest<T extends Task> {
         createTestSuite();
         List<T> tasks = getAllTasks();
         T task1 = tasks.get(0);
-        T task2 = copyTask(tasks.get(1));
-        LocalDateTime originalStartTime = task2.getStartTime();
-        task2.setStartTime(task1.getStartTime()); // теперь task2 будет пересекаться с task1
+        LocalDateTime originalStartTime = tasks.get(1).getStartTime();
+        // теперь task2 будет пересекаться с task1
+        T task2 = withSameType(tasks.get(1).withStartTime(task1.getStartTime()));
 
         HttpResponse<String> resp = Request.post(getResourcePath(), task2);
 
@@ -165,6 +163,34 @@ abstract class AbstractHandlerTest<T extends Task> {
         assertFalse(ids.contains(task.getId()));
     }
 
+    @Test
+    @DisplayName("если коллекция не менялась, то по ETag получаем 304")
+    public void givenETag_whenGetUnchangedTasks_got304() throws IOException, InterruptedException {
+        createTestSuite();
+        HttpResponse<String> resp = Request.get(getResourcePath());
+        String etag = resp.headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<String> cachedResp = Request.get(getResourcePath(), Map.of("If-None-Match", etag));
+
+        assertEquals(304, cachedResp.statusCode());
+        assertEquals("", cachedResp.body());
+    }
+
+    @Test
+    @DisplayName("после изменения коллекции старый ETag не подходит")
+    public void givenETag_whenGetChangedTasks_got200() throws IOException, InterruptedException {
+        createTestSuite();
+        HttpResponse<String> resp = Request.get(getResourcePath());
+        String etag = resp.headers().firstValue("ETag").orElseThrow();
+
+        Request.delete(getResourcePath() + "/" + getAllTasks().getFirst().getId());
+        HttpResponse<String> newResp = Request.get(getResourcePath(), Map.of("If-None-Match", etag));
+
+        assertEquals(200, newResp.statusCode());
+        assertNotEquals(etag, newResp.headers().firstValue("ETag").orElseThrow());
+        assertEquals(GSON.toJson(getAllTasks()), newResp.body());
+    }
+
     protected void createTestSuite() {
         createAndSaveTask("task1;desc1;NEW;2024-01-01 00:00:00;120");
         createAndSaveTask("task2;desc2;NEW;2024-01-02 00:00:00;120");
@@ -190,5 +216,11 @@ abstract class AbstractHandlerTest<T extends Task> {
         manager.saveSubtask(sub);
         return sub;
     }
+
+    // with-методы сохраняют тип задачи, но объявлены в Task
+    @SuppressWarnings("unchecked")
+    private T withSameType(Task task) {
+        return (T) task;
+    }
 }
 
@@ -0,0 +1,91 @@
+package kanban.http.handlers;
+
+import com.google.gson.Gson;
+import kanban.HttpTaskServer;
+import kanban.managers.Managers;
+import kanban.managers.ShardedTaskManager;
+import kanban.tasks.Task;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoardHandlerTest {
+
+    protected static final Gson GSON = HttpTaskServer.getGson();
+    protected static final String resourcePath = "http://localhost:" + HttpTaskServer.PORT + "/boards";
+    protected static ShardedTaskManager boards;
+    protected static HttpTaskServer server;
+
+    @BeforeAll
+    static void start() throws IOException {
+        boards = Managers.getSharded();
+        server = new HttpTaskServer(Managers.getDefault(), boards);
+        server.start();
+    }
+
+    @AfterAll
+    static void shutdown() {
+        server.stop();
+    }
+
+    @AfterEach
+    void clean() {
+        boards.getBoards().forEach(boards::removeBoard);
+    }
+
+    @Test
+    @DisplayName("задачи сохраняются и читаются в своей доске")
+    public void givenTaskPostedToBoard_whenGetTasksOfBoards_gotOnlyItsTasks() throws IOException, InterruptedException {
+        Task task = new Task("task1", "desc1", null, null);
+
+        HttpResponse<String> resp = Request.post(resourcePath + "/alpha/tasks", task);
+        assertEquals(201, resp.statusCode());
+
+        Task saved = boards.getBoard("alpha").getTasks().getFirst();
+        assertEquals(GSON.toJson(List.of(saved)), Request.get(resourcePath + "/alpha/tasks").body());
+        assertEquals(GSON.toJson(saved), Request.get(resourcePath + "/alpha/tasks/" + saved.getId()).body());
+        assertEquals(404, Request.get(resourcePath + "/beta/tasks").statusCode());
+    }
+
+    @Test
+    @DisplayName("доска, удаленная в обход сервера, создается заново вместе со своими обработчиками")
+    public void givenRemovedBoard_whenPostAgain_gotNewBoard() throws IOException, InterruptedException {
+        Request.post(resourcePath + "/alpha/tasks", new Task("task1", "desc1", null, null));
+        boards.removeBoard("alpha");
+
+        assertEquals(201, Request.post(resourcePath + "/alpha/tasks", new Task("task2", "desc2", null, null))
+                .statusCode());
+
+        Task saved = boards.getBoard("alpha").getTasks().getFirst();
+        assertEquals("task2", saved.getName());
+        assertEquals(GSON.toJson(List.of(saved)), Request.get(resourcePath + "/alpha/tasks").body());
+    }
+
+    @Test
+    @DisplayName("получаем список досок и удаляем доску")
+    public void givenBoards_whenListAndDelete_gotBoardsUpdated() throws IOException, InterruptedException {
+        boards.getBoard("alpha");
+        boards.getBoard("beta");
+
+        assertEquals("[\"alpha\",\"beta\"]", Request.get(resourcePath).body());
+        assertEquals(200, Request.delete(resourcePath + "/alpha").statusCode());
+        assertEquals(404, Request.delete(resourcePath + "/alpha").statusCode());
+        assertEquals("[\"beta\"]", Request.get(resourcePath).body());
+    }
+
+    @Test
+    @DisplayName("неизвестный ресурс или недопустимое имя доски - 400, и доска при этом не создается")
+    public void givenBadPath_whenGet_gotBadRequest() throws IOException, InterruptedException {
+        assertEquals(400, Request.get(resourcePath + "/alpha/unknown").statusCode());
+        assertEquals(400, Request.get(resourcePath + "/a.b/tasks").statusCode());
+        assertEquals(400, Request.get(resourcePath + "/alpha").statusCode());
+        assertEquals(400, Request.post(resourcePath + "/gamma/unknown", new Task("t", "d", null, null))
+                .statusCode());
+        assertTrue(boards.getBoards().isEmpty());
+    }
+}
@@ -0,0 +1,77 @@
+package kanban.http.handlers;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import kanban.HttpTaskServer;
+import kanban.managers.Managers;
+import kanban.managers.TaskManager;
+import kanban.tasks.Task;
+import kanban.util.Tasks;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ConflictsHandlerTest {
+
+    protected static final Gson GSON = HttpTaskServer.getGson();
+    protected static final String resourcePath = "http://localhost:" + HttpTaskServer.PORT + "/conflicts";
+    protected static TaskManager manager;
+    protected static HttpTaskServer server;
+
+    @BeforeAll
+    static void start() throws IOException {
+        manager = Managers.getDefault();
+        server = new HttpTaskServer(manager);
+        server.start();
+    }
+
+    @AfterAll
+    static void shutdown() {
+        server.stop();
+    }
+
+    @AfterEach
+    void clean() {
+        manager.removeTasks();
+        manager.removeEpics();
+    }
+
+    @Test
+    @DisplayName("задача без продолжительности внутри другой попадает в отчет")
+    public void givenPointInsideTask_whenGetConflicts_gotCluster() throws IOException, InterruptedException {
+        Task task1 = createAndSaveTask("task1;desc1;NEW;2024-01-01 10:00:00;60");
+        Task task2 = createAndSaveTask("task2;desc2;NEW;2024-01-01 10:30:00;null");
+        createAndSaveTask("task3;desc3;NEW;2024-01-01 12:00:00;60");
+
+        HttpResponse<String> resp = Request.get(resourcePath);
+
+        assertEquals(200, resp.statusCode());
+        JsonObject report = GSON.fromJson(resp.body(), JsonObject.class);
+        assertEquals(2, report.get("conflictingTasks").getAsInt());
+        assertEquals("[[" + task1.getId() + "," + task2.getId() + "]]",
+                report.getAsJsonArray("clusters").get(0).getAsJsonObject().get("pairs").toString());
+    }
+
+    @Test
+    @DisplayName("без пересечений отчет пустой, а неверный лимит - 400")
+    public void givenNoConflicts_whenGetConflicts_gotEmptyReport() throws IOException, InterruptedException {
+        createAndSaveTask("task1;desc1;NEW;2024-01-01 10:00:00;60");
+        createAndSaveTask("task2;desc2;NEW;2024-01-01 11:00:00;60");
+
+        HttpResponse<String> resp = Request.get(resourcePath + "?limit=10");
+        assertEquals(200, resp.statusCode());
+        assertEquals("{\"conflictingTasks\":0,\"pairsTruncated\":false,\"clusters\":[]}", resp.body());
+
+        resp = Request.get(resourcePath + "?limit=-1");
+        assertEquals(400, resp.statusCode());
+    }
+
+    protected Task createAndSaveTask(String formattedTask) {
+        Task task = Tasks.createTask(formattedTask);
+        manager.saveTask(task);
+        return task;
+    }
+}
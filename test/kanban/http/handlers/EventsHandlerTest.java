@@ -0,0 +1,178 @@
+package kanban.http.handlers;
+
+import kanban.HttpTaskServer;
+import kanban.managers.Managers;
+import kanban.managers.TaskManager;
+import kanban.tasks.Task;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventsHandlerTest {
+
+    protected static final String resourcePath = "http://localhost:" + HttpTaskServer.PORT + "/events";
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+    protected static TaskManager manager;
+    protected static HttpTaskServer server;
+
+    @BeforeAll
+    static void start() throws IOException {
+        manager = Managers.getDefault();
+        server = new HttpTaskServer(manager);
+        server.start();
+    }
+
+    @AfterAll
+    static void shutdown() {
+        server.stop();
+    }
+
+    @AfterEach
+    void clean() {
+        manager.removeTasks();
+        manager.removeEpics();
+    }
+
+    @Test
+    @DisplayName("подписчик получает событие о созданной задаче")
+    public void givenSubscriber_whenSaveTask_gotCreatedEvent() {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            try (Stream<String> lines = subscribe(null)) {
+                Iterator<String> iterator = lines.iterator();
+
+                Task task = new Task("task", "desc", null, null);
+                manager.saveTask(task);
+
+                Event event = readEvent(iterator);
+                assertEquals("created", event.name);
+                assertTrue(event.data.contains("\"id\":" + task.getId()));
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("после переподключения с Last-Event-ID подписчик получает пропущенные события")
+    public void givenLastEventId_whenSubscribe_gotMissedEvents() {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            long lastEventId;
+            try (Stream<String> lines = subscribe(null)) {
+                Iterator<String> iterator = lines.iterator();
+                manager.saveTask(new Task("task1", "desc1", null, null));
+                lastEventId = readEvent(iterator).id;
+            }
+
+            Task task2 = new Task("task2", "desc2", null, null);
+            manager.saveTask(task2);
+
+            try (Stream<String> lines = subscribe(lastEventId)) {
+                Event event = readEvent(lines.iterator());
+                assertEquals(lastEventId + 1, event.id);
+                assertEquals("created", event.name);
+                assertTrue(event.data.contains("\"id\":" + task2.getId()));
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("если Last-Event-ID больше последнего номера (сервер перезапущен), то приходит reset")
+    public void givenLastEventIdFromFuture_whenSubscribe_gotReset() {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            try (Stream<String> lines = subscribe(1_000_000L)) {
+                Event event = readEvent(lines.iterator());
+                assertEquals("reset", event.name);
+                assertTrue(event.id < 1_000_000L);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("клиент, который не читает поток, не задерживает события для остальных")
+    public void givenStalledSubscriber_whenManyEvents_gotOthersReceiveThem() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            try (Socket stalled = new Socket()) {
+                stalled.setReceiveBufferSize(1024);
+                stalled.connect(new InetSocketAddress("localhost", HttpTaskServer.PORT));
+                stalled.getOutputStream().write(("GET /events HTTP/1.1\r\nHost: localhost\r\n\r\n")
+                        .getBytes(StandardCharsets.UTF_8));
+                stalled.getOutputStream().flush();
+
+                try (Stream<String> lines = subscribe(null)) {
+                    // событий меньше, чем вмещает лента, но зависшему клиенту их не уместить в очередь
+                    String description = "x".repeat(8 * 1024);
+                    Thread writer = new Thread(() -> {
+                        for (int i = 0; i < 1000; i++) {
+                            manager.saveTask(new Task("task" + i, description, null, null));
+                        }
+                    });
+                    writer.start();
+
+                    // отставший читатель вместо пропущенных событий получает reset
+                    Iterator<String> iterator = lines.iterator();
+                    Event event;
+                    do {
+                        event = readEvent(iterator);
+                    } while (!event.name.equals("reset") && !event.data.contains("\"name\":\"task999\""));
+                    writer.join();
+                }
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("если Last-Event-ID не число, то 400")
+    public void givenWrongLastEventId_whenSubscribe_got400() throws IOException, InterruptedException {
+        HttpResponse<String> resp = Request.get(resourcePath, Map.of("Last-Event-ID", "abc"));
+
+        assertEquals(400, resp.statusCode());
+    }
+
+    private Stream<String> subscribe(Long lastEventId) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(resourcePath))
+                .GET()
+                .version(HttpClient.Version.HTTP_1_1);
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", String.valueOf(lastEventId));
+        }
+
+        HttpResponse<Stream<String>> resp = CLIENT.send(builder.build(), HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, resp.statusCode());
+        return resp.body();
+    }
+
+    private Event readEvent(Iterator<String> lines) {
+        Event event = new Event();
+        while (lines.hasNext()) {
+            String line = lines.next();
+            if (line.isEmpty() && event.name != null) {
+                return event;
+            } else if (line.startsWith("id: ")) {
+                event.id = Long.parseLong(line.substring(4));
+            } else if (line.startsWith("event: ")) {
+                event.name = line.substring(7);
+            } else if (line.startsWith("data: ")) {
+                event.data = line.substring(6);
+            }
+        }
+        throw new AssertionError("поток событий закрылся");
+    }
+
+    private static class Event {
+        long id;
+        String name;
+        String data;
+    }
+}
@@ -0,0 +1,60 @@
+package kanban.http.handlers;
+
+import kanban.HttpTaskServer;
+import kanban.managers.Managers;
+import kanban.managers.TaskManager;
+import kanban.metrics.MetricsRegistry;
+import kanban.tasks.Task;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsHandlerTest {
+
+    protected static final String serverPath = "http://localhost:" + HttpTaskServer.PORT;
+    protected static TaskManager manager;
+    protected static HttpTaskServer server;
+
+    @BeforeAll
+    static void start() throws IOException {
+        manager = Managers.getDefault();
+        server = new HttpTaskServer(manager);
+        server.start();
+    }
+
+    @AfterAll
+    static void shutdown() {
+        server.stop();
+    }
+
+    @Test
+    @DisplayName("метрики запросов и операций менеджера отдаются в формате Prometheus")
+    public void givenRequests_whenGetMetrics_gotRouteAndManagerMetrics() throws IOException, InterruptedException {
+        Request.get(serverPath + "/tasks");
+        Request.get(serverPath + "/tasks/unknown/path");
+        Request.get(serverPath + "/tasks/100500");
+        Request.post(serverPath + "/boards/metrics/tasks", new Task("task", "desc", null, null));
+        Request.get(serverPath + "/boards/metrics/tasks/100500");
+        manager.removeTasks();
+
+        HttpResponse<String> resp = Request.get(serverPath + "/metrics");
+
+        assertEquals(200, resp.statusCode());
+        assertEquals(MetricsRegistry.CONTENT_TYPE, resp.headers().firstValue("Content-Type").orElseThrow());
+        assertTrue(resp.body().contains("http_request_duration_seconds_count{route=\"/tasks\",method=\"GET\"}"));
+        assertTrue(resp.body().contains("http_responses_total{route=\"/tasks\",method=\"GET\",code=\"200\"}"));
+        assertTrue(resp.body().contains("http_responses_total{route=\"/tasks\",method=\"GET\",code=\"400\"}"));
+        assertTrue(resp.body().contains("http_responses_total{route=\"/tasks/{id}\",method=\"GET\",code=\"404\"}"));
+        assertTrue(resp.body().contains(
+                "http_responses_total{route=\"/boards/{board}/tasks\",method=\"POST\",code=\"201\"}"));
+        assertTrue(resp.body().contains(
+                "http_responses_total{route=\"/boards/{board}/tasks/{id}\",method=\"GET\",code=\"404\"}"));
+        assertFalse(resp.body().contains("100500"));
+        assertTrue(resp.body().contains(
+                "taskmanager_operation_duration_seconds_count{operation=\"remove\",type=\"task\"}"));
+        assertTrue(resp.body().contains("# TYPE http_connections_total counter"));
+    }
+}
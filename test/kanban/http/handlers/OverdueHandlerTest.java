@@ -0,0 +1,78 @@
+package kanban.http.handlers;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import kanban.HttpTaskServer;
+import kanban.managers.Managers;
+import kanban.managers.TaskManager;
+import kanban.tasks.Task;
+import kanban.util.Tasks;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OverdueHandlerTest {
+
+    protected static final Gson GSON = HttpTaskServer.getGson();
+    protected static final String resourcePath = "http://localhost:" + HttpTaskServer.PORT + "/overdue";
+    protected static TaskManager manager;
+    protected static HttpTaskServer server;
+
+    @BeforeAll
+    static void start() throws IOException {
+        manager = Managers.getDefault();
+        server = new HttpTaskServer(manager);
+        server.start();
+    }
+
+    @AfterAll
+    static void shutdown() {
+        server.stop();
+    }
+
+    @AfterEach
+    void clean() {
+        manager.removeTasks();
+        manager.removeEpics();
+    }
+
+    @Test
+    @DisplayName("просроченные задачи отдаются страницами, next указывает на следующую")
+    public void givenOverdueTasks_whenGetPages_gotAllTasksInOrder() throws IOException, InterruptedException {
+        Task task1 = createAndSaveTask("task1;desc1;NEW;2024-01-01 10:00:00;60");
+        Task task2 = createAndSaveTask("task2;desc2;NEW;2024-01-01 09:00:00;30");
+        createAndSaveTask("task3;desc3;NEW;2024-01-01 12:00:00;60");
+
+        HttpResponse<String> resp = Request.get(resourcePath + "?now=2024-01-01T12:00:00&limit=1");
+        assertEquals(200, resp.statusCode());
+        JsonObject page = GSON.fromJson(resp.body(), JsonObject.class);
+        assertEquals(task2.getId(), page.getAsJsonArray("tasks").get(0).getAsJsonObject().get("id").getAsInt());
+        JsonObject next = page.getAsJsonObject("next");
+        assertEquals("2024-01-01T09:30:00", next.get("afterEndTime").getAsString());
+
+        resp = Request.get(resourcePath + "?now=2024-01-01T12:00:00&limit=1&afterEndTime="
+                + next.get("afterEndTime").getAsString() + "&afterId=" + next.get("afterId").getAsInt());
+        page = GSON.fromJson(resp.body(), JsonObject.class);
+        assertEquals(task1.getId(), page.getAsJsonArray("tasks").get(0).getAsJsonObject().get("id").getAsInt());
+
+        resp = Request.get(resourcePath + "?now=2024-01-01T12:00:00&limit=1&afterEndTime=2024-01-01T11:00:00&afterId="
+                + task1.getId());
+        assertEquals("{\"tasks\":[]}", resp.body());
+    }
+
+    @Test
+    @DisplayName("неверные параметры - 400")
+    public void givenBadParameters_whenGetOverdue_gotBadRequest() throws IOException, InterruptedException {
+        assertEquals(400, Request.get(resourcePath + "?now=yesterday").statusCode());
+        assertEquals(400, Request.get(resourcePath + "?limit=-1").statusCode());
+    }
+
+    protected Task createAndSaveTask(String formattedTask) {
+        Task task = Tasks.createTask(formattedTask);
+        manager.saveTask(task);
+        return task;
+    }
+}
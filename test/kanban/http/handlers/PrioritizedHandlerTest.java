@@ -12,6 +12,7 @@ import org.junit.jupiter.api.*;
 
 import java.io.IOException;
 import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -52,6 +53,63 @@ public class PrioritizedHandlerTest {
         assertEquals(expectedBody, actualBody);
     }
 
+    @Test
+    @DisplayName("находим ближайшее свободное время")
+    public void givenTasksSaved_whenFindFreeSlot_gotIt() throws IOException, InterruptedException {
+        createTestSuite();
+        HttpResponse<String> resp = Request.get(resourcePath + "/free-slot?duration=60&notBefore=2024-01-01T01:00:00");
+
+        assertEquals(200, resp.statusCode());
+        assertEquals("{\"startTime\":\"2024-01-01T02:00:00\",\"endTime\":\"2024-01-01T03:00:00\"}", resp.body());
+    }
+
+    @Test
+    @DisplayName("если свободного времени нет, то 404, а без параметров - 400")
+    public void givenNoSlot_whenFindFreeSlot_got404() throws IOException, InterruptedException {
+        createTestSuite();
+
+        HttpResponse<String> resp = Request.get(resourcePath
+                + "/free-slot?duration=60&notBefore=2024-01-01T01:00:00&notAfter=2024-01-01T02:30:00");
+        assertEquals(404, resp.statusCode());
+
+        resp = Request.get(resourcePath + "/free-slot?duration=60");
+        assertEquals(400, resp.statusCode());
+    }
+
+    @Test
+    @DisplayName("расставляем задачи без времени начала")
+    public void givenUnscheduledTask_whenSchedule_gotStartTime() throws IOException, InterruptedException {
+        createTestSuite();
+        Task task = createAndSaveTask("task3;desc;NEW;null;60");
+
+        HttpResponse<String> resp = Request.post(resourcePath + "/schedule?notBefore=2024-01-01T01:00:00", null);
+
+        assertEquals(200, resp.statusCode());
+        Task scheduled = manager.getTaskById(task.getId()).orElseThrow();
+        assertEquals(LocalDateTime.of(2024, 1, 1, 2, 0), scheduled.getStartTime());
+        assertEquals(GSON.toJson(List.of(scheduled)), resp.body());
+    }
+
+    @Test
+    @DisplayName("с параметром by задачи расставляются в заданном порядке, неизвестный порядок - 400")
+    public void givenUnscheduledTasks_whenScheduleByDuration_gotShorterFirst() throws IOException,
+            InterruptedException {
+        Task longTask = createAndSaveTask("long;desc;NEW;null;120");
+        Task shortTask = createAndSaveTask("short;desc;NEW;null;30");
+
+        HttpResponse<String> resp = Request.post(resourcePath + "/schedule?notBefore=2024-01-01T00:00:00&by=duration",
+                null);
+
+        assertEquals(200, resp.statusCode());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0),
+                manager.getTaskById(shortTask.getId()).orElseThrow().getStartTime());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 30),
+                manager.getTaskById(longTask.getId()).orElseThrow().getStartTime());
+
+        resp = Request.post(resourcePath + "/schedule?notBefore=2024-01-01T00:00:00&by=unknown", null);
+        assertEquals(400, resp.statusCode());
+    }
+
     private List<Task> getAllTasks() {
         return manager.getPrioritizedTasks();
     }
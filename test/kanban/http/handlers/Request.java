@@ -8,6 +8,7 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.Map;
 
 class Request {
 
@@ -20,6 +21,28 @@ class Request {
         return CLIENT.send(request, HANDLER);
     }
 
+    public static HttpResponse<String> get(String uri, Map<String, String> headers)
+            throws IOException, InterruptedException {
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(uri))
+                .GET()
+                .version(HttpClient.Version.HTTP_1_1);
+        headers.forEach(builder::header);
+        return CLIENT.send(builder.build(), HANDLER);
+    }
+
+    public static HttpResponse<byte[]> getBytes(String uri, Map<String, String> headers)
+            throws IOException, InterruptedException {
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(uri))
+                .GET()
+                .version(HttpClient.Version.HTTP_1_1);
+        headers.forEach(builder::header);
+        return CLIENT.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
     public static HttpResponse<String> post(String uri, Object object) throws IOException, InterruptedException {
         HttpRequest request = postRequest(uri, object);
         return CLIENT.send(request, HANDLER);
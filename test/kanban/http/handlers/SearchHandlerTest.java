@@ -0,0 +1,80 @@
+package kanban.http.handlers;
+
+import com.google.gson.Gson;
+import kanban.HttpTaskServer;
+import kanban.managers.Managers;
+import kanban.managers.TaskManager;
+import kanban.tasks.Task;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SearchHandlerTest {
+
+    protected static final Gson GSON = HttpTaskServer.getGson();
+    protected static final String resourcePath = "http://localhost:" + HttpTaskServer.PORT + "/search";
+    protected static TaskManager manager;
+    protected static HttpTaskServer server;
+
+    @BeforeAll
+    static void start() throws IOException {
+        manager = Managers.getDefault();
+        server = new HttpTaskServer(manager);
+        server.start();
+    }
+
+    @AfterAll
+    static void shutdown() {
+        server.stop();
+    }
+
+    @AfterEach
+    void clean() {
+        manager.removeTasks();
+        manager.removeEpics();
+    }
+
+    @Test
+    @DisplayName("находим задачи по запросу")
+    public void givenTasksSaved_whenSearch_gotIt() throws IOException, InterruptedException {
+        Task task1 = createAndSaveTask("проверить почту", "входящие");
+        createAndSaveTask("сварить кофе", "на кухне");
+        Task task3 = createAndSaveTask("разобрать почту", "спам");
+
+        HttpResponse<String> resp = Request.get(resourcePath + "?q=%D0%BF%D0%BE%D1%87%D1%82%D1%83");
+
+        assertEquals(200, resp.statusCode());
+        assertEquals(GSON.toJson(List.of(task1, task3)), resp.body());
+    }
+
+    @Test
+    @DisplayName("получаем нужную страницу результатов")
+    public void givenTasksSaved_whenSearchWithPaging_gotPage() throws IOException, InterruptedException {
+        createAndSaveTask("task one", "desc");
+        Task task2 = createAndSaveTask("task two", "desc");
+        createAndSaveTask("task three", "desc");
+
+        HttpResponse<String> resp = Request.get(resourcePath + "?q=task&offset=1&limit=1");
+
+        assertEquals(200, resp.statusCode());
+        assertEquals(GSON.toJson(List.of(task2)), resp.body());
+    }
+
+    @Test
+    @DisplayName("если запрос не задан, то 400")
+    public void givenNoQuery_whenSearch_got400() throws IOException, InterruptedException {
+        HttpResponse<String> resp = Request.get(resourcePath);
+
+        assertEquals(400, resp.statusCode());
+    }
+
+    private Task createAndSaveTask(String name, String desc) {
+        Task task = new Task(name, desc, null, null);
+        manager.saveTask(task);
+        return task;
+    }
+}
@@ -0,0 +1,91 @@
+package kanban.http.handlers;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import kanban.HttpTaskServer;
+import kanban.managers.Managers;
+import kanban.managers.TaskManager;
+import kanban.tasks.Task;
+import kanban.util.Tasks;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatsHandlerTest {
+
+    protected static final Gson GSON = HttpTaskServer.getGson();
+    protected static final String resourcePath = "http://localhost:" + HttpTaskServer.PORT + "/stats";
+    protected static TaskManager manager;
+    protected static HttpTaskServer server;
+
+    @BeforeAll
+    static void start() throws IOException {
+        manager = Managers.getDefault();
+        server = new HttpTaskServer(manager);
+        server.start();
+    }
+
+    @AfterAll
+    static void shutdown() {
+        server.stop();
+    }
+
+    @AfterEach
+    void clean() {
+        manager.removeTasks();
+        manager.removeEpics();
+    }
+
+    @Test
+    @DisplayName("загрузка отдается по неделям с занятыми и свободными минутами")
+    public void givenTasks_whenGetWeeklyUtilization_gotBuckets() throws IOException, InterruptedException {
+        createAndSaveTask("task1;desc1;NEW;2024-01-01 10:00:00;60");
+        createAndSaveTask("task2;desc2;NEW;2024-01-08 10:00:00;30");
+
+        HttpResponse<String> resp = Request.get(resourcePath + "/utilization?from=2024-01-01&to=2024-01-14&bucket=week");
+
+        assertEquals(200, resp.statusCode());
+        JsonArray buckets = GSON.fromJson(resp.body(), JsonArray.class);
+        assertEquals(2, buckets.size());
+        JsonObject second = buckets.get(1).getAsJsonObject();
+        assertEquals("2024-01-08T00:00:00", second.get("start").getAsString());
+        assertEquals(30, second.get("bookedMinutes").getAsLong());
+        assertEquals(7 * 24 * 60 - 30, second.get("freeMinutes").getAsLong());
+    }
+
+    @Test
+    @DisplayName("сводная статистика отдается по счетчикам")
+    public void givenTasks_whenGetStats_gotCounters() throws IOException, InterruptedException {
+        createAndSaveTask("task1;desc1;NEW;2024-01-01 10:00:00;60");
+        createAndSaveTask("task2;desc2;DONE;null;30");
+
+        HttpResponse<String> resp = Request.get(resourcePath);
+
+        assertEquals(200, resp.statusCode());
+        JsonObject stats = GSON.fromJson(resp.body(), JsonObject.class);
+        assertEquals(2, stats.get("total").getAsLong());
+        assertEquals(2, stats.getAsJsonObject("byType").get("TASK").getAsLong());
+        assertEquals(1, stats.getAsJsonObject("byStatus").get("DONE").getAsLong());
+        assertEquals(45.0, stats.get("averageDurationMinutes").getAsDouble());
+    }
+
+    @Test
+    @DisplayName("неверные параметры - 400")
+    public void givenBadParameters_whenGetUtilization_gotBadRequest() throws IOException, InterruptedException {
+        assertEquals(400, Request.get(resourcePath + "/utilization?from=2024-01-01").statusCode());
+        assertEquals(400, Request.get(resourcePath + "/utilization?from=2024-01-02&to=2024-01-01").statusCode());
+        assertEquals(400, Request.get(resourcePath + "/utilization?from=2024-01-01&to=2024-01-02&bucket=month")
+                .statusCode());
+        assertEquals(400, Request.get(resourcePath + "/utilization?from=0001-01-01&to=2999-01-01").statusCode());
+    }
+
+    protected Task createAndSaveTask(String formattedTask) {
+        Task task = Tasks.createTask(formattedTask);
+        manager.saveTask(task);
+        return task;
+    }
+}
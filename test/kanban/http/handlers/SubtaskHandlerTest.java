@@ -26,12 +26,12 @@ class SubtaskHandlerTest extends AbstractHandlerTest<Subtask> {
     }
 
     @Override
-    public void updateTask(Subtask task) {
-        task.setName("new sub");
-        task.setDescription("new desc");
-        task.setStatus(DONE);
-        task.setDuration(Duration.ofMinutes(130));
-        task.setStartTime(LocalDateTime.parse("2024-01-01T00:01:00"));
+    public Subtask updateTask(Subtask task) {
+        return task.withName("new sub")
+                .withDescription("new desc")
+                .withStatus(DONE)
+                .withDuration(Duration.ofMinutes(130))
+                .withStartTime(LocalDateTime.parse("2024-01-01T00:01:00"));
     }
 
     @Override
@@ -60,9 +60,4 @@ class SubtaskHandlerTest extends AbstractHandlerTest<Subtask> {
         assertEquals(expectedSub.getStartTime(),   actualSub.getStartTime());
         assertEquals(expectedSub.getEpicId(),      actualSub.getEpicId());
     }
-
-    @Override
-    public Subtask copyTask(Subtask sub) {
-        return Tasks.copy(sub);
-    }
 }
@@ -2,14 +2,22 @@ package kanban.http.handlers;
 
 import kanban.tasks.Task;
 import kanban.util.Tasks;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
 import static kanban.tasks.TaskStatus.DONE;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class TaskHandlerTest extends AbstractHandlerTest<Task> {
 
@@ -24,12 +32,12 @@ class TaskHandlerTest extends AbstractHandlerTest<Task> {
     }
 
     @Override
-    public void updateTask(Task task) {
-        task.setName("new name");
-        task.setDescription("new desc");
-        task.setStatus(DONE);
-        task.setDuration(Duration.ofMinutes(130));
-        task.setStartTime(LocalDateTime.parse("2024-01-01T00:01:00"));
+    public Task updateTask(Task task) {
+        return task.withName("new name")
+                .withDescription("new desc")
+                .withStatus(DONE)
+                .withDuration(Duration.ofMinutes(130))
+                .withStartTime(LocalDateTime.parse("2024-01-01T00:01:00"));
     }
 
     @Override
@@ -58,9 +66,100 @@ class TaskHandlerTest extends AbstractHandlerTest<Task> {
         assertEquals(expectedTask.getStartTime(),   actualTask.getStartTime());
     }
 
-    @Override
-    public Task copyTask(Task task) {
-        return Tasks.copy(task);
+    @Test
+    @DisplayName("получаем задачи с нужным статусом")
+    public void givenTasksSaved_whenGetTasksByStatus_gotIt() throws IOException, InterruptedException {
+        createAndSaveTask("task1;desc1;NEW;2024-01-01 00:00:00;120");
+        Task doneTask = createAndSaveTask("task2;desc2;DONE;2024-01-02 00:00:00;120");
+
+        HttpResponse<String> resp = Request.get(getResourcePath() + "?status=DONE");
+
+        assertEquals(200, resp.statusCode());
+        assertEquals(GSON.toJson(List.of(doneTask)), resp.body());
     }
-}
 
+    @Test
+    @DisplayName("если статус неизвестен, то 400")
+    public void givenUnknownStatus_whenGetTasksByStatus_got400() throws IOException, InterruptedException {
+        HttpResponse<String> resp = Request.get(getResourcePath() + "?status=UNKNOWN");
+
+        assertEquals(400, resp.statusCode());
+    }
+
+    @Test
+    @DisplayName("большой список задач сжимается, если клиент принимает gzip")
+    public void givenManyTasks_whenGetWithGzip_gotCompressedBody() throws IOException, InterruptedException {
+        createManyTasks();
+
+        HttpResponse<byte[]> resp = Request.getBytes(getResourcePath(), Map.of("Accept-Encoding", "gzip"));
+
+        assertEquals(200, resp.statusCode());
+        assertEquals("gzip", resp.headers().firstValue("Content-Encoding").orElse(null));
+        assertEquals(GSON.toJson(getAllTasks()), gunzip(resp.body()));
+    }
+
+    @Test
+    @DisplayName("отфильтрованный список тоже сжимается")
+    public void givenManyTasks_whenGetByStatusWithGzip_gotCompressedBody() throws IOException, InterruptedException {
+        createManyTasks();
+
+        HttpResponse<byte[]> resp = Request.getBytes(getResourcePath() + "?status=NEW",
+                Map.of("Accept-Encoding", "gzip"));
+
+        assertEquals(200, resp.statusCode());
+        assertEquals("gzip", resp.headers().firstValue("Content-Encoding").orElse(null));
+        assertEquals(String.valueOf(resp.body().length), resp.headers().firstValue("Content-Length").orElse(null));
+        assertEquals(GSON.toJson(getAllTasks()), gunzip(resp.body()));
+    }
+
+    @Test
+    @DisplayName("без Accept-Encoding и для маленьких ответов сжатия нет")
+    public void givenNoGzipOrSmallBody_whenGet_gotPlainBody() throws IOException, InterruptedException {
+        createManyTasks();
+
+        HttpResponse<byte[]> resp = Request.getBytes(getResourcePath(), Map.of());
+        assertTrue(resp.headers().firstValue("Content-Encoding").isEmpty());
+        assertEquals(GSON.toJson(getAllTasks()), new String(resp.body(), StandardCharsets.UTF_8));
+
+        Task task = getAllTasks().getFirst();
+        HttpResponse<byte[]> smallResp = Request.getBytes(getResourcePath() + "/" + task.getId(),
+                Map.of("Accept-Encoding", "gzip"));
+        assertTrue(smallResp.headers().firstValue("Content-Encoding").isEmpty());
+    }
+
+    @Test
+    @DisplayName("у сжатого и несжатого ответа разные ETag, а 304 тоже несет Vary")
+    public void givenManyTasks_whenGetWithAndWithoutGzip_gotDifferentETags() throws IOException,
+            InterruptedException {
+        createManyTasks();
+
+        HttpResponse<byte[]> gzipResp = Request.getBytes(getResourcePath(), Map.of("Accept-Encoding", "gzip"));
+        HttpResponse<byte[]> plainResp = Request.getBytes(getResourcePath(), Map.of());
+        String gzipTag = gzipResp.headers().firstValue("ETag").orElseThrow();
+        String plainTag = plainResp.headers().firstValue("ETag").orElseThrow();
+        assertNotEquals(gzipTag, plainTag);
+        assertEquals("Accept-Encoding", plainResp.headers().firstValue("Vary").orElse(null));
+
+        HttpResponse<byte[]> notModified = Request.getBytes(getResourcePath(),
+                Map.of("Accept-Encoding", "gzip", "If-None-Match", gzipTag));
+        assertEquals(304, notModified.statusCode());
+        assertEquals("Accept-Encoding", notModified.headers().firstValue("Vary").orElse(null));
+
+        HttpResponse<byte[]> changedEncoding = Request.getBytes(getResourcePath(),
+                Map.of("If-None-Match", gzipTag));
+        assertEquals(200, changedEncoding.statusCode());
+        assertEquals(GSON.toJson(getAllTasks()), new String(changedEncoding.body(), StandardCharsets.UTF_8));
+    }
+
+    private void createManyTasks() {
+        for (int i = 0; i < 30; i++) {
+            manager.saveTask(new Task("task " + i, "long description of task " + i, null, null));
+        }
+    }
+
+    private String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
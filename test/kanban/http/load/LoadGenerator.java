@@ -0,0 +1,385 @@
+package kanban.http.load;
+
+import com.google.gson.Gson;
+import kanban.HttpTaskServer;
+import kanban.managers.Managers;
+import kanban.metrics.LatencyHistogram;
+import kanban.tasks.Epic;
+import kanban.tasks.Subtask;
+import kanban.tasks.Task;
+import kanban.tasks.TaskStatus;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Нагрузочный прогон HttpTaskServer по открытой модели: запросы уходят по расписанию с заданной частотой
+// независимо от того, успел ли сервер ответить на предыдущие. Задержка считается от запланированного момента
+// отправки, а не от фактического, поэтому паузы сервера не прячутся (поправка на coordinated omission).
+//
+// Запуск без --uri поднимает сервер в этом же процессе. Внешний сервер должен быть пустым и отдельным:
+// DELETE идут по идентификаторам, которые генератор считает своими.
+//
+// В конце печатается, сколько соединений открыл сервер и сколько запросов пришлось на одно соединение.
+//
+// Параметры: --uri=http://localhost:8080 --rate=1000 --duration=30 --clients=64
+//            --mix=GET:70,POST:20,DELETE:10 --epics=10 --boards=0 --max-p99-ms=50
+public class LoadGenerator {
+
+    private static final Gson GSON = HttpTaskServer.getGson();
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999, 1.0};
+    private static final Set<String> CONNECTION_COUNTERS = Set.of("http_requests_total", "http_connections_total");
+
+    private final URI baseUri;
+    private final int rate;
+    private final Duration duration;
+    private final int clients;
+    private final Map<String, Integer> mix;
+    private final int totalWeight;
+    private final int epicCount;
+
+    private final HttpClient client;
+    private final List<Board> boards = new ArrayList<>();
+
+    private final Map<Operation, LatencyHistogram> responseTimes = new EnumMap<>(Operation.class);
+    private final LatencyHistogram responseTime = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+    private final AtomicLongArray statusCodes = new AtomicLongArray(600);
+    private final AtomicInteger failures = new AtomicInteger();
+
+    // boardCount = 0 - запросы идут в общий менеджер, иначе распределяются по доскам /boards/load-{i}
+    public LoadGenerator(URI baseUri, int rate, Duration duration, int clients, Map<String, Integer> mix,
+                         int epicCount, int boardCount) {
+        this.baseUri = baseUri;
+        this.rate = rate;
+        this.duration = duration;
+        this.clients = clients;
+        this.mix = mix;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.epicCount = epicCount;
+        if (boardCount == 0) {
+            boards.add(new Board(""));
+        }
+        for (int i = 0; i < boardCount; i++) {
+            boards.add(new Board("/boards/load-" + i));
+        }
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        for (Operation operation : Operation.values()) {
+            responseTimes.put(operation, new LatencyHistogram());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Map<String, String> options = parseOptions(args);
+
+        HttpTaskServer server = null;
+        URI uri;
+        if (options.containsKey("uri")) {
+            uri = URI.create(options.get("uri"));
+        } else {
+            server = new HttpTaskServer(Managers.getDefault());
+            server.start();
+            uri = URI.create("http://localhost:" + HttpTaskServer.PORT);
+        }
+
+        LoadGenerator generator = new LoadGenerator(uri,
+                Integer.parseInt(options.getOrDefault("rate", "1000")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30"))),
+                Integer.parseInt(options.getOrDefault("clients", "64")),
+                parseMix(options.getOrDefault("mix", "GET:70,POST:20,DELETE:10")),
+                Integer.parseInt(options.getOrDefault("epics", "10")),
+                Integer.parseInt(options.getOrDefault("boards", "0")));
+
+        try {
+            generator.seed();
+            Map<String, Long> before = generator.scrapeConnectionCounters();
+            long elapsed = generator.run();
+            Map<String, Long> after = generator.scrapeConnectionCounters();
+            generator.printReport(elapsed);
+            printConnectionReuse(before, after);
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+        }
+
+        String maxP99 = options.get("max-p99-ms");
+        long p99 = generator.getResponseTime().valueAtQuantile(0.99);
+        if (maxP99 != null && p99 > Long.parseLong(maxP99) * 1_000_000) {
+            System.out.println("p99 превысил порог " + maxP99 + " мс");
+            System.exit(1);
+        }
+    }
+
+    // Эпики нужны, чтобы было куда добавлять подзадачи
+    public void seed() throws IOException, InterruptedException {
+        for (Board board : boards) {
+            for (int i = 0; i < epicCount; i++) {
+                send(post(board.prefix + "/epics", new Epic("load epic " + i, "created by load generator")));
+            }
+
+            HttpResponse<String> response = send(get(board.prefix + "/epics"));
+            Epic[] epics = GSON.fromJson(response.body(), Epic[].class);
+            Arrays.stream(epics).map(Epic::getId).forEach(board.epicIds::add);
+            board.firstCreatedId = board.epicIds.stream().max(Integer::compareTo).orElse(0) + 1;
+        }
+    }
+
+    // Каждый клиент - виртуальный поток, который берет каждый clients-й слот расписания и работает со своей доской.
+    // Возвращает фактическую длительность прогона в наносекундах
+    public long run() throws InterruptedException {
+        long intervalNanos = 1_000_000_000L / rate;
+        long slots = duration.toSeconds() * rate;
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                int clientIndex = i;
+                Board board = boards.get(i % boards.size());
+                executor.submit(() -> {
+                    for (long slot = clientIndex; slot < slots; slot += clients) {
+                        long intended = start + slot * intervalNanos;
+                        long delay = intended - System.nanoTime();
+                        if (delay > 0) {
+                            LockSupport.parkNanos(delay);
+                        }
+                        execute(nextOperation(), board, intended);
+                    }
+                });
+            }
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    public LatencyHistogram getResponseTime() {
+        return responseTime;
+    }
+
+    // Клиент не показывает, какое соединение он использовал, поэтому переиспользование считаем по счетчикам сервера
+    public Map<String, Long> scrapeConnectionCounters() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(get("/metrics"));
+        Map<String, Long> counters = new HashMap<>();
+        for (String line : response.body().split("\n")) {
+            String[] chunks = line.split(" ");
+            if (chunks.length == 2 && CONNECTION_COUNTERS.contains(chunks[0])) {
+                counters.put(chunks[0], Long.parseLong(chunks[1]));
+            }
+        }
+        return counters;
+    }
+
+    private static void printConnectionReuse(Map<String, Long> before, Map<String, Long> after) {
+        long requests = after.getOrDefault("http_requests_total", 0L) - before.getOrDefault("http_requests_total", 0L);
+        long connections = after.getOrDefault("http_connections_total", 0L)
+                - before.getOrDefault("http_connections_total", 0L);
+        if (requests == 0) {
+            return;
+        }
+
+        System.out.printf("Соединений открыто %d, запросов на соединение %.1f, переиспользование %.1f%%%n",
+                connections, (double) requests / Math.max(connections, 1), 100.0 * (requests - connections) / requests);
+    }
+
+    private void execute(Operation operation, Board board, long intended) {
+        long sent = System.nanoTime();
+        try {
+            HttpResponse<String> response = send(operation.request(board));
+            statusCodes.incrementAndGet(Math.min(response.statusCode(), statusCodes.length() - 1));
+            if (operation.method.equals("POST") && response.statusCode() == 201) {
+                board.created.incrementAndGet();
+            }
+        } catch (IOException | InterruptedException e) {
+            failures.incrementAndGet();
+        }
+
+        long end = System.nanoTime();
+        responseTimes.get(operation).record(end - intended);
+        responseTime.record(end - intended);
+        serviceTime.record(end - sent);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .POST(HttpRequest.BodyPublishers.ofString(GSON.toJson(body)))
+                .header("Content-Type", "application/json; charset=utf-8")
+                .build();
+    }
+
+    private HttpRequest delete(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).DELETE().build();
+    }
+
+    private Operation nextOperation() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(totalWeight);
+        String method = null;
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                method = entry.getKey();
+                break;
+            }
+        }
+
+        List<Operation> candidates = Operation.byMethod(method);
+        return candidates.get(random.nextInt(candidates.size()));
+    }
+
+    private void printReport(long elapsedNanos) {
+        long requests = 0;
+
+        System.out.printf("%nОперация              запросов      p50 мс      p99 мс     p999 мс      max мс%n");
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = responseTimes.get(operation);
+            long count = histogram.getCount();
+            if (count == 0) {
+                continue;
+            }
+            requests += count;
+            System.out.printf("%-20s %9d%s%n", operation.method + " " + operation.path, count, formatQuantiles(histogram));
+        }
+
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("%nЦелевая частота %d rps, достигнуто %.1f rps за %.1f с%n", rate, requests / seconds, seconds);
+        System.out.printf("Время ответа (от плана) %s%n", formatQuantiles(responseTime));
+        System.out.printf("Время обслуживания     %s%n", formatQuantiles(serviceTime));
+
+        StringJoiner codes = new StringJoiner(", ");
+        for (int code = 0; code < statusCodes.length(); code++) {
+            if (statusCodes.get(code) > 0) {
+                codes.add(code + ": " + statusCodes.get(code));
+            }
+        }
+        System.out.println("Коды ответов: " + codes + (failures.get() > 0 ? ", ошибок соединения: " + failures : ""));
+    }
+
+    private static String formatQuantiles(LatencyHistogram histogram) {
+        StringBuilder out = new StringBuilder();
+        for (double quantile : QUANTILES) {
+            out.append(String.format(" %11.3f", histogram.valueAtQuantile(quantile) / 1_000_000.0));
+        }
+        return out.toString();
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Параметры задаются как --имя=значение: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    // GET:70,POST:20,DELETE:10 - веса методов, внутри метода маршрут выбирается равновероятно
+    static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] chunks = part.trim().split(":");
+            String method = chunks[0].toUpperCase(Locale.ROOT);
+            if (Operation.byMethod(method).isEmpty()) {
+                throw new IllegalArgumentException("Неизвестный метод в смеси запросов: " + method);
+            }
+            int weight = Integer.parseInt(chunks[1]);
+            if (weight > 0) {
+                weights.put(method, weight);
+            }
+        }
+
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Смесь запросов пуста: " + mix);
+        }
+        return weights;
+    }
+
+    enum Operation {
+        GET_TASKS("GET", "/tasks"),
+        GET_SUBTASKS("GET", "/subtasks"),
+        GET_EPICS("GET", "/epics"),
+        GET_HISTORY("GET", "/history"),
+        GET_PRIORITIZED("GET", "/prioritized"),
+        POST_TASK("POST", "/tasks"),
+        POST_SUBTASK("POST", "/subtasks"),
+        POST_EPIC("POST", "/epics"),
+        DELETE_TASK("DELETE", "/tasks"),
+        DELETE_SUBTASK("DELETE", "/subtasks");
+
+        private final String method;
+        private final String path;
+
+        Operation(String method, String path) {
+            this.method = method;
+            this.path = path;
+        }
+
+        static List<Operation> byMethod(String method) {
+            return Arrays.stream(values())
+                    .filter(operation -> operation.method.equals(method))
+                    .toList();
+        }
+
+        HttpRequest request(Board board) {
+            String name = "load " + ThreadLocalRandom.current().nextInt(1_000_000);
+            String uri = board.prefix + path;
+            LoadGenerator generator = board.generator();
+            return switch (this) {
+                case GET_TASKS, GET_SUBTASKS, GET_EPICS, GET_HISTORY, GET_PRIORITIZED -> generator.get(uri);
+                case POST_TASK -> generator.post(uri, new Task(name, "desc", null, null));
+                case POST_SUBTASK -> generator.post(uri,
+                        new Subtask(null, name, "desc", TaskStatus.NEW, board.randomEpicId(), null, null));
+                case POST_EPIC -> generator.post(uri, new Epic(name, "desc"));
+                case DELETE_TASK, DELETE_SUBTASK -> generator.delete(uri + "/" + board.randomCreatedId());
+            };
+        }
+    }
+
+    private class Board {
+        private final String prefix;
+        private final List<Integer> epicIds = new ArrayList<>();
+        private final AtomicInteger created = new AtomicInteger();
+        private int firstCreatedId;
+
+        private Board(String prefix) {
+            this.prefix = prefix;
+        }
+
+        private LoadGenerator generator() {
+            return LoadGenerator.this;
+        }
+
+        // Идентификаторы выдаются сервером подряд, поэтому все созданное генератором лежит сразу за начальными эпиками
+        private int randomCreatedId() {
+            int count = Math.max(created.get(), 1);
+            return firstCreatedId + ThreadLocalRandom.current().nextInt(count);
+        }
+
+        private int randomEpicId() {
+            return epicIds.get(ThreadLocalRandom.current().nextInt(epicIds.size()));
+        }
+    }
+}
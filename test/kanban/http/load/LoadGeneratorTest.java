@@ -0,0 +1,24 @@
+package kanban.http.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadGeneratorTest {
+
+    @Test
+    @DisplayName("смесь запросов разбирается в веса методов, нулевые веса отбрасываются")
+    public void givenMix_whenParse_gotWeights() {
+        assertEquals(Map.of("GET", 70, "POST", 30), LoadGenerator.parseMix("get:70, POST:30, DELETE:0"));
+    }
+
+    @Test
+    @DisplayName("неизвестный метод или пустая смесь - ошибка")
+    public void givenBadMix_whenParse_gotException() {
+        assertThrows(IllegalArgumentException.class, () -> LoadGenerator.parseMix("PUT:10"));
+        assertThrows(IllegalArgumentException.class, () -> LoadGenerator.parseMix("GET:0"));
+    }
+}
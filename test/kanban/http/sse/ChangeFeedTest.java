@@ -0,0 +1,64 @@
+package kanban.http.sse;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static kanban.lib.TestAssertions.assertEmpty;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    @Test
+    @DisplayName("события нумеруются подряд и возвращаются после заданного номера")
+    void givenEvents_whenGetEventsAfter_gotTail() {
+        ChangeFeed feed = new ChangeFeed(4);
+        feed.append("created", "1");
+        feed.append("updated", "2");
+        feed.append("deleted", "3");
+
+        List<ChangeFeed.FeedEvent> events = feed.eventsAfter(1);
+
+        assertEquals(3, feed.getLastId());
+        assertEquals(List.of(new ChangeFeed.FeedEvent(2, "updated", "2"),
+                new ChangeFeed.FeedEvent(3, "deleted", "3")), events);
+        assertEmpty(feed.eventsAfter(3));
+    }
+
+    @Test
+    @DisplayName("если нужные события вытеснены из буфера, то возвращается null")
+    void givenOverflownFeed_whenGetOldEvents_gotNull() {
+        ChangeFeed feed = new ChangeFeed(2);
+        for (int i = 1; i <= 5; i++) {
+            feed.append("created", String.valueOf(i));
+        }
+
+        assertNull(feed.eventsAfter(1));
+        assertEquals(List.of(new ChangeFeed.FeedEvent(4, "created", "4"),
+                new ChangeFeed.FeedEvent(5, "created", "5")), feed.eventsAfter(3));
+    }
+
+    @Test
+    @DisplayName("номер из будущего (до перезапуска сервера) считается устаревшим")
+    void givenIdAfterLast_whenGetEventsAfter_gotNull() {
+        ChangeFeed feed = new ChangeFeed(4);
+        feed.append("created", "1");
+
+        assertNull(feed.eventsAfter(5));
+        assertNull(feed.eventsAfter(-1));
+        assertEmpty(feed.eventsAfter(1));
+    }
+
+    @Test
+    @DisplayName("при добавлении события вызывается обработчик")
+    void givenOnAppend_whenAppend_gotCalled() {
+        ChangeFeed feed = new ChangeFeed(2);
+        int[] calls = {0};
+        feed.setOnAppend(() -> calls[0]++);
+
+        feed.append("created", "1");
+
+        assertEquals(1, calls[0]);
+    }
+}
@@ -0,0 +1,44 @@
+package kanban.http.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GzipEncodingTest {
+
+    @Test
+    @DisplayName("gzip принимается, если он указан в Accept-Encoding")
+    public void givenGzip_whenCheckAccepted_gotTrue() {
+        assertTrue(GzipEncoding.isAccepted("gzip"));
+        assertTrue(GzipEncoding.isAccepted("deflate, gzip;q=0.5"));
+        assertTrue(GzipEncoding.isAccepted("*"));
+    }
+
+    @Test
+    @DisplayName("gzip не принимается, если его нет или у него q=0")
+    public void givenNoGzip_whenCheckAccepted_gotFalse() {
+        assertFalse(GzipEncoding.isAccepted(null));
+        assertFalse(GzipEncoding.isAccepted("deflate, br"));
+        assertFalse(GzipEncoding.isAccepted("gzip;q=0"));
+        assertFalse(GzipEncoding.isAccepted("*, gzip;q=0"));
+    }
+
+    @Test
+    @DisplayName("сжатые данные распаковываются в исходные")
+    public void givenBody_whenCompress_gotGzip() throws IOException {
+        byte[] body = "задача ".repeat(500).getBytes(StandardCharsets.UTF_8);
+
+        byte[] compressed = GzipEncoding.compress(body);
+
+        assertTrue(compressed.length < body.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(body, in.readAllBytes());
+        }
+    }
+}
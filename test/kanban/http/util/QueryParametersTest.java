@@ -0,0 +1,45 @@
+package kanban.http.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryParametersTest {
+
+    @Test
+    @DisplayName("пустой запрос не содержит параметров")
+    public void givenNullQuery_whenParse_gotEmpty() {
+        QueryParameters params = QueryParameters.of(null);
+
+        assertTrue(params.isEmpty());
+        assertEquals(Optional.empty(), params.get("status"));
+    }
+
+    @Test
+    @DisplayName("status=DONE&page=2 разбирается на два параметра")
+    public void givenTwoParameters_whenParse_gotBoth() {
+        QueryParameters params = QueryParameters.of("status=DONE&page=2");
+
+        assertEquals(Optional.of("DONE"), params.get("status"));
+        assertEquals(Optional.of("2"), params.get("page"));
+    }
+
+    @Test
+    @DisplayName("значения параметров декодируются")
+    public void givenEncodedValue_whenParse_gotDecoded() {
+        QueryParameters params = QueryParameters.of("q=%D0%BA%D0%BE%D1%84%D0%B5+%D1%85%D0%B0%D0%B1%D1%80");
+
+        assertEquals(Optional.of("кофе хабр"), params.get("q"));
+    }
+
+    @Test
+    @DisplayName("при повторе параметра берется первое значение")
+    public void givenRepeatedParameter_whenParse_gotFirst() {
+        QueryParameters params = QueryParameters.of("status=NEW&status=DONE");
+
+        assertEquals(Optional.of("NEW"), params.get("status"));
+    }
+}
@@ -0,0 +1,93 @@
+package kanban.managers;
+
+import kanban.tasks.Epic;
+import kanban.tasks.Subtask;
+import kanban.tasks.Task;
+import kanban.util.Tasks;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static kanban.lib.TestAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncFileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
+
+    private Path taskFile;
+    private ExecutorService ioExecutor;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        taskFile = Files.createTempFile("tasks", ".csv");
+        ioExecutor = Executors.newSingleThreadExecutor();
+        manager = FileBackedTaskManager.create(taskFile, ioExecutor);
+    }
+
+    @AfterEach
+    public void stop() {
+        ioExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("после flush файл содержит все операции и загружается обратно")
+    public void testThatFlushedFileIsLoaded() throws IOException {
+        Task task = createAndSaveTask("task1;desc1;NEW;2024-01-01 01:02:03;123");
+        Epic epic = createAndSaveEpic("epic1;desc2");
+        Subtask sub = createAndSaveSubtask("sub1;desc3;DONE;" + epic.getId() + ";2024-01-02 01:02:03;60");
+        manager.removeTaskById(task.getId());
+
+        ((FileBackedTaskManager) manager).flush().join();
+        TaskManager loaded = FileBackedTaskManager.loadFromFile(taskFile);
+
+        assertEmpty(loaded.getTasks());
+        assertEpicEquals(getStoredEpic(epic), loaded.getEpicById(epic.getId()).orElseThrow());
+        assertSubtaskEquals(sub, loaded.getSubtaskById(sub.getId()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("после загрузки в фоне дописываются новые операции, а загруженные задачи не теряются")
+    public void testThatLoadedTasksAreKeptAfterNextWrite() throws IOException {
+        Task task = createAndSaveTask("task1;desc1;NEW;2024-01-01 01:02:03;123");
+        Epic epic = createAndSaveEpic("epic1;desc2");
+        ((FileBackedTaskManager) manager).flush().join();
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(taskFile, ioExecutor);
+        Task newTask = Tasks.createTask("task2;desc3;NEW;null;null");
+        loaded.saveTask(newTask);
+        loaded.flush().join();
+
+        TaskManager reloaded = FileBackedTaskManager.loadFromFile(taskFile);
+        assertEquals(List.of(task, newTask), reloaded.getTasks());
+        assertEquals(List.of(epic), reloaded.getEpics());
+    }
+
+    @Test
+    @DisplayName("операция не ждет записи в файл")
+    public void testThatSaveDoesNotWaitForDisk() throws InterruptedException {
+        CountDownLatch diskReleased = new CountDownLatch(1);
+        ioExecutor.execute(() -> {
+            try {
+                diskReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        createAndSaveTask("task1;desc1;NEW;null;null");
+        createAndSaveTask("task2;desc2;NEW;null;null");
+
+        assertEquals(2, manager.getTasks().size());
+        diskReleased.countDown();
+        ((FileBackedTaskManager) manager).flush().join();
+        assertTrue(((FileBackedTaskManager) manager).getLastSaveError().isEmpty());
+    }
+}
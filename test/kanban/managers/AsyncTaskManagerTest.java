@@ -0,0 +1,70 @@
+package kanban.managers;
+
+import kanban.exceptions.ManagerSaveException;
+import kanban.tasks.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncTaskManagerTest {
+
+    private AsyncTaskManager manager;
+
+    @BeforeEach
+    void setup() {
+        manager = new AsyncTaskManager(Managers.getDefault());
+    }
+
+    @AfterEach
+    void stop() {
+        manager.close();
+    }
+
+    @Test
+    @DisplayName("операции, отправленные подряд, выполняются по порядку")
+    public void givenPipelinedOperations_whenJoin_gotThemAppliedInOrder() {
+        Task task1 = new Task("task1", "desc1", null, null);
+        Task task2 = new Task("task2", "desc2", null, null);
+
+        CompletableFuture<Integer> id1 = manager.saveTask(task1);
+        CompletableFuture<Integer> id2 = manager.saveTask(task2);
+        CompletableFuture<Void> removed = manager.removeTaskById(1);
+        CompletableFuture<List<Task>> tasks = manager.getTasks();
+
+        assertEquals(1, id1.join());
+        assertEquals(2, id2.join());
+        removed.join();
+        assertEquals(List.of(task2), tasks.join());
+    }
+
+    @Test
+    @DisplayName("ошибка операции завершает ее будущее, следующие операции выполняются")
+    public void givenFailingOperation_whenJoin_gotExceptionAndNextOperationsApplied() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        manager.saveTask(new Task("task1", "desc1", start, Duration.ofHours(1)));
+        CompletableFuture<Integer> failed = manager.saveTask(new Task("task2", "desc2", start, Duration.ofHours(1)));
+        CompletableFuture<List<Task>> tasks = manager.getTasks();
+
+        CompletionException e = assertThrows(CompletionException.class, failed::join);
+        assertInstanceOf(ManagerSaveException.class, e.getCause());
+        assertEquals(1, tasks.join().size());
+    }
+
+    @Test
+    @DisplayName("синхронный вид работает с тем же менеджером")
+    public void givenAsyncSave_whenReadBlocking_gotSameTasks() {
+        int id = manager.saveTask(new Task("task1", "desc1", null, null)).join();
+
+        assertEquals("task1", manager.blocking().getTaskById(id).orElseThrow().getName());
+        assertEquals(1, manager.getHistory().join().size());
+    }
+}
@@ -0,0 +1,92 @@
+package kanban.managers;
+
+import kanban.tasks.Epic;
+import kanban.tasks.Subtask;
+import kanban.tasks.Task;
+import kanban.tasks.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineNotifierTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    private TaskManager manager;
+    private DeadlineNotifier notifier;
+    private final List<String> fired = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        manager = new InMemoryTaskManager();
+        notifier = new DeadlineNotifier(Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        notifier.addListener(deadline -> fired.add(deadline.getType() + " " + deadline.getTaskId()));
+        manager.addListener(notifier);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        notifier.close();
+    }
+
+    @Test
+    @DisplayName("Сообщается начало и окончание задачи, когда наступает их время")
+    public void givenScheduledTask_whenTimePasses_gotStartedAndOverdue() {
+        int task = manager.saveTask(new Task("task", "desc", NOW.plusHours(1), Duration.ofMinutes(30)));
+
+        notifier.advanceTo(NOW.plusMinutes(59));
+        assertEquals(List.of(), fired);
+
+        notifier.advanceTo(NOW.plusHours(1));
+        assertEquals(List.of("STARTED " + task), fired);
+
+        notifier.advanceTo(NOW.plusDays(1));
+        assertEquals(List.of("STARTED " + task, "OVERDUE " + task), fired);
+        assertEquals(0, notifier.size());
+    }
+
+    @Test
+    @DisplayName("Сроки переносятся при изменении задачи и снимаются, если она выполнена или удалена")
+    public void givenChangedTasks_whenTimePasses_gotOnlyActualDeadlines() {
+        int moved = manager.saveTask(new Task("moved", "desc", NOW.plusHours(1), Duration.ofMinutes(30)));
+        int done = manager.saveTask(new Task("done", "desc", NOW.plusHours(2), Duration.ofMinutes(30)));
+        int removed = manager.saveTask(new Task("removed", "desc", NOW.plusHours(3), Duration.ofMinutes(30)));
+
+        manager.updateTask(new Task(moved, "moved", "desc", TaskStatus.NEW, NOW.plusHours(5),
+                Duration.ofMinutes(30)));
+        manager.updateTask(new Task(done, "done", "desc", TaskStatus.DONE, NOW.plusHours(2), Duration.ofMinutes(30)));
+        manager.removeTaskById(removed);
+
+        notifier.advanceTo(NOW.plusHours(4));
+        assertEquals(List.of(), fired);
+
+        notifier.advanceTo(NOW.plusHours(6));
+        assertEquals(List.of("STARTED " + moved, "OVERDUE " + moved), fired);
+    }
+
+    @Test
+    @DisplayName("Для эпика сроки берутся из подзадач, прошедшие сроки не сообщаются")
+    public void givenEpicAndPastTask_whenTimePasses_gotEpicDeadlinesOnly() {
+        manager.saveTask(new Task("past", "desc", NOW.minusHours(1), Duration.ofMinutes(30)));
+        Epic epic = new Epic("epic", "desc");
+        int epicId = manager.saveEpic(epic);
+        int subtask = manager.saveSubtask(new Subtask("sub", "desc", epic, NOW.plusMinutes(10),
+                Duration.ofMinutes(20)));
+
+        notifier.advanceTo(NOW.plusHours(1));
+
+        assertEquals(4, fired.size());
+        assertTrue(fired.containsAll(List.of("STARTED " + epicId, "STARTED " + subtask,
+                "OVERDUE " + epicId, "OVERDUE " + subtask)));
+    }
+}
@@ -0,0 +1,99 @@
+package kanban.managers;
+
+import kanban.exceptions.ManagerSaveException;
+import kanban.tasks.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLoopTaskManagerTest extends TaskManagerTest<EventLoopTaskManager> {
+
+    @BeforeEach
+    void setup() {
+        manager = EventLoopTaskManager.start();
+    }
+
+    @AfterEach
+    void stop() {
+        ((EventLoopTaskManager) manager).close();
+    }
+
+    @Test
+    @DisplayName("команды выполняются в порядке отправки, а результат виден сразу после завершения")
+    public void testThatCommandsAreAppliedInOrder() {
+        EventLoopTaskManager loop = (EventLoopTaskManager) manager;
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Task task = new Task("task" + i, "desc", null, null);
+            futures.add(loop.submit(m -> m.saveTask(task)));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i + 1, futures.get(i).join());
+        }
+        assertEquals(1000, manager.getTasks().size());
+    }
+
+    @Test
+    @DisplayName("параллельные сохранения не теряются")
+    public void testThatConcurrentSavesAreNotLost() {
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 1000; i++) {
+                int index = i;
+                executor.submit(() -> manager.saveTask(new Task("task" + index, "desc", null, null)));
+            }
+        }
+
+        assertEquals(1000, manager.getTasks().size());
+        assertEquals(1000, manager.getTasks().stream().map(Task::getId).distinct().count());
+    }
+
+    @Test
+    @DisplayName("ошибка команды доходит до вызывающего, а цикл продолжает работать")
+    public void testThatCommandErrorIsRethrown() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        manager.saveTask(new Task("task1", "desc", start, Duration.ofHours(1)));
+
+        assertThrows(ManagerSaveException.class,
+                () -> manager.saveTask(new Task("task2", "desc", start, Duration.ofHours(1))));
+        assertEquals(1, manager.getTasks().size());
+    }
+
+    @Test
+    @DisplayName("команда, бросившая Error, завершается с ошибкой, а цикл продолжает работать")
+    public void testThatCommandErrorDoesNotStopLoop() {
+        EventLoopTaskManager loop = (EventLoopTaskManager) manager;
+
+        CompletableFuture<Object> failed = loop.submit(m -> {
+            throw new StackOverflowError();
+        });
+
+        CompletionException e = assertThrows(CompletionException.class, failed::join);
+        assertInstanceOf(StackOverflowError.class, e.getCause());
+        assertEquals(1, manager.saveTask(new Task("task", "desc", null, null)));
+        assertEquals(1, manager.getTasks().size());
+    }
+
+    @Test
+    @DisplayName("после остановки команды отклоняются")
+    public void testThatClosedManagerRejectsCommands() {
+        EventLoopTaskManager loop = (EventLoopTaskManager) manager;
+        loop.close();
+
+        CompletableFuture<Integer> future = loop.submit(m -> m.saveTask(new Task("task", "desc", null, null)));
+
+        assertThrows(Exception.class, future::join);
+    }
+}
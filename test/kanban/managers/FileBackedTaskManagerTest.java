@@ -2,10 +2,13 @@ package kanban.managers;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import kanban.exceptions.ManagerSaveException;
 import kanban.tasks.Epic;
 import kanban.tasks.Subtask;
 import kanban.tasks.Task;
+import kanban.tasks.TaskStatus;
 import kanban.util.CSVFormat;
+import kanban.util.HistoryLog;
 import kanban.util.Tasks;
 
 import java.io.FileWriter;
@@ -14,6 +17,9 @@ import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -33,7 +39,7 @@ class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager>{
     @BeforeEach
     public void setup() throws IOException {
         taskFile = Files.createTempFile("tasks", ".csv");
-        manager = new FileBackedTaskManager(taskFile);
+        manager = FileBackedTaskManager.create(taskFile);
     }
 
     @Test
@@ -51,8 +57,8 @@ class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager>{
 
         assertTaskEquals(task1, manager2.getTaskById(task1.getId()).orElseThrow());
         assertTaskEquals(task2, manager2.getTaskById(task2.getId()).orElseThrow());
-        assertEpicEquals(epic1, manager2.getEpicById(epic1.getId()).orElseThrow());
-        assertEpicEquals(epic2, manager2.getEpicById(epic2.getId()).orElseThrow());
+        assertEpicEquals(getStoredEpic(epic1), manager2.getEpicById(epic1.getId()).orElseThrow());
+        assertEpicEquals(getStoredEpic(epic2), manager2.getEpicById(epic2.getId()).orElseThrow());
         assertSubtaskEquals(sub1, manager2.getSubtaskById(sub1.getId()).orElseThrow());
         assertSubtaskEquals(sub2, manager2.getSubtaskById(sub2.getId()).orElseThrow());
         assertSubtaskEquals(sub3, manager2.getSubtaskById(sub3.getId()).orElseThrow());
@@ -60,6 +66,97 @@ class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager>{
                 + manager2.getSubtasks().size());
     }
 
+    @Test
+    void testThatLoadDoesNotRewriteFile() throws IOException {
+        createAndSaveTask("task1;desc1;NEW;2024-01-01 01:02:03;123");
+        Epic epic = createAndSaveEpic("epic1;desc2");
+        createAndSaveSubtask("sub1;desc3;DONE;" + epic.getId() + ";2024-01-02 01:02:03;60");
+        FileTime modified = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(taskFile, modified);
+
+        TaskManager manager2 = FileBackedTaskManager.loadFromFile(taskFile);
+
+        assertEquals(modified, Files.getLastModifiedTime(taskFile));
+        assertEquals(TaskStatus.DONE, manager2.getEpics().getFirst().getStatus());
+        assertEquals(List.of(manager2.getSubtasks().getFirst().getId()),
+                manager2.getEpics().getFirst().getSubtasksId());
+    }
+
+    @Test
+    void testThatStaleTempFileIsDeletedOnLoad() throws IOException {
+        createAndSaveTask("task1;desc1;NEW;null;null");
+        Path tempFile = taskFile.resolveSibling(taskFile.getFileName() + ".tmp");
+        Files.writeString(tempFile, "остаток оборванной записи");
+
+        TaskManager manager2 = FileBackedTaskManager.loadFromFile(taskFile);
+
+        assertEquals(1, manager2.getTasks().size());
+        assertFalse(Files.exists(tempFile));
+    }
+
+    @Test
+    void testThatOverlapsFromLegacyFileDoNotLetNewOverlapsIn() throws IOException {
+        try (CSVFormat.TaskFileWriter writer = CSVFormat.writer(taskFile)) {
+            writer.println(Tasks.createTask("long;desc;NEW;2024-01-01 00:00:00;600").withId(1));
+            writer.println(Tasks.createTask("inside;desc;NEW;2024-01-01 02:00:00;60").withId(2));
+        }
+        TaskManager manager2 = FileBackedTaskManager.loadFromFile(taskFile);
+
+        Task inLongTask = Tasks.createTask("new;desc;NEW;2024-01-01 05:00:00;60");
+        assertThrows(ManagerSaveException.class, () -> manager2.saveTask(inLongTask));
+        assertEquals(Optional.of(LocalDateTime.parse("2024-01-01T10:00:00")),
+                manager2.findFreeSlot(Duration.ofMinutes(60), LocalDateTime.parse("2024-01-01T04:00:00"), null));
+
+        manager2.removeTaskById(1);
+        manager2.saveTask(inLongTask);
+        assertEquals(2, manager2.getPrioritizedTasks().size());
+    }
+
+    @Test
+    void testThatHistoryIsRestoredAfterRestart() throws IOException {
+        Path historyFile = Files.createTempFile("history", ".log");
+        Task task1 = createAndSaveTask("task1;desc1;NEW;null;null");
+        Task task2 = createAndSaveTask("task2;desc2;NEW;null;null");
+        Epic epic = createAndSaveEpic("epic;desc");
+        Task removed = createAndSaveTask("removed;desc;NEW;null;null");
+
+        try (FileBackedTaskManager manager1 = FileBackedTaskManager.loadFromFile(taskFile, historyFile, null)) {
+            manager1.getTaskById(task1.getId());
+            manager1.getEpicById(epic.getId());
+            manager1.getTaskById(task2.getId());
+            manager1.getTaskById(removed.getId());
+            manager1.getTaskById(task1.getId());
+            manager1.removeTaskById(removed.getId());
+        }
+
+        try (FileBackedTaskManager manager2 = FileBackedTaskManager.loadFromFile(taskFile, historyFile, null)) {
+            assertEquals(List.of(task1.getId(), task2.getId(), epic.getId()),
+                    manager2.getHistory().stream().map(Task::getId).toList());
+            assertEquals(epic.getName(), manager2.getHistory().getLast().getName());
+            manager2.getTaskById(task2.getId());
+        }
+
+        try (FileBackedTaskManager manager3 = FileBackedTaskManager.loadFromFile(taskFile, historyFile, null)) {
+            assertEquals(List.of(task2.getId(), task1.getId(), epic.getId()),
+                    manager3.getHistory().stream().map(Task::getId).toList());
+        }
+    }
+
+    @Test
+    void testThatHistoryOfDroppedSubtaskIsSkippedOnLoad() throws IOException {
+        Path historyFile = Files.createTempFile("history", ".log");
+        try (CSVFormat.TaskFileWriter writer = CSVFormat.writer(taskFile)) {
+            writer.println(Tasks.createTask("task;desc;NEW;null;null").withId(1));
+            writer.println(Tasks.createSubtask("orphan;desc;NEW;100;null;null").withId(2));
+        }
+        HistoryLog.open(historyFile, List.of(2, 1)).close();
+
+        try (FileBackedTaskManager manager2 = FileBackedTaskManager.loadFromFile(taskFile, historyFile, null)) {
+            assertTrue(manager2.getSubtasks().isEmpty());
+            assertEquals(List.of(1), manager2.getHistory().stream().map(Task::getId).toList());
+        }
+    }
+
     @Test
     public void testThatIdGeneratorUpdatedAfterLoadingTasksFromFile() throws IOException {
         try (PrintWriter writer = new PrintWriter(new FileWriter(taskFile.toFile(), StandardCharsets.UTF_8))) {
@@ -120,7 +217,7 @@ class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager>{
     public void testThatManagerUpdatesTaskInFile() throws IOException {
         Task task = createAndSaveTask("task;desc;NEW;2024-01-01 01:02:03;123");
 
-        task.setName("new task");
+        task = task.withName("new task");
         manager.updateTask(task);
 
         Task updatedTask = CSVFormat.fromString(readLastLine());
@@ -131,7 +228,7 @@ class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager>{
     public void testThatManagerUpdatesEpicInFile() throws IOException {
         Epic epic = createAndSaveEpic("epic;desc");
 
-        epic.setName("new epic");
+        epic = epic.withName("new epic");
         manager.updateEpic(epic);
 
         Epic updatedEpic = (Epic)(CSVFormat.fromString(readLastLine()));
@@ -143,7 +240,7 @@ class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager>{
         Epic epic = createAndSaveEpic("epic;desc");
         Subtask sub = createAndSaveSubtask("sub;desc1;NEW;" + epic.getId() + ";2024-01-01 01:02:03;123");
 
-        sub.setName("new sub");
+        sub = sub.withName("new sub");
         manager.updateSubtask(sub);
 
         Subtask updatedSub = (Subtask)(CSVFormat.fromString(readLastLine()));
@@ -0,0 +1,109 @@
+package kanban.managers;
+
+import kanban.exceptions.ManagerSaveException;
+import kanban.tasks.Epic;
+import kanban.tasks.Subtask;
+import kanban.tasks.Task;
+import kanban.tasks.TaskStatus;
+import kanban.util.CSVFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static kanban.lib.TestAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournaledFileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
+
+    private Path taskFile;
+    private Path journalFile;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        Path directory = Files.createTempDirectory("tasks");
+        taskFile = directory.resolve("tasks.csv");
+        journalFile = directory.resolve("tasks.journal");
+        manager = FileBackedTaskManager.loadWithJournal(taskFile, journalFile, CSVFormat.SyncPolicy.NONE);
+    }
+
+    @AfterEach
+    public void close() throws IOException {
+        ((FileBackedTaskManager) manager).close();
+    }
+
+    @Test
+    @DisplayName("ошибка журнала не прерывает операцию, а файл задач переписывается текущим состоянием")
+    public void testThatJournalErrorIsRaisedAfterOperation() throws IOException {
+        // записей удаления больше, чем помещается в буфер журнала, поэтому он пишет в файл посреди операции
+        for (int i = 0; i < 10_000; i++) {
+            manager.saveTask(new Task("task" + i, "desc", null, null));
+        }
+        ((FileBackedTaskManager) manager).close();
+
+        assertThrows(ManagerSaveException.class, () -> manager.removeTasks());
+
+        assertTrue(manager.getTasks().isEmpty());
+        assertTrue(FileBackedTaskManager.loadFromFile(taskFile).getTasks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("после перезапуска состояние восстанавливается из журнала")
+    public void testThatManagerIsRestoredFromJournal() throws IOException {
+        Task task = createAndSaveTask("task1;desc1;NEW;2024-01-01 01:02:03;123");
+        Task removed = createAndSaveTask("task2;desc2;NEW;null;null");
+        Epic epic = createAndSaveEpic("epic1;desc3");
+        Subtask sub = createAndSaveSubtask("sub1;desc4;NEW;" + epic.getId() + ";2024-01-02 01:02:03;60");
+        manager.updateTask(task.withStatus(TaskStatus.IN_PROGRESS));
+        manager.updateSubtask(sub.withStatus(TaskStatus.DONE));
+        manager.removeTaskById(removed.getId());
+        ((FileBackedTaskManager) manager).close();
+
+        manager = FileBackedTaskManager.loadWithJournal(taskFile, journalFile, CSVFormat.SyncPolicy.NONE);
+
+        assertFalse(Files.exists(taskFile));
+        assertEquals(1, manager.getTasks().size());
+        assertTaskEquals(task.withStatus(TaskStatus.IN_PROGRESS), manager.getTaskById(task.getId()).orElseThrow());
+        assertSubtaskEquals(sub.withStatus(TaskStatus.DONE), manager.getSubtaskById(sub.getId()).orElseThrow());
+        assertEquals(TaskStatus.DONE, manager.getEpicById(epic.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("оборванная последняя операция отбрасывается при восстановлении")
+    public void testThatTornTailIsDiscarded() throws IOException {
+        Task task = createAndSaveTask("task1;desc1;NEW;null;null");
+        long committedSize = Files.size(journalFile);
+        createAndSaveTask("task2;desc2;NEW;null;null");
+        ((FileBackedTaskManager) manager).close();
+
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(journalFile) - 3);
+        }
+        manager = FileBackedTaskManager.loadWithJournal(taskFile, journalFile, CSVFormat.SyncPolicy.NONE);
+
+        assertEquals(committedSize, Files.size(journalFile));
+        assertEquals(1, manager.getTasks().size());
+        assertTaskEquals(task, manager.getTaskById(task.getId()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("большой журнал переносится в файл задач и очищается")
+    public void testThatJournalIsCompacted() throws IOException {
+        String description = "d".repeat(64 * 1024);
+        int count = (int) (FileBackedTaskManager.JOURNAL_COMPACTION_SIZE / description.length()) + 1;
+        for (int i = 0; i < count; i++) {
+            manager.saveTask(new Task("task" + i, description, null, null));
+        }
+
+        assertTrue(Files.size(journalFile) < FileBackedTaskManager.JOURNAL_COMPACTION_SIZE);
+        ((FileBackedTaskManager) manager).close();
+        manager = FileBackedTaskManager.loadWithJournal(taskFile, journalFile, CSVFormat.SyncPolicy.NONE);
+        assertEquals(count, manager.getTasks().size());
+    }
+}
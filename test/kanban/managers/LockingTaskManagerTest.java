@@ -0,0 +1,64 @@
+package kanban.managers;
+
+import com.google.gson.Gson;
+import kanban.HttpTaskServer;
+import kanban.tasks.Epic;
+import kanban.tasks.Subtask;
+import kanban.tasks.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LockingTaskManagerTest extends TaskManagerTest<LockingTaskManager> {
+
+    @BeforeEach
+    void setup() {
+        manager = new LockingTaskManager(Managers.getDefault());
+    }
+
+    @Test
+    @DisplayName("параллельные сохранения не теряются")
+    public void testThatConcurrentSavesAreNotLost() {
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 1000; i++) {
+                int index = i;
+                executor.submit(() -> manager.saveTask(new Task("task" + index, "desc", null, null)));
+            }
+        }
+
+        assertEquals(1000, manager.getTasks().size());
+        assertEquals(1000, manager.getTasks().stream().map(Task::getId).distinct().count());
+    }
+
+    @Test
+    @DisplayName("прочитанные эпики сериализуются, пока подзадачи меняются в другом потоке")
+    public void testThatReadEpicsCanBeSerializedDuringWrites() throws Exception {
+        Gson gson = HttpTaskServer.getGson();
+        Epic epic = createAndSaveEpic("epic;desc");
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    Subtask subtask = createAndSaveSubtask("sub;desc;NEW;" + epic.getId() + ";null;null");
+                    manager.removeSubtaskById(subtask.getId());
+                }
+            });
+            Future<?> reader = executor.submit(() -> {
+                while (!writer.isDone()) {
+                    for (Epic stored : manager.getEpics()) {
+                        Epic copy = gson.fromJson(gson.toJson(stored), Epic.class);
+                        assertEquals(stored.getSubtasksId(), copy.getSubtasksId());
+                    }
+                }
+            });
+            writer.get();
+            reader.get();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package kanban.managers;
+
+import kanban.exceptions.ManagerSaveException;
+import kanban.tasks.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedTaskManagerTest {
+
+    private ShardedTaskManager boards;
+
+    @BeforeEach
+    void setup() {
+        boards = Managers.getSharded();
+    }
+
+    @Test
+    @DisplayName("у каждой доски свои задачи и свои идентификаторы")
+    public void givenTwoBoards_whenSaveTasks_gotIndependentBoards() {
+        int firstId = boards.getBoard("first").saveTask(new Task("task1", "desc1", null, null));
+        int secondId = boards.getBoard("second").saveTask(new Task("task2", "desc2", null, null));
+
+        assertEquals(1, firstId);
+        assertEquals(1, secondId);
+        assertEquals("task1", boards.getBoard("first").getTaskById(1).orElseThrow().getName());
+        assertEquals("task2", boards.getBoard("second").getTaskById(1).orElseThrow().getName());
+        assertEquals(1, boards.getBoard("first").getHistory().size());
+    }
+
+    @Test
+    @DisplayName("доска создается при первом обращении и удаляется целиком")
+    public void givenBoard_whenRemove_gotNewEmptyBoardNextTime() {
+        TaskManager board = boards.getBoard("board");
+        board.saveTask(new Task("task", "desc", null, null));
+
+        assertSame(board, boards.getBoard("board"));
+        assertEquals(Set.of("board"), boards.getBoards());
+
+        assertTrue(boards.removeBoard("board"));
+        assertFalse(boards.removeBoard("board"));
+        assertTrue(boards.getBoard("board").getTasks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("досок не больше заданного числа, а поиск доски ее не создает")
+    public void givenMaxBoards_whenCreateMore_gotException() {
+        boards = new ShardedTaskManager(Managers::getDefault, 2);
+        boards.getBoard("first");
+        boards.getBoard("second");
+
+        assertThrows(ManagerSaveException.class, () -> boards.getBoard("third"));
+        assertTrue(boards.findBoard("third").isEmpty());
+
+        assertTrue(boards.removeBoard("first"));
+        assertNotNull(boards.getBoard("third"));
+        assertEquals(Set.of("second", "third"), boards.getBoards());
+    }
+
+    @Test
+    @DisplayName("привязанные к доске значения создаются один раз и удаляются вместе с ней")
+    public void givenAttachment_whenRemoveBoard_gotNewAttachmentForNewBoard() {
+        Object key = new Object();
+        TaskManager attached = boards.getOrCreate("board").getAttachment(key, manager -> manager);
+
+        assertSame(boards.getBoard("board"), attached);
+        assertSame(attached, boards.getOrCreate("board").getAttachment(key, manager -> null));
+
+        boards.removeBoard("board");
+        assertSame(boards.getBoard("board"), boards.getOrCreate("board").getAttachment(key, manager -> manager));
+    }
+
+    @Test
+    @DisplayName("недопустимое имя доски - ошибка")
+    public void givenBadBoardName_whenGetBoard_gotException() {
+        assertThrows(IllegalArgumentException.class, () -> boards.getBoard("a/b"));
+        assertThrows(IllegalArgumentException.class, () -> boards.getBoard(""));
+    }
+}
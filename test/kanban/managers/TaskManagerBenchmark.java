@@ -0,0 +1,91 @@
+package kanban.managers;
+
+import kanban.tasks.Task;
+import kanban.tasks.TaskType;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Сравнивает пропускную способность менеджера под блокировкой и однопоточного цикла команд.
+// Каждый поток в цикле либо сохраняет и сразу удаляет задачу, либо читает список задач и версию.
+// Запуск: java kanban.managers.TaskManagerBenchmark [секунд на замер]
+public class TaskManagerBenchmark {
+
+    private static final int[] THREADS = {1, 4, 16};
+    private static final int[] WRITE_PERCENTS = {10, 50, 100};
+    private static final int PRELOADED_TASKS = 100;
+
+    public static void main(String[] args) throws InterruptedException {
+        long seconds = args.length > 0 ? Long.parseLong(args[0]) : 2;
+
+        // менеджер пишет в консоль о каждой задаче, в замер это попадать не должно
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        out.printf("%-10s %8s %8s %14s %14s%n", "", "потоков", "запись", "блокировка", "цикл команд");
+        for (int threads : THREADS) {
+            for (int writePercent : WRITE_PERCENTS) {
+                double locking = measure(() -> new LockingTaskManager(Managers.getDefault()), threads, writePercent,
+                        seconds);
+                double eventLoop = measure(EventLoopTaskManager::start, threads, writePercent, seconds);
+                out.printf("%-10s %8d %7d%% %10.0f оп/с %10.0f оп/с%n", "", threads, writePercent, locking, eventLoop);
+            }
+        }
+
+        System.setOut(out);
+    }
+
+    private static double measure(Supplier<TaskManager> factory, int threads, int writePercent, long seconds)
+            throws InterruptedException {
+
+        TaskManager manager = factory.get();
+        for (int i = 0; i < PRELOADED_TASKS; i++) {
+            manager.saveTask(new Task("task" + i, "desc", null, null));
+        }
+
+        // первая секунда - прогрев
+        run(manager, threads, writePercent, 1);
+        double opsPerSecond = run(manager, threads, writePercent, seconds) / (double) seconds;
+
+        if (manager instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return opsPerSecond;
+    }
+
+    private static long run(TaskManager manager, int threads, int writePercent, long seconds)
+            throws InterruptedException {
+
+        LongAdder operations = new LongAdder();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        if (random.nextInt(100) < writePercent) {
+                            int id = manager.saveTask(new Task("bench", "desc", null, null));
+                            manager.removeTaskById(id);
+                        } else {
+                            manager.getVersion(TaskType.TASK);
+                            manager.getTasks();
+                        }
+                        operations.increment();
+                    }
+                });
+            }
+        }
+
+        return operations.sum();
+    }
+}
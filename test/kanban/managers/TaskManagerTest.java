@@ -9,14 +9,23 @@ import kanban.tasks.Epic;
 import kanban.tasks.Subtask;
 import kanban.tasks.Task;
 import kanban.tasks.TaskStatus;
+import kanban.tasks.TaskType;
 import kanban.util.Tasks;
 
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static kanban.lib.TestAssertions.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -62,8 +71,7 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         @Test
         @DisplayName("эпик не сохраняется, если duration неположительный")
         public void testThatManagerDoesNotSaveEpicWithNonPositiveDuration() {
-            Epic epic = Tasks.createEpic("epic;desc");
-            epic.setDuration(Duration.ofMinutes(-1));
+            Epic epic = Tasks.createEpic("epic;desc").withDuration(Duration.ofMinutes(-1));
             assertThrows(ManagerSaveException.class, () -> manager.saveEpic(epic));
         }
 
@@ -183,6 +191,20 @@ public abstract class TaskManagerTest<T extends TaskManager> {
             assertIterableEquals(List.of(task), manager.getTasks());
         }
 
+        @Test
+        @DisplayName("задача без продолжительности не скрывает пересечение с задачей, начавшейся раньше нее")
+        public void testThatTaskWithoutDurationDoesNotHideInterception() {
+            // name;description;status;startTime;duration
+            Task task = createAndSaveTask("task1;desc1;NEW;2024-01-10 10:00:00;120");
+            Task point = createAndSaveTask("task2;desc2;NEW;2024-01-10 11:00:00;null");
+
+            assertThrows(ManagerSaveException.class, () ->
+                    createAndSaveTask("task3;desc3;NEW;2024-01-10 11:30:00;60"));
+            assertDoesNotThrow(() -> createAndSaveTask("task4;desc4;NEW;2024-01-10 12:00:00;60"));
+
+            assertEquals(List.of(task, point), manager.getTasks().subList(0, 2));
+        }
+
         @Test
         @DisplayName("если задача пересекается с подзадачей, то задача не сохраняется")
         public void testThatTaskInterceptedWithOtherTaskIsNotSaved() {
@@ -406,18 +428,18 @@ public abstract class TaskManagerTest<T extends TaskManager> {
             Subtask sub2 = createAndSaveSubtask("sub2;desc3;DONE;" + epic.getId() + ";2024-01-02 00:00:00;120");
 
             // берем в работу
-            sub1.setStatus(IN_PROGRESS);
+            sub1 = sub1.withStatus(IN_PROGRESS);
             manager.updateSubtask(sub1);
 
+            epic = getStoredEpic(epic);
             assertEquals(IN_PROGRESS, epic.getStatus(),
                     String.format("статус эпика должен быть IN_PROGRESS, а не %s", epic.getStatus()));
 
             // отмечаем выполненными
-            sub1.setStatus(DONE);
-            manager.updateSubtask(sub1);
-            sub2.setStatus(DONE);
-            manager.updateSubtask(sub2);
+            manager.updateSubtask(sub1.withStatus(DONE));
+            manager.updateSubtask(sub2.withStatus(DONE));
 
+            epic = getStoredEpic(epic);
             assertEquals(DONE, epic.getStatus(),
                     String.format("статус эпика должен быть DONE, а не %s", epic.getStatus()));
         }
@@ -432,12 +454,13 @@ public abstract class TaskManagerTest<T extends TaskManager> {
                     createAndSaveSubtask("sub2;desc2;NEW;" + epic.getId() + ";null;120")
             );
 
+            epic = getStoredEpic(epic);
             assertEquals(Duration.ofMinutes(180), epic.getDuration(), String.format(
                     "продолжительность должна быть %s, а не %s", Duration.ofMinutes(180), epic.getDuration()));
 
-            subs.getFirst().setDuration(Duration.ofMinutes(30));
-            manager.updateSubtask(subs.getFirst());
+            manager.updateSubtask(subs.getFirst().withDuration(Duration.ofMinutes(30)));
 
+            epic = getStoredEpic(epic);
             assertEquals(Duration.ofMinutes(150), epic.getDuration(), String.format(
                     "продолжительность должна быть %s, а не %s", Duration.ofMinutes(150), epic.getDuration()));
         }
@@ -454,13 +477,14 @@ public abstract class TaskManagerTest<T extends TaskManager> {
                     createAndSaveSubtask("sub4;desc4;NEW;" + epic.getId() + ";2024-01-03 01:00:00;120")
             );
 
+            epic = getStoredEpic(epic);
             assertEquals(parseTime("2024-01-01 00:00:00"), epic.getStartTime(),
                     "начало должно быть 2024-01-01 00:00:00, а не " + epic.getStartTime());
 
-            Subtask newSub = Tasks.copy(subs.getFirst());
-            newSub.setStartTime(parseTime("2024-01-02 00:00:00"));
+            Subtask newSub = subs.getFirst().withStartTime(parseTime("2024-01-02 00:00:00"));
             manager.updateSubtask(newSub);
 
+            epic = getStoredEpic(epic);
             assertEquals(parseTime("2024-01-02 00:00:00"), epic.getStartTime(),
                     "начало должно быть 2024-01-02 00:00:00, а не " + epic.getStartTime());
         }
@@ -477,20 +501,21 @@ public abstract class TaskManagerTest<T extends TaskManager> {
                     createAndSaveSubtask("sub4;desc4;NEW;" + epic.getId() + ";2024-01-03 01:00:00;120")
             );
 
+            epic = getStoredEpic(epic);
             assertEquals(parseTime("2024-01-03 03:00:00"), epic.getEndTime(),
                     "начало должно быть 2024-01-03 03:00:00, а не " + epic.getEndTime());
 
-            Subtask newSub = Tasks.copy(subs.getLast());
-            newSub.setStartTime(parseTime("2024-01-04 00:00:00"));
+            Subtask newSub = subs.getLast().withStartTime(parseTime("2024-01-04 00:00:00"));
             manager.updateSubtask(newSub);
 
+            epic = getStoredEpic(epic);
             assertEquals(parseTime("2024-01-04 02:00:00"), epic.getEndTime(),
                     "начало должно быть 2024-01-04 02:00:00, а не " + epic.getEndTime());
 
-            Subtask newSub1 = Tasks.copy(newSub);
-            newSub1.setDuration(Duration.ofMinutes(60));
+            Subtask newSub1 = newSub.withDuration(Duration.ofMinutes(60));
             manager.updateSubtask(newSub1);
 
+            epic = getStoredEpic(epic);
             assertEquals(parseTime("2024-01-04 01:00:00"), epic.getEndTime(),
                     "начало должно быть 2024-01-04 01:00:00, а не " + epic.getEndTime());
         }
@@ -511,16 +536,13 @@ public abstract class TaskManagerTest<T extends TaskManager> {
             Subtask sub2 = createAndSaveSubtask("sub2;desc6;NEW;" + epic1.getId() + ";2024-01-07 04:05:06;456");
             Subtask sub3 = createAndSaveSubtask("sub3;desc7;NEW;" + epic1.getId() + ";null;456");
 
-            Subtask newSub2 = Tasks.copy(sub2);
-            newSub2.setStartTime(parseTime("2024-01-08 10:00:00"));
+            Subtask newSub2 = sub2.withStartTime(parseTime("2024-01-08 10:00:00"));
             manager.updateSubtask(newSub2);
 
-            Subtask newSub3 = Tasks.copy(sub3);
-            newSub3.setStartTime(parseTime("2024-01-06 05:06:07"));
+            Subtask newSub3 = sub3.withStartTime(parseTime("2024-01-06 05:06:07"));
             manager.updateSubtask(newSub3);
 
-            Task newTask2 = Tasks.copy(task2);
-            newTask2.setStartTime(null);
+            Task newTask2 = task2.withStartTime(null);
             manager.updateTask(newTask2);
 
             List<Task> actualTasks = manager.getPrioritizedTasks();
@@ -546,20 +568,17 @@ public abstract class TaskManagerTest<T extends TaskManager> {
             Subtask sub3 = createAndSaveSubtask("sub3;desc7;NEW;" + epic1.getId() + ";2024-01-06 05:00:00;120");
 
             // начинает пересекаться с task2 - так нельзя
-            Task newTask1 = Tasks.copy(task1);
-            newTask1.setStartTime(parseTime("2024-01-09 03:00:00"));
+            Task newTask1 = task1.withStartTime(parseTime("2024-01-09 03:00:00"));
             assertThrows(ManagerSaveException.class, () -> manager.updateTask(newTask1));
             assertTaskEquals(task1, manager.getTaskById(task1.getId()).orElseThrow());
 
             // начинает пересекаться с sub2 - так нельзя
-            Task newTask2 = Tasks.copy(task2);
-            newTask2.setStartTime(parseTime("2024-01-07 05:00:00"));
+            Task newTask2 = task2.withStartTime(parseTime("2024-01-07 05:00:00"));
             assertThrows(ManagerSaveException.class, () -> manager.updateTask(newTask2));
             assertTaskEquals(task2, manager.getTaskById(task2.getId()).orElseThrow());
 
             // начинает пересекаться сама с собой - так можно
-            Task newSub3 = Tasks.copy(sub3);
-            newSub3.setStartTime(parseTime("2024-01-06 06:00:00"));
+            Task newSub3 = sub3.withStartTime(parseTime("2024-01-06 06:00:00"));
             assertDoesNotThrow(() -> manager.updateTask(newSub3));
             assertTaskEquals(task1, manager.getTaskById(task1.getId()).orElseThrow());
         }
@@ -670,22 +689,25 @@ public abstract class TaskManagerTest<T extends TaskManager> {
             Subtask sub1 = createAndSaveSubtask(epic);
             Subtask sub2 = createAndSaveSubtask(epic);
 
-            sub1.setStatus(IN_PROGRESS);
+            sub1 = sub1.withStatus(IN_PROGRESS);
             manager.updateSubtask(sub1);
-            sub2.setStatus(DONE);
+            sub2 = sub2.withStatus(DONE);
             manager.updateSubtask(sub2);
 
+            epic = getStoredEpic(epic);
             assertEquals(IN_PROGRESS, epic.getStatus(),
                     String.format("до удаления подзадач статус эпика должен быть IN_PROGRESS, а не %s", epic.getStatus()));
 
             manager.removeSubtaskById(sub1.getId());
 
+            epic = getStoredEpic(epic);
             assertEquals(DONE, epic.getStatus(), String.format(
                     "когда остались только подзадачи со статусом DONE, у эпика статус должен быть DONE, а не %s",
                     epic.getStatus()));
 
             manager.removeSubtaskById(sub2.getId());
 
+            epic = getStoredEpic(epic);
             assertEquals(NEW, epic.getStatus(), String.format(
                     "после удаления всех подзадач, у эпика статус должен быть NEW, а не %s", epic.getStatus()));
         }
@@ -706,6 +728,7 @@ public abstract class TaskManagerTest<T extends TaskManager> {
             manager.removeSubtaskById(sub1.getId());
             manager.removeSubtaskById(sub3.getId());
 
+            epic = getStoredEpic(epic);
             assertEquals(parseTime("2024-01-07 00:00:00"), epic.getStartTime());
             assertEquals(parseTime("2024-01-07 02:00:00"), epic.getEndTime());
         }
@@ -718,6 +741,7 @@ public abstract class TaskManagerTest<T extends TaskManager> {
 
             manager.removeSubtasks();
 
+            epic = getStoredEpic(epic);
             assertEquals(TaskStatus.NEW, epic.getStatus(),
                     String.format("статус эпика должен быть NEW, а не %s", epic.getStatus()));
         }
@@ -854,11 +878,25 @@ public abstract class TaskManagerTest<T extends TaskManager> {
             manager.removeTaskById(task2.getId());
 
             // начинает пересекаться с task2 - можно, так как задача task2 удалена
-            Task newTask1 = Tasks.copy(task1);
-            newTask1.setStartTime(parseTime("2024-01-09 03:00:00"));
+            Task newTask1 = task1.withStartTime(parseTime("2024-01-09 03:00:00"));
             assertDoesNotThrow(() -> manager.updateTask(newTask1));
             assertTaskEquals(newTask1, manager.getTaskById(task1.getId()).orElseThrow());
         }
+
+        @Test
+        @DisplayName("задачи по ее измененной копии, она удаляется из getPrioritizedTasks")
+        public void testThatTaskRemovedByChangedCopyIsRemovedFromPrioritized() {
+            // name;description;status;startTime;duration
+            Task task1 = createAndSaveTask("task1;desc1;NEW;2024-01-10 01:00:00;120");
+            Task task2 = createAndSaveTask("task2;desc2;NEW;2024-01-09 02:00:00;120");
+
+            Task newTask1 = task1.withStartTime(parseTime("2024-01-01 00:00:00"));
+            assertEquals(parseTime("2024-01-10 01:00:00"), manager.getPrioritizedTasks().getLast().getStartTime());
+
+            manager.removeTaskById(newTask1.getId());
+
+            assertIterableEquals(List.of(task2), manager.getPrioritizedTasks());
+        }
     }
 
     @Nested
@@ -1008,6 +1046,659 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         }
     }
 
+    @Nested
+    @DisplayName("При выборке по статусу и типу")
+    class WhenQueryingByStatus {
+
+        @Test
+        @DisplayName("возвращаются только задачи с нужным статусом")
+        public void testThatGetByStatusReturnsTasksWithThisStatus() {
+            Task task1 = createAndSaveTask("task1;desc1;NEW;null;null");
+            Task task2 = createAndSaveTask("task2;desc2;DONE;null;null");
+            Epic epic = createAndSaveEpic("epic1;desc3");
+            Subtask sub = createAndSaveSubtask("sub1;desc4;DONE;" + epic.getId() + ";null;null");
+
+            assertIterableEquals(List.of(task1), manager.getByStatus(NEW));
+            assertIterableEquals(List.of(task2, epic, sub), manager.getByStatus(DONE));
+            assertIterableEquals(List.of(sub), manager.getByStatus(TaskType.SUBTASK, DONE));
+        }
+
+        @Test
+        @DisplayName("счетчики учитывают обновление и удаление задач")
+        public void testThatCountsFollowUpdatesAndRemovals() {
+            Task task = createAndSaveTask("task1;desc1;NEW;null;null");
+            Epic epic = createAndSaveEpic("epic1;desc2");
+            Subtask sub1 = createAndSaveSubtask("sub1;desc3;NEW;" + epic.getId() + ";null;null");
+            createAndSaveSubtask("sub2;desc4;NEW;" + epic.getId() + ";null;null");
+
+            assertEquals(4, manager.countByStatus(NEW));
+            assertEquals(2, manager.countByType(TaskType.SUBTASK));
+
+            manager.updateTask(task.withStatus(IN_PROGRESS));
+            manager.updateSubtask(sub1.withStatus(DONE));
+
+            assertEquals(1, manager.countByStatus(NEW));
+            assertEquals(2, manager.countByStatus(IN_PROGRESS));
+            assertEquals(1, manager.countByStatus(DONE));
+
+            manager.removeEpicById(epic.getId());
+
+            assertEquals(0, manager.countByType(TaskType.EPIC));
+            assertEquals(0, manager.countByType(TaskType.SUBTASK));
+            assertEquals(1, manager.countByType(TaskType.TASK));
+            assertIterableEquals(List.of(task), manager.getByStatus(IN_PROGRESS));
+        }
+
+        @Test
+        @DisplayName("копия задачи с другим статусом не меняет индекс")
+        public void testThatChangedCopyDoesNotAffectIndex() {
+            Task task = createAndSaveTask("task1;desc1;NEW;null;null");
+            assertEquals(DONE, task.withStatus(DONE).getStatus());
+
+            assertEquals(1, manager.countByStatus(NEW));
+            manager.removeTasks();
+
+            assertEquals(0, manager.countByStatus(NEW));
+            assertEquals(0, manager.countByStatus(DONE));
+        }
+    }
+
+    @Nested
+    @DisplayName("При поиске свободного времени")
+    class WhenFindingFreeSlot {
+
+        @Test
+        @DisplayName("возвращается самый ранний промежуток, в который помещается задача")
+        public void testThatEarliestFittingGapIsFound() {
+            createAndSaveTask("task1;desc;NEW;2024-01-01 10:00:00;60");
+            createAndSaveTask("task2;desc;NEW;2024-01-01 11:30:00;60");
+            Epic epic = createAndSaveEpic("epic;desc");
+            createAndSaveSubtask("sub;desc;NEW;" + epic.getId() + ";2024-01-01 13:00:00;60");
+            createAndSaveTask("без продолжительности;desc;NEW;2024-01-01 12:45:00;null");
+
+            Duration hour = Duration.ofHours(1);
+            assertEquals(Optional.of(parseTime("2024-01-01 14:00:00")),
+                    manager.findFreeSlot(hour, parseTime("2024-01-01 10:30:00"), null));
+            assertEquals(Optional.of(parseTime("2024-01-01 12:30:00")),
+                    manager.findFreeSlot(Duration.ofMinutes(30), parseTime("2024-01-01 11:45:00"), null));
+            assertEquals(Optional.of(parseTime("2024-01-01 11:00:00")),
+                    manager.findFreeSlot(Duration.ofMinutes(30), parseTime("2024-01-01 10:30:00"), null));
+            assertEquals(Optional.of(parseTime("2024-01-01 09:00:00")),
+                    manager.findFreeSlot(hour, parseTime("2024-01-01 09:00:00"), null));
+            assertEquals(Optional.of(parseTime("2024-01-01 14:00:00")),
+                    manager.findFreeSlot(Duration.ofMinutes(90), parseTime("2024-01-01 10:00:00"), null));
+        }
+
+        @Test
+        @DisplayName("если до notAfter места нет, то возвращается пустой результат")
+        public void testThatNoSlotIsFoundBeforeDeadline() {
+            createAndSaveTask("task1;desc;NEW;2024-01-01 10:00:00;60");
+            createAndSaveTask("task2;desc;NEW;2024-01-01 11:30:00;60");
+
+            assertTrue(manager.findFreeSlot(Duration.ofHours(1), parseTime("2024-01-01 10:00:00"),
+                    parseTime("2024-01-01 12:00:00")).isEmpty());
+            assertEquals(Optional.of(parseTime("2024-01-01 12:30:00")), manager.findFreeSlot(Duration.ofHours(1),
+                    parseTime("2024-01-01 10:00:00"), parseTime("2024-01-01 13:30:00")));
+        }
+
+        @Test
+        @DisplayName("задачу можно сохранить в найденное время")
+        public void testThatFoundSlotCanBeSaved() {
+            createAndSaveTask("task1;desc;NEW;2024-01-01 10:00:00;60");
+            createAndSaveTask("task2;desc;NEW;2024-01-01 11:10:00;60");
+
+            LocalDateTime startTime = manager.findFreeSlot(Duration.ofMinutes(20), parseTime("2024-01-01 10:30:00"),
+                    null).orElseThrow();
+
+            assertEquals(parseTime("2024-01-01 12:10:00"), startTime);
+            assertDoesNotThrow(() -> manager.saveTask(new Task("task3", "desc", startTime, Duration.ofMinutes(20))));
+        }
+    }
+
+    @Nested
+    @DisplayName("При расстановке задач без времени")
+    class WhenScheduling {
+
+        @Test
+        @DisplayName("задачи занимают свободные промежутки и не пересекаются с расписанием")
+        public void testThatTasksFillFreeTime() {
+            createAndSaveTask("занята;desc;NEW;2024-01-01 10:30:00;60");
+            createAndSaveTask("занята;desc;NEW;2024-01-01 12:00:00;60");
+            Task long1 = createAndSaveTask("длинная;desc;NEW;null;90");
+            Task short1 = createAndSaveTask("короткая;desc;NEW;null;30");
+            Task noDuration = createAndSaveTask("без продолжительности;desc;NEW;null;null");
+
+            List<Task> scheduled = manager.scheduleUnscheduled(parseTime("2024-01-01 10:00:00"), null);
+
+            assertEquals(2, scheduled.size());
+            assertEquals(parseTime("2024-01-01 13:00:00"), manager.getTaskById(long1.getId()).orElseThrow().getStartTime());
+            assertEquals(parseTime("2024-01-01 10:00:00"), manager.getTaskById(short1.getId()).orElseThrow().getStartTime());
+            assertNull(manager.getTaskById(noDuration.getId()).orElseThrow().getStartTime());
+            assertEquals(4, manager.getPrioritizedTasks().size());
+            assertThrows(ManagerSaveException.class, () -> manager.saveTask(
+                    new Task("task", "desc", parseTime("2024-01-01 10:00:00"), Duration.ofMinutes(30))));
+        }
+
+        @Test
+        @DisplayName("подзадачи эпика ставятся подряд, а эпик пересчитывается")
+        public void testThatEpicSubtasksArePlacedTogether() {
+            createAndSaveTask("занята;desc;NEW;2024-01-01 11:00:00;60");
+            Epic epic = createAndSaveEpic("epic;desc");
+            Subtask sub1 = createAndSaveSubtask("sub1;desc;NEW;" + epic.getId() + ";null;40");
+            Subtask sub2 = createAndSaveSubtask("sub2;desc;NEW;" + epic.getId() + ";null;40");
+            Task task = createAndSaveTask("task;desc;NEW;null;50");
+
+            manager.scheduleUnscheduled(parseTime("2024-01-01 10:00:00"), null);
+
+            assertEquals(parseTime("2024-01-01 10:00:00"), manager.getTaskById(task.getId()).orElseThrow().getStartTime());
+            assertEquals(parseTime("2024-01-01 12:00:00"),
+                    manager.getSubtaskById(sub1.getId()).orElseThrow().getStartTime());
+            assertEquals(parseTime("2024-01-01 12:40:00"),
+                    manager.getSubtaskById(sub2.getId()).orElseThrow().getStartTime());
+            assertEquals(parseTime("2024-01-01 12:00:00"), manager.getEpicById(epic.getId()).orElseThrow().getStartTime());
+        }
+
+        @Test
+        @DisplayName("задачи с большим приоритетом получают более раннее время, слушатели видят одну операцию")
+        public void testThatPriorityOrderIsUsedInOneCommit() {
+            Task task1 = createAndSaveTask("task1;desc;NEW;null;30");
+            Task task2 = createAndSaveTask("task2;desc;NEW;null;60");
+            List<TaskEvent> events = new ArrayList<>();
+            int[] commits = new int[1];
+            manager.addListener(new TaskListener() {
+                @Override
+                public void onTaskEvent(TaskEvent event) {
+                    events.add(event);
+                }
+
+                @Override
+                public void onCommit() {
+                    commits[0]++;
+                }
+            });
+
+            List<Task> scheduled = manager.scheduleUnscheduled(parseTime("2024-01-01 10:00:00"),
+                    Comparator.comparing(Task::getDuration).reversed());
+
+            assertEquals(List.of(task2.getId(), task1.getId()), scheduled.stream().map(Task::getId).toList());
+            assertEquals(parseTime("2024-01-01 11:00:00"), manager.getTaskById(task1.getId()).orElseThrow().getStartTime());
+            assertEquals(2, events.size());
+            assertEquals(1, commits[0]);
+        }
+    }
+
+    @Nested
+    @DisplayName("При добавлении зависимостей")
+    class WhenDepending {
+
+        @Test
+        @DisplayName("зависимость, образующая цикл, не добавляется")
+        public void testThatCycleIsRejected() {
+            Task task1 = createAndSaveTask("task1;desc;NEW;null;60");
+            Task task2 = createAndSaveTask("task2;desc;NEW;null;60");
+            Task task3 = createAndSaveTask("task3;desc;NEW;null;60");
+
+            manager.addDependency(task1.getId(), task2.getId());
+            manager.addDependency(task2.getId(), task3.getId());
+
+            assertThrows(ManagerSaveException.class, () -> manager.addDependency(task3.getId(), task1.getId()));
+            assertThrows(ManagerSaveException.class, () -> manager.addDependency(task1.getId(), task1.getId()));
+            assertThrows(ManagerSaveException.class, () -> manager.addDependency(task1.getId(), 1000));
+            assertEquals(List.of(task2.getId()), manager.getBlockers(task3.getId()).stream().map(Task::getId).toList());
+            assertTrue(manager.getBlockers(task1.getId()).isEmpty());
+
+            manager.removeDependency(task2.getId(), task3.getId());
+            assertDoesNotThrow(() -> manager.addDependency(task3.getId(), task1.getId()));
+        }
+
+        @Test
+        @DisplayName("критический путь проходит через задачи, которые определяют окончание")
+        public void testThatCriticalPathIsFound() {
+            Task design = createAndSaveTask("design;desc;NEW;null;60");
+            Task backend = createAndSaveTask("backend;desc;NEW;null;180");
+            Task frontend = createAndSaveTask("frontend;desc;NEW;null;120");
+            Task release = createAndSaveTask("release;desc;NEW;2024-01-01 12:00:00;30");
+            Task docs = createAndSaveTask("docs;desc;NEW;null;30");
+
+            // добавление в обратном порядке заставляет переупорядочивать граф
+            manager.addDependency(frontend.getId(), release.getId());
+            manager.addDependency(backend.getId(), release.getId());
+            manager.addDependency(design.getId(), frontend.getId());
+            manager.addDependency(design.getId(), backend.getId());
+            manager.addDependency(docs.getId(), design.getId());
+
+            CriticalPath path = manager.getCriticalPath(parseTime("2024-01-01 09:00:00"));
+
+            assertEquals(List.of(docs.getId(), design.getId(), backend.getId(), release.getId()), path.getTaskIds());
+            assertEquals(parseTime("2024-01-01 14:00:00"), path.getFinish());
+            assertEquals(parseTime("2024-01-01 10:30:00"), path.getEarliestStarts().get(frontend.getId()));
+            assertEquals(parseTime("2024-01-01 13:30:00"), path.getEarliestStarts().get(release.getId()));
+
+            manager.updateTask(new Task(release.getId(), "release", "desc", NEW,
+                    parseTime("2024-01-01 15:00:00"), Duration.ofMinutes(30)));
+            path = manager.getCriticalPath(parseTime("2024-01-01 09:00:00"));
+            assertEquals(List.of(release.getId()), path.getTaskIds());
+            assertEquals(parseTime("2024-01-01 15:30:00"), path.getFinish());
+        }
+
+        @Test
+        @DisplayName("при удалении задачи удаляются и ее зависимости")
+        public void testThatDependenciesAreRemovedWithTask() {
+            Task task1 = createAndSaveTask("task1;desc;NEW;null;60");
+            Task task2 = createAndSaveTask("task2;desc;NEW;null;60");
+            Task task3 = createAndSaveTask("task3;desc;NEW;null;60");
+            manager.addDependency(task1.getId(), task2.getId());
+            manager.addDependency(task2.getId(), task3.getId());
+
+            manager.removeTaskById(task2.getId());
+
+            assertTrue(manager.getBlockers(task3.getId()).isEmpty());
+            assertTrue(manager.getCriticalPath(parseTime("2024-01-01 09:00:00")).getTaskIds().isEmpty());
+            assertNull(manager.getCriticalPath(parseTime("2024-01-01 09:00:00")).getFinish());
+        }
+    }
+
+    @Nested
+    @DisplayName("При выборке просроченных задач")
+    class WhenQueryingOverdue {
+
+        @Test
+        @DisplayName("возвращаются невыполненные задачи и подзадачи, закончившиеся раньше now, по времени окончания")
+        public void testThatOverdueTasksAreReturnedByEndTime() {
+            Task late = createAndSaveTask("late;desc;NEW;2024-01-01 09:00:00;90");
+            Task early = createAndSaveTask("early;desc;IN_PROGRESS;2024-01-01 08:00:00;30");
+            createAndSaveTask("done;desc;DONE;2024-01-01 07:00:00;30");
+            createAndSaveTask("future;desc;NEW;2024-01-01 12:00:00;30");
+            createAndSaveTask("unscheduled;desc;NEW;null;30");
+            Epic epic = createAndSaveEpic("epic;desc");
+            Subtask sub = createAndSaveSubtask("sub;desc;NEW;" + epic.getId() + ";2024-01-01 10:30:00;15");
+
+            List<Task> overdue = manager.getOverdue(parseTime("2024-01-01 10:45:00"), null, 0, 10);
+
+            assertEquals(List.of(early.getId(), late.getId()), overdue.stream().map(Task::getId).toList());
+            assertEquals(List.of(early.getId(), late.getId(), sub.getId()),
+                    manager.getOverdue(parseTime("2024-01-01 10:45:01"), null, 0, 10).stream()
+                            .map(Task::getId).toList());
+        }
+
+        @Test
+        @DisplayName("индекс обновляется при изменении статуса и времени, страницы идут друг за другом")
+        public void testThatIndexFollowsUpdatesAndPages() {
+            Task first = createAndSaveTask("first;desc;NEW;2024-01-01 08:00:00;30");
+            Task second = createAndSaveTask("second;desc;NEW;2024-01-01 09:00:00;30");
+            Task third = createAndSaveTask("third;desc;NEW;2024-01-01 10:00:00;30");
+            LocalDateTime now = parseTime("2024-01-02 00:00:00");
+
+            List<Task> page = manager.getOverdue(now, null, 0, 2);
+            assertEquals(List.of(first.getId(), second.getId()), page.stream().map(Task::getId).toList());
+            Task last = page.getLast();
+            assertEquals(List.of(third.getId()), manager.getOverdue(now, last.getEndTime(), last.getId(), 2).stream()
+                    .map(Task::getId).toList());
+
+            manager.updateTask(new Task(first.getId(), "first", "desc", DONE, first.getStartTime(),
+                    first.getDuration()));
+            manager.updateTask(new Task(second.getId(), "second", "desc", NEW, parseTime("2024-01-03 09:00:00"),
+                    Duration.ofMinutes(30)));
+            manager.removeTaskById(third.getId());
+
+            assertTrue(manager.getOverdue(now, null, 0, 10).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("При подсчете загрузки")
+    class WhenComputingUtilization {
+
+        @Test
+        @DisplayName("занятое время делится по дням и суммируется по неделям, эпики не учитываются")
+        public void testThatBookedTimeIsSplitByDaysAndWeeks() {
+            createAndSaveTask("task1;desc;NEW;2024-01-01 10:00:00;60");
+            createAndSaveTask("через полночь;desc;NEW;2024-01-01 23:00:00;120");
+            Epic epic = createAndSaveEpic("epic;desc");
+            createAndSaveSubtask("sub;desc;NEW;" + epic.getId() + ";2024-01-09 09:00:00;30");
+            createAndSaveTask("без продолжительности;desc;NEW;2024-01-02 12:00:00;null");
+
+            List<Utilization> days = manager.getUtilization(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 2),
+                    ChronoUnit.DAYS);
+
+            assertEquals(2, days.size());
+            assertEquals(120, days.get(0).getBookedMinutes());
+            assertEquals(24 * 60 - 120, days.get(0).getFreeMinutes());
+            assertEquals(60, days.get(1).getBookedMinutes());
+            assertEquals(parseTime("2024-01-02 00:00:00"), days.get(1).getStart());
+
+            List<Utilization> weeks = manager.getUtilization(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 10),
+                    ChronoUnit.WEEKS);
+
+            assertEquals(List.of(180L, 30L), weeks.stream().map(Utilization::getBookedMinutes).toList());
+            assertEquals(parseTime("2024-01-11 00:00:00"), weeks.get(1).getEnd());
+            assertEquals(3 * 24 * 60 - 30, weeks.get(1).getFreeMinutes());
+        }
+
+        @Test
+        @DisplayName("загрузка меняется при изменении и удалении задач")
+        public void testThatUtilizationFollowsUpdates() {
+            Task task = createAndSaveTask("task;desc;NEW;2024-01-01 10:00:00;60");
+            createAndSaveTask("далеко;desc;NEW;2030-06-01 10:00:00;60");
+            LocalDate day = LocalDate.of(2024, 1, 1);
+
+            manager.updateTask(new Task(task.getId(), "task", "desc", NEW, parseTime("2023-12-31 10:00:00"),
+                    Duration.ofMinutes(90)));
+            assertEquals(0, manager.getUtilization(day, day, ChronoUnit.DAYS).getFirst().getBookedMinutes());
+            assertEquals(90, manager.getUtilization(day.minusDays(1), day, ChronoUnit.WEEKS).getFirst()
+                    .getBookedMinutes());
+
+            manager.removeTaskById(task.getId());
+            assertEquals(0, manager.getUtilization(day.minusDays(1), day, ChronoUnit.DAYS).getFirst()
+                    .getBookedMinutes());
+            assertEquals(60, manager.getUtilization(day, LocalDate.of(2030, 12, 31), ChronoUnit.WEEKS).stream()
+                    .mapToLong(Utilization::getBookedMinutes).sum());
+        }
+
+        @Test
+        @DisplayName("задачи за пределами окна не учитываются, а длинная задача обрезается по его краю")
+        public void testThatUtilizationIsLimitedToWindow() {
+            manager.saveTask(new Task("далекое будущее", "desc", NEW, LocalDateTime.of(100_000_000, 1, 1, 10, 0),
+                    Duration.ofMinutes(60)));
+            manager.saveTask(new Task("далекое прошлое", "desc", NEW, LocalDateTime.of(-100_000_000, 1, 1, 10, 0),
+                    Duration.ofMinutes(60)));
+            manager.saveTask(new Task("на тысячу лет", "desc", NEW, parseTime("2199-12-31 23:00:00"),
+                    Duration.ofDays(365L * 1000)));
+            createAndSaveTask("task;desc;NEW;2024-01-01 10:00:00;60");
+
+            LocalDate lastDay = LocalDate.of(2199, 12, 31);
+            assertEquals(60, manager.getUtilization(lastDay, lastDay, ChronoUnit.DAYS).getFirst().getBookedMinutes());
+            assertEquals(0, manager.getUtilization(lastDay.plusDays(1), lastDay.plusDays(7), ChronoUnit.WEEKS)
+                    .getFirst().getBookedMinutes());
+            assertEquals(60, manager.getUtilization(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 1),
+                    ChronoUnit.DAYS).getFirst().getBookedMinutes());
+        }
+
+        @Test
+        @DisplayName("задачи на обоих краях окна учитываются")
+        public void testThatTasksAtBothWindowEdgesAreCounted() {
+            createAndSaveTask("первый день;desc;NEW;1900-01-01 10:00:00;60");
+            createAndSaveTask("последний день;desc;NEW;2199-12-31 10:00:00;30");
+
+            LocalDate firstDay = LocalDate.of(1900, 1, 1);
+            LocalDate lastDay = LocalDate.of(2199, 12, 31);
+            assertEquals(60, manager.getUtilization(firstDay, firstDay, ChronoUnit.DAYS).getFirst()
+                    .getBookedMinutes());
+            assertEquals(30, manager.getUtilization(lastDay, lastDay, ChronoUnit.DAYS).getFirst()
+                    .getBookedMinutes());
+        }
+    }
+
+    @Nested
+    @DisplayName("При сборе статистики")
+    class WhenCollectingStats {
+
+        @Test
+        @DisplayName("счетчики совпадают с содержимым менеджера после изменений и удалений")
+        public void testThatStatsFollowChanges() {
+            Task task = createAndSaveTask("task;desc;NEW;2024-01-01 10:00:00;60");
+            createAndSaveTask("done;desc;DONE;null;30");
+            createAndSaveTask("no duration;desc;IN_PROGRESS;null;null");
+            Epic epic = createAndSaveEpic("epic;desc");
+            Subtask sub = createAndSaveSubtask("sub;desc;DONE;" + epic.getId() + ";2024-01-02 10:00:00;90");
+            createAndSaveEpic("empty;desc");
+            manager.getTaskById(task.getId());
+
+            BoardStats stats = manager.getStats();
+
+            assertEquals(6, stats.getTotal());
+            assertEquals(3, stats.getByType().get(TaskType.TASK));
+            assertEquals(2, stats.getByType().get(TaskType.EPIC));
+            assertEquals(3, stats.getByStatus().get(DONE));
+            assertEquals(1, stats.getEpicsByStatus().get(DONE));
+            assertEquals(1, stats.getEpicsByStatus().get(NEW));
+            assertEquals(180, stats.getTotalDurationMinutes());
+            assertEquals(60.0, stats.getAverageDurationMinutes());
+            assertEquals(1, stats.getHistorySize());
+
+            manager.updateTask(new Task(task.getId(), "task", "desc", DONE, task.getStartTime(),
+                    Duration.ofMinutes(30)));
+            manager.removeSubtaskById(sub.getId());
+            stats = manager.getStats();
+
+            assertEquals(5, stats.getTotal());
+            assertEquals(0, stats.getEpicsByStatus().get(DONE));
+            assertEquals(2, stats.getByStatus().get(DONE));
+            assertEquals(60, stats.getTotalDurationMinutes());
+            assertEquals(0, stats.getByType().get(TaskType.SUBTASK));
+        }
+    }
+
+    @Nested
+    @DisplayName("При поиске")
+    class WhenSearching {
+
+        @Test
+        @DisplayName("находятся задачи всех типов по словам из имени и описания без учета регистра")
+        public void testThatSearchFindsTasksByNameAndDescription() {
+            Task task = createAndSaveTask("Сварить кофе", "до начала работы");
+            Epic epic = createAndSaveEpic("Исправить замечание;сварить кофе и почитать хабр");
+            Subtask sub = createAndSaveSubtask("почитать ХАБР;про кофе;NEW;" + epic.getId() + ";null;null");
+            createAndSaveTask("сделать фикс", "без кофеина");
+
+            assertIterableEquals(List.of(task, epic, sub), manager.search("КОФЕ", 0, 10));
+            assertIterableEquals(List.of(epic, sub), manager.search("кофе хабр", 0, 10));
+            assertEmpty(manager.search("чай", 0, 10));
+        }
+
+        @Test
+        @DisplayName("более релевантные задачи возвращаются первыми, а результаты разбиваются на страницы")
+        public void testThatSearchRanksAndPaginates() {
+            Task task1 = createAndSaveTask("отчет", "написать");
+            Task task2 = createAndSaveTask("отчет", "отчет отчет");
+            Task task3 = createAndSaveTask("отчет", "отчет");
+
+            assertIterableEquals(List.of(task2, task3, task1), manager.search("отчет", 0, 10));
+            assertIterableEquals(List.of(task3), manager.search("отчет", 1, 1));
+        }
+
+        @Test
+        @DisplayName("индекс обновляется при изменении и удалении задач")
+        public void testThatSearchFollowsUpdatesAndRemovals() {
+            Task task = createAndSaveTask("проверить почту", "desc");
+            Epic epic = createAndSaveEpic("epic;desc");
+            Subtask sub = createAndSaveSubtask("проверить код;desc;NEW;" + epic.getId() + ";null;null");
+
+            manager.updateTask(new Task(task.getId(), "прочитать почту", "desc", null, null));
+            assertIterableEquals(List.of(sub), manager.search("проверить", 0, 10));
+
+            manager.removeEpics();
+            assertEmpty(manager.search("проверить", 0, 10));
+            assertEquals(1, manager.search("почту", 0, 10).size());
+        }
+    }
+
+    @Nested
+    @DisplayName("При изменении коллекций")
+    class WhenVersioning {
+
+        @Test
+        @DisplayName("версия коллекции растет только при ее изменении")
+        public void testThatVersionGrowsOnlyOnChange() {
+            long taskVersion = manager.getVersion(TaskType.TASK);
+            long epicVersion = manager.getVersion(TaskType.EPIC);
+
+            Task task = createAndSaveTask("task1;desc1;NEW;2024-01-01 00:00:00;60");
+            assertTrue(manager.getVersion(TaskType.TASK) > taskVersion);
+            assertEquals(epicVersion, manager.getVersion(TaskType.EPIC));
+
+            taskVersion = manager.getVersion(TaskType.TASK);
+            manager.getTaskById(task.getId());
+            manager.getTasks();
+            assertEquals(taskVersion, manager.getVersion(TaskType.TASK));
+
+            manager.removeTaskById(task.getId());
+            assertTrue(manager.getVersion(TaskType.TASK) > taskVersion);
+        }
+
+        @Test
+        @DisplayName("изменение подзадачи меняет версии подзадач, эпиков и приоритетного списка")
+        public void testThatSubtaskChangeBumpsDependentVersions() {
+            Epic epic = createAndSaveEpic("epic1;desc1");
+            long epicVersion = manager.getVersion(TaskType.EPIC);
+            long subtaskVersion = manager.getVersion(TaskType.SUBTASK);
+            long prioritizedVersion = manager.getPrioritizedVersion();
+
+            createAndSaveSubtask("sub1;desc2;NEW;" + epic.getId() + ";2024-01-01 00:00:00;60");
+
+            assertTrue(manager.getVersion(TaskType.EPIC) > epicVersion);
+            assertTrue(manager.getVersion(TaskType.SUBTASK) > subtaskVersion);
+            assertTrue(manager.getPrioritizedVersion() > prioritizedVersion);
+        }
+    }
+
+    @Nested
+    @DisplayName("При изменении задач слушатели")
+    class WhenListening {
+
+        private final List<TaskEvent> events = new ArrayList<>();
+
+        @BeforeEach
+        public void setup() {
+            manager.addListener(events::add);
+        }
+
+        @Test
+        @DisplayName("получают события создания, изменения и удаления с версиями до и после")
+        public void testThatListenerReceivesTaskEvents() {
+            Task task = createAndSaveTask("task1;desc1;NEW;null;null");
+            Task newTask = task.withStatus(DONE);
+            manager.updateTask(newTask);
+            manager.removeTaskById(task.getId());
+
+            assertEquals(3, events.size());
+
+            assertEquals(TaskEvent.Type.CREATED, events.get(0).getType());
+            assertNull(events.get(0).getBefore());
+            assertSame(task, events.get(0).getAfter());
+
+            assertEquals(TaskEvent.Type.UPDATED, events.get(1).getType());
+            assertSame(task, events.get(1).getBefore());
+            assertSame(newTask, events.get(1).getAfter());
+
+            assertEquals(TaskEvent.Type.DELETED, events.get(2).getType());
+            assertSame(newTask, events.get(2).getBefore());
+            assertNull(events.get(2).getAfter());
+        }
+
+        @Test
+        @DisplayName("узнают о пересчете эпика при сохранении подзадачи")
+        public void testThatListenerReceivesEpicRecalculation() {
+            Epic epic = createAndSaveEpic("epic1;desc1");
+            events.clear();
+
+            createAndSaveSubtask("sub1;desc2;DONE;" + epic.getId() + ";null;null");
+
+            assertEquals(2, events.size());
+            assertEquals(TaskType.SUBTASK, events.get(0).getTaskType());
+            assertEquals(TaskEvent.Type.UPDATED, events.get(1).getType());
+            assertEquals(NEW, events.get(1).getBefore().getStatus());
+            assertEquals(DONE, events.get(1).getAfter().getStatus());
+        }
+
+        @Test
+        @DisplayName("версии эпика в полученном событии не меняются при следующих изменениях")
+        public void testThatEventVersionsDoNotChangeLater() {
+            Epic epic = createAndSaveEpic("epic1;desc1");
+            Subtask subtask = createAndSaveSubtask("sub1;desc2;NEW;" + epic.getId() + ";null;null");
+            TaskEvent epicUpdated = updatesOf(epic.getId()).getFirst();
+
+            manager.updateSubtask(subtask.withStatus(DONE));
+            manager.removeSubtaskById(subtask.getId());
+
+            assertEquals(TaskType.EPIC, epicUpdated.getTaskType());
+            assertEquals(List.of(), ((Epic) epicUpdated.getBefore()).getSubtasksId());
+            assertEquals(NEW, epicUpdated.getAfter().getStatus());
+            assertEquals(List.of(subtask.getId()), ((Epic) epicUpdated.getAfter()).getSubtasksId());
+            assertNotSame(epicUpdated.getBefore(), epicUpdated.getAfter());
+            assertEquals(DONE, updatesOf(epic.getId()).get(1).getAfter().getStatus());
+        }
+
+        @Test
+        @DisplayName("событие подзадачи приходит раньше события пересчитанного эпика")
+        public void testThatSubtaskEventPrecedesEpicEvent() {
+            Epic epic = createAndSaveEpic("epic1;desc1");
+            events.clear();
+
+            Subtask subtask = createAndSaveSubtask("sub1;desc2;NEW;" + epic.getId() + ";null;null");
+
+            assertEquals(List.of(subtask.getId(), epic.getId()), events.stream().map(TaskEvent::getTaskId).toList());
+        }
+
+        private List<TaskEvent> updatesOf(int id) {
+            return events.stream()
+                    .filter(event -> event.getType() == TaskEvent.Type.UPDATED && event.getTaskId() == id)
+                    .toList();
+        }
+
+        @Test
+        @DisplayName("после отписки событий не получают")
+        public void testThatRemovedListenerReceivesNothing() {
+            TaskListener listener = events::add;
+            manager.addListener(listener);
+            manager.removeListener(listener);
+
+            createAndSaveTask("task1;desc1;NEW;null;null");
+
+            assertEquals(1, events.size());
+        }
+
+        @Test
+        @DisplayName("узнают о завершении операции один раз, даже если событий было несколько")
+        public void testThatListenerIsCommittedOncePerOperation() {
+            createAndSaveEpicWithSubtasks(2);
+            List<Integer> commits = new ArrayList<>();
+            manager.addListener(new TaskListener() {
+                @Override
+                public void onTaskEvent(TaskEvent event) {
+                }
+
+                @Override
+                public void onCommit() {
+                    commits.add(events.size());
+                }
+            });
+            events.clear();
+
+            manager.removeEpics();
+
+            assertEquals(3, events.size());
+            assertEquals(List.of(3), commits);
+        }
+
+        @Test
+        @DisplayName("асинхронный слушатель получает события в порядке операций")
+        public void testThatAsyncListenerReceivesEventsInOrder() throws InterruptedException {
+            List<TaskEvent> asyncEvents = new CopyOnWriteArrayList<>();
+            CountDownLatch committed = new CountDownLatch(2);
+            TaskListener listener = new TaskListener() {
+                @Override
+                public void onTaskEvent(TaskEvent event) {
+                    asyncEvents.add(event);
+                }
+
+                @Override
+                public void onCommit() {
+                    committed.countDown();
+                }
+            };
+            manager.addAsyncListener(listener);
+
+            Task task = createAndSaveTask("task1;desc1;NEW;null;null");
+            manager.removeTaskById(task.getId());
+
+            assertTrue(committed.await(5, TimeUnit.SECONDS));
+            manager.removeListener(listener);
+            assertEquals(List.of(TaskEvent.Type.CREATED, TaskEvent.Type.DELETED),
+                    asyncEvents.stream().map(TaskEvent::getType).toList());
+        }
+    }
+
     @Nested
     @DisplayName("При пересчете статуса эпика")
     class WhenEpicStatusUpdate{
@@ -1023,8 +1714,8 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         @Test
         @DisplayName("Если список подзадач пуст, то статус NEW")
         public void testThanStatusIsNewWhenSubtaskListIsEmpty() {
-            manager.updateEpic(epic);
-            assertEquals(NEW, epic.getStatus());
+            manager.updateEpic(getStoredEpic(epic));
+            assertEquals(NEW, getStoredEpic(epic).getStatus());
         }
 
         @Test
@@ -1033,9 +1724,9 @@ public abstract class TaskManagerTest<T extends TaskManager> {
             createAndSaveSubtask(NEW, epic);
             createAndSaveSubtask(NEW, epic);
 
-            manager.updateEpic(epic);
+            manager.updateEpic(getStoredEpic(epic));
 
-            assertEquals(NEW, epic.getStatus());
+            assertEquals(NEW, getStoredEpic(epic).getStatus());
         }
 
         @Test
@@ -1044,9 +1735,9 @@ public abstract class TaskManagerTest<T extends TaskManager> {
             createAndSaveSubtask(DONE, epic);
             createAndSaveSubtask(DONE, epic);
 
-            manager.updateEpic(epic);
+            manager.updateEpic(getStoredEpic(epic));
 
-            assertEquals(DONE, epic.getStatus());
+            assertEquals(DONE, getStoredEpic(epic).getStatus());
         }
 
         @Test
@@ -1055,9 +1746,9 @@ public abstract class TaskManagerTest<T extends TaskManager> {
             createAndSaveSubtask(DONE, epic);
             createAndSaveSubtask(NEW, epic);
 
-            manager.updateEpic(epic);
+            manager.updateEpic(getStoredEpic(epic));
 
-            assertEquals(IN_PROGRESS, epic.getStatus());
+            assertEquals(IN_PROGRESS, getStoredEpic(epic).getStatus());
         }
 
         @Test
@@ -1066,9 +1757,9 @@ public abstract class TaskManagerTest<T extends TaskManager> {
             createAndSaveSubtask(IN_PROGRESS, epic);
             createAndSaveSubtask(NEW, epic);
 
-            manager.updateEpic(epic);
+            manager.updateEpic(getStoredEpic(epic));
 
-            assertEquals(IN_PROGRESS, epic.getStatus());
+            assertEquals(IN_PROGRESS, getStoredEpic(epic).getStatus());
         }
 
         @Test
@@ -1077,9 +1768,9 @@ public abstract class TaskManagerTest<T extends TaskManager> {
             createAndSaveSubtask(IN_PROGRESS, epic);
             createAndSaveSubtask(DONE, epic);
 
-            manager.updateEpic(epic);
+            manager.updateEpic(getStoredEpic(epic));
 
-            assertEquals(IN_PROGRESS, epic.getStatus());
+            assertEquals(IN_PROGRESS, getStoredEpic(epic).getStatus());
         }
 
         @Test
@@ -1089,9 +1780,9 @@ public abstract class TaskManagerTest<T extends TaskManager> {
             createAndSaveSubtask(DONE, epic);
             createAndSaveSubtask(NEW, epic);
 
-            manager.updateEpic(epic);
+            manager.updateEpic(getStoredEpic(epic));
 
-            assertEquals(IN_PROGRESS, epic.getStatus());
+            assertEquals(IN_PROGRESS, getStoredEpic(epic).getStatus());
         }
     }
 
@@ -1155,6 +1846,11 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         return sub;
     }
 
+    // Эпик неизменяем: после изменения подзадач менеджер хранит его пересчитанную копию
+    protected Epic getStoredEpic(Epic epic) {
+        return manager.getEpics().stream().filter(epic::equals).findFirst().orElseThrow();
+    }
+
     protected LocalDateTime parseTime(String formattedTime) {
         return formattedTime.equals("null") ? null : LocalDateTime.parse(formattedTime, DATE_TIME_FORMATTER);
     }
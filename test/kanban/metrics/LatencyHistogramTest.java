@@ -0,0 +1,50 @@
+package kanban.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("значение попадает в корзину, верхняя граница которой не меньше его")
+    public void givenValues_whenIndex_gotBucketContainingValue() {
+        for (long value : new long[]{0, 1, 7, 8, 15, 16, 17, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.highestValueOf(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.highestValueOf(index - 1) < value);
+        }
+    }
+
+    @Test
+    @DisplayName("погрешность квантиля не больше 12,5%")
+    public void givenUniformValues_whenQuantile_gotValueWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1_000);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(50_005_000_000L, histogram.getSumNanos());
+
+        long median = histogram.valueAtQuantile(0.5);
+        assertTrue(median >= 5_000_000 && median <= 5_000_000 * 1.125, "median " + median);
+        long p999 = histogram.valueAtQuantile(0.999);
+        assertTrue(p999 >= 9_990_000 && p999 <= 9_990_000 * 1.125, "p999 " + p999);
+    }
+
+    @Test
+    @DisplayName("счетчик ниже степени двойки учитывает только меньшие значения")
+    public void givenValues_whenCountBelowPowerOfTwo_gotSmallerOnes() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(1023);
+        histogram.record(1024);
+        histogram.record(-5);
+
+        assertEquals(2, histogram.countBelowPowerOfTwo(2));
+        assertEquals(3, histogram.countBelowPowerOfTwo(10));
+        assertEquals(4, histogram.countBelowPowerOfTwo(11));
+    }
+}
@@ -0,0 +1,40 @@
+package kanban.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    @DisplayName("повторная регистрация возвращает ту же метрику")
+    public void givenRegisteredMetric_whenRegisterAgain_gotSameMetric() {
+        MetricsRegistry registry = new MetricsRegistry();
+
+        Counter counter = registry.counter("requests_total", "help", "route", "/tasks");
+
+        assertSame(counter, registry.counter("requests_total", "help", "route", "/tasks"));
+        assertNotSame(counter, registry.counter("requests_total", "help", "route", "/epics"));
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("requests_total", "help"));
+    }
+
+    @Test
+    @DisplayName("выгрузка в текстовом формате Prometheus")
+    public void givenMetrics_whenScrape_gotPrometheusText() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("responses_total", "Ответы", "code", "200").add(3);
+        LatencyHistogram histogram = registry.histogram("latency_seconds", "Задержка", "route", "a\"b");
+        histogram.record(500);
+        histogram.record(2_000_000_000L);
+
+        String text = registry.scrape();
+
+        assertTrue(text.contains("# TYPE responses_total counter\nresponses_total{code=\"200\"} 3\n"), text);
+        assertTrue(text.contains("# TYPE latency_seconds histogram\n"), text);
+        assertTrue(text.contains("latency_seconds_bucket{route=\"a\\\"b\",le=\"1.024E-6\"} 1\n"), text);
+        assertTrue(text.contains("latency_seconds_bucket{route=\"a\\\"b\",le=\"+Inf\"} 2\n"), text);
+        assertTrue(text.contains("latency_seconds_sum{route=\"a\\\"b\"} 2.0000005\n"), text);
+        assertTrue(text.contains("latency_seconds_count{route=\"a\\\"b\"} 2\n"), text);
+    }
+}
@@ -32,15 +32,18 @@ class EpicTest {
         // добавляем первую подзадачу
         Subtask sub1 = new Subtask("sub1", "desc1", epic, null, null);
         manager.saveSubtask(sub1);
-        epic.addSubtaskIdIfAbsent(sub1);
-        assertIterableEquals(List.of(sub1), manager.getSubtasksOfEpic(epic));
+        Epic epic1 = epic.withSubtaskId(sub1.getId());
+        assertIterableEquals(List.of(sub1.getId()), epic1.getSubtasksId());
 
         // добавляем вторую подзадачу
         Subtask sub2 = new Subtask("sub2", "desc2", epic, null, null);
         manager.saveSubtask(sub2);
-        epic.addSubtaskIdIfAbsent(sub2);
-        assertIterableEquals(List.of(sub1, sub2), manager.getSubtasksOfEpic(epic));
+        Epic epic2 = epic1.withSubtaskId(sub2.getId());
+        assertIterableEquals(List.of(sub1.getId(), sub2.getId()), epic2.getSubtasksId());
 
+        // исходные эпики не меняются
+        assertEmpty(epic.getSubtasksId());
+        assertIterableEquals(List.of(sub1.getId()), epic1.getSubtasksId());
     }
 
     @Test
@@ -50,10 +53,9 @@ class EpicTest {
         Subtask sub1 = new Subtask("sub1", "desc1", epic, null, null);
         manager.saveSubtask(sub1);
 
-        epic.addSubtaskIdIfAbsent(sub1);
-        epic.addSubtaskIdIfAbsent(sub1);
+        Epic newEpic = epic.withSubtaskId(sub1.getId()).withSubtaskId(sub1.getId());
 
-        assertIterableEquals(List.of(sub1), manager.getSubtasksOfEpic(epic));
+        assertIterableEquals(List.of(sub1.getId()), newEpic.getSubtasksId());
     }
 
     @Test
@@ -61,14 +63,15 @@ class EpicTest {
     void removeSubtaskIdIfPresent() {
         Subtask sub1 = new Subtask("sub1", "desc1", epic, null, null);
         manager.saveSubtask(sub1);
-        epic.addSubtaskIdIfAbsent(sub1);
 
         Subtask sub2 = new Subtask("sub2", "desc2", epic, null, null);
         manager.saveSubtask(sub2);
-        epic.addSubtaskIdIfAbsent(sub2);
 
-        epic.removeSubtask(sub1);
-        assertIterableEquals(List.of(sub2), manager.getSubtasksOfEpic(epic));
+        Epic stored = manager.getEpicById(epic.getId()).orElseThrow();
+        Epic newEpic = stored.withoutSubtaskId(sub1.getId());
+
+        assertIterableEquals(List.of(sub2.getId()), newEpic.getSubtasksId());
+        assertIterableEquals(List.of(sub1.getId(), sub2.getId()), stored.getSubtasksId());
     }
 
     @Test
@@ -83,7 +86,7 @@ class EpicTest {
         Subtask sub = new Subtask("sub1", "desc1", epic1, null, null);
         manager.saveSubtask(sub);
 
-        epic2.removeSubtask(sub);
+        assertEmpty(epic2.withoutSubtaskId(sub.getId()).getSubtasksId());
         assertEmpty(manager.getSubtasksOfEpic(epic2));
     }
 
@@ -92,15 +95,13 @@ class EpicTest {
     void removeSubtasks() {
         Subtask sub1 = new Subtask("sub1", "desc1", epic, null, null);
         manager.saveSubtask(sub1);
-        epic.addSubtaskIdIfAbsent(sub1);
 
         Subtask sub2 = new Subtask("sub2", "desc2", epic, null, null);
         manager.saveSubtask(sub2);
-        epic.addSubtaskIdIfAbsent(sub2);
 
-        epic.removeSubtasks();
+        Epic stored = manager.getEpicById(epic.getId()).orElseThrow();
 
-        assertEmpty(epic.getSubtasksId());
+        assertEmpty(stored.withSubtasksId(List.of()).getSubtasksId());
     }
 
     @Test
@@ -124,14 +125,12 @@ class EpicTest {
 
         assertEquals(NEW, epic.getStatus());
 
-        subtasks.getFirst().setStatus(IN_PROGRESS);
-        epic.update(subtasks);
-        assertEquals(IN_PROGRESS, epic.getStatus());
+        subtasks = List.of(subtasks.getFirst().withStatus(IN_PROGRESS), subtasks.get(1));
+        assertEquals(IN_PROGRESS, epic.updated(subtasks).getStatus());
 
-        subtasks.get(0).setStatus(DONE);
-        subtasks.get(1).setStatus(DONE);
-        epic.update(subtasks);
-        assertEquals(DONE, epic.getStatus());
+        subtasks = List.of(subtasks.get(0).withStatus(DONE), subtasks.get(1).withStatus(DONE));
+        assertEquals(DONE, epic.updated(subtasks).getStatus());
+        assertEquals(NEW, epic.getStatus());
     }
 
     @Test
@@ -145,12 +144,10 @@ class EpicTest {
                 new Subtask("sub3", "desc3", NEW, epic, null, Duration.ofMinutes(2))
         );
 
-        epic.update(subtasks);
-        assertEquals(Duration.ofMinutes(3), epic.getDuration());
+        assertEquals(Duration.ofMinutes(3), epic.updated(subtasks).getDuration());
 
-        subtasks.getFirst().setDuration(Duration.ofMinutes(3));
-        epic.update(subtasks);
-        assertEquals(Duration.ofMinutes(5), epic.getDuration());
+        subtasks = List.of(subtasks.get(0).withDuration(Duration.ofMinutes(3)), subtasks.get(1), subtasks.get(2));
+        assertEquals(Duration.ofMinutes(5), epic.updated(subtasks).getDuration());
     }
 
     @Test
@@ -164,13 +161,14 @@ class EpicTest {
                 new Subtask("sub3", "desc3", NEW, epic, LocalDateTime.parse("2024-01-02T00:00:00"), null)
         );
 
-        epic.update(subtasks);
+        epic = epic.updated(subtasks);
         assertEquals(LocalDateTime.parse("2024-01-01T00:00:00"), epic.getStartTime(),
                 String.format("Время начала должно быть 2024-01-01T00:00:00, а не %s", epic.getStartTime())
         );
 
-        subtasks.getFirst().setStartTime(LocalDateTime.parse("2024-01-03T00:00:00"));
-        epic.update(subtasks);
+        subtasks = List.of(subtasks.get(0).withStartTime(LocalDateTime.parse("2024-01-03T00:00:00")),
+                subtasks.get(1), subtasks.get(2));
+        epic = epic.updated(subtasks);
         assertEquals(LocalDateTime.parse("2024-01-02T00:00:00"), epic.getStartTime(),
                 String.format("Время начала должно быть 2024-01-02T00:00:00, а не %s", epic.getStartTime())
         );
@@ -189,19 +187,20 @@ class EpicTest {
                         LocalDateTime.parse("2024-01-02T00:00:00"), Duration.ofHours(12))
         );
 
-        epic.update(subtasks);
+        epic = epic.updated(subtasks);
         assertEquals(LocalDateTime.parse("2024-01-02T12:00:00"), epic.getEndTime(),
                 String.format("Время окончания должно быть 2024-01-02T12:00:00, а не %s", epic.getEndTime())
         );
 
-        subtasks.getFirst().setStartTime(LocalDateTime.parse("2024-01-03T00:00:00"));
-        epic.update(subtasks);
+        subtasks = List.of(subtasks.get(0).withStartTime(LocalDateTime.parse("2024-01-03T00:00:00")),
+                subtasks.get(1), subtasks.get(2));
+        epic = epic.updated(subtasks);
         assertEquals(LocalDateTime.parse("2024-01-03T12:00:00"), epic.getEndTime(),
                 String.format("Время окончания должно быть 2024-01-03T12:00:00, а не %s", epic.getEndTime())
         );
 
-        subtasks.getFirst().setDuration(Duration.ofHours(24));
-        epic.update(subtasks);
+        subtasks = List.of(subtasks.get(0).withDuration(Duration.ofHours(24)), subtasks.get(1), subtasks.get(2));
+        epic = epic.updated(subtasks);
         assertEquals(LocalDateTime.parse("2024-01-04T00:00:00"), epic.getEndTime(),
                 String.format("Время окончания должно быть 2024-01-04T00:00:00, а не %s", epic.getEndTime())
         );
@@ -4,8 +4,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNull;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 class TaskTest {
 
@@ -20,16 +22,16 @@ class TaskTest {
     @DisplayName("Установить имя")
     void setName() {
         String newName = "new name";
-        task.setName(newName);
-        assertEquals(newName, task.getName());
+        assertEquals(newName, task.withName(newName).getName());
+        assertEquals("name", task.getName());
     }
 
     @Test
     @DisplayName("Установить описание")
     void setDescription() {
         String newDescription = "new desc";
-        task.setDescription(newDescription);
-        assertEquals(newDescription, task.getDescription());
+        assertEquals(newDescription, task.withDescription(newDescription).getDescription());
+        assertEquals("desc", task.getDescription());
     }
 
     @Test
@@ -40,12 +42,20 @@ class TaskTest {
         assertEquals(id, task.getId());
     }
 
+    @Test
+    @DisplayName("Проверить, что id задачи нельзя переназначить")
+    void testThatIdCannotBeReassigned() {
+        task.setId(1);
+        assertThrows(IllegalStateException.class, () -> task.setId(2));
+        assertEquals(1, task.getId());
+    }
+
     @Test
     @DisplayName("Установить статус")
     void setStatus() {
         TaskStatus newStatus = TaskStatus.DONE;
-        task.setStatus(newStatus);
-        assertEquals(newStatus, task.getStatus());
+        assertEquals(newStatus, task.withStatus(newStatus).getStatus());
+        assertEquals(TaskStatus.NEW, task.getStatus());
     }
 
     @Test
@@ -62,4 +72,38 @@ class TaskTest {
         assertNull(task.getId());
         assertEquals(TaskStatus.NEW, task.getStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Проверить, что with-методы возвращают копию, а исходная задача не меняется")
+    void testThatWithersReturnChangedCopy() {
+        LocalDateTime startTime = LocalDateTime.parse("2024-01-01T00:00:00");
+        Duration duration = Duration.ofMinutes(30);
+
+        Task newTask = task.withStatus(TaskStatus.DONE)
+                .withStartTime(startTime)
+                .withDuration(duration);
+
+        assertNotSame(task, newTask);
+        assertEquals(TaskStatus.DONE, newTask.getStatus());
+        assertEquals(startTime, newTask.getStartTime());
+        assertEquals(duration, newTask.getDuration());
+
+        assertEquals(TaskStatus.NEW, task.getStatus());
+        assertNull(task.getStartTime());
+        assertNull(task.getDuration());
+    }
+
+    @Test
+    @DisplayName("Проверить, что with-методы сохраняют тип и данные подзадачи и эпика")
+    void testThatWithersKeepSubclassState() {
+        Epic epic = new Epic(1, "epic", "desc").withSubtaskId(2);
+        Subtask sub = new Subtask(2, "sub", "desc", TaskStatus.NEW, 1, null, null);
+
+        Epic newEpic = epic.withStatus(TaskStatus.DONE);
+        Subtask newSub = sub.withStatus(TaskStatus.DONE);
+
+        assertEquals(epic.getSubtasksId(), newEpic.getSubtasksId());
+        assertEquals(sub.getEpicId(), newSub.getEpicId());
+        assertEquals(TaskStatus.NEW, sub.getStatus());
+    }
+}
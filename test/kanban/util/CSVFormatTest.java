@@ -13,10 +13,15 @@ import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static kanban.lib.TestAssertions.*;
@@ -57,6 +62,100 @@ class CSVFormatTest {
         assertEquals(expectedLines.get(5), lines.get(5));
     }
 
+    @Test
+    @DisplayName("Writer подменяет файл целиком и не оставляет временных файлов")
+    public void givenExistingFile_whenWrite_gotReplacedWithoutTempFiles() throws IOException {
+        Path directory = Files.createTempDirectory("tasks");
+        Path taskFile = directory.resolve("tasks.csv");
+        Files.writeString(taskFile, "old");
+
+        for (CSVFormat.SyncPolicy policy : CSVFormat.SyncPolicy.values()) {
+            try (CSVFormat.TaskFileWriter writer = CSVFormat.writer(taskFile, policy)) {
+                writer.println(createTask("1;task1;desc1;NEW;2024-09-05 01:02:03;123"));
+            }
+
+            List<Task> tasks = CSVFormat.loadTasksFromFile(taskFile);
+            assertEquals(1, tasks.size(), policy.name());
+            try (var files = Files.list(directory)) {
+                assertEquals(List.of(taskFile), files.toList(), policy.name());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Writer сохраняет права файла задач и перезаписывает оставшийся после сбоя временный файл")
+    public void givenFilePermissionsAndStaleTempFile_whenWrite_gotSamePermissions() throws IOException {
+        Path directory = Files.createTempDirectory("tasks");
+        Path taskFile = directory.resolve("tasks.csv");
+        Files.writeString(taskFile, "old");
+        Files.writeString(directory.resolve("tasks.csv.tmp"), "остаток оборванной записи");
+        boolean isPosix = Files.getFileStore(taskFile).supportsFileAttributeView(PosixFileAttributeView.class);
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+        if (isPosix) {
+            Files.setPosixFilePermissions(taskFile, permissions);
+        }
+
+        try (CSVFormat.TaskFileWriter writer = CSVFormat.writer(taskFile)) {
+            writer.println(createTask("1;task1;desc1;NEW;2024-09-05 01:02:03;123"));
+        }
+
+        assertEquals(1, CSVFormat.loadTasksFromFile(taskFile).size());
+        if (isPosix) {
+            assertEquals(permissions, Files.getPosixFilePermissions(taskFile));
+        }
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of(taskFile), files.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Прерванная запись оставляет прежний файл")
+    public void givenAbortedWrite_whenLoad_gotPreviousContent() throws IOException {
+        Path directory = Files.createTempDirectory("tasks");
+        Path taskFile = directory.resolve("tasks.csv");
+
+        try (CSVFormat.TaskFileWriter writer = CSVFormat.writer(taskFile, CSVFormat.SyncPolicy.PER_COMMIT)) {
+            writer.println(createTask("1;task1;desc1;NEW;2024-09-05 01:02:03;123"));
+        }
+        List<String> before = Files.readAllLines(taskFile, StandardCharsets.UTF_8);
+
+        CSVFormat.TaskFileWriter writer = CSVFormat.writer(taskFile, CSVFormat.SyncPolicy.PER_COMMIT);
+        writer.println(createTask("2;task2;desc2;NEW;2024-09-05 01:02:03;123"));
+        writer.abort();
+        writer.close();
+
+        assertEquals(before, Files.readAllLines(taskFile, StandardCharsets.UTF_8));
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of(taskFile), files.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Параллельная загрузка возвращает те же задачи в том же порядке")
+    public void givenSmallChunks_whenLoadInParallel_gotSameOrderAsSequential() throws IOException {
+        Path taskFile = Files.createTempFile("tasks", ".csv");
+
+        try (CSVFormat.TaskFileWriter writer = CSVFormat.writer(taskFile)) {
+            for (int i = 1; i <= 100; i++) {
+                writer.println(createTask(i + ";задача" + i + ";описание;NEW;2024-09-05 01:02:03;123"));
+            }
+            writer.println(createEpic("101;эпик;desc;NEW;null;null"));
+            for (int i = 102; i <= 200; i++) {
+                writer.println(createSubtask(i + ";подзадача;desc;DONE;101;2024-09-07 03:04:05;345"));
+            }
+        }
+
+        List<String> expected = Files.readAllLines(taskFile, StandardCharsets.UTF_8).stream().skip(1).toList();
+        try (ForkJoinPool pool = new ForkJoinPool(4)) {
+            for (int chunkSize : new int[]{1, 64, 1000, Integer.MAX_VALUE}) {
+                List<String> actual = CSVFormat.loadTasksInParallel(taskFile, pool, chunkSize).stream()
+                        .map(CSVFormatTest::toLine)
+                        .toList();
+                assertEquals(expected, actual, "chunkSize = " + chunkSize);
+            }
+        }
+    }
+
     @Test
     public void loadTasksFromFile() throws IOException {
 
@@ -176,4 +275,12 @@ class CSVFormatTest {
     private Duration parseDuration(String formattedDuration) {
         return formattedDuration.equals("null") ? null : Duration.ofMinutes(Integer.parseInt(formattedDuration));
     }
-}
\ No newline at end of file
+
+    private static String toLine(Task task) {
+        return switch (task.getType()) {
+            case TASK -> CSVFormat.taskToString(task);
+            case EPIC -> CSVFormat.taskToString((Epic) task);
+            case SUBTASK -> CSVFormat.taskToString((Subtask) task);
+        };
+    }
+}
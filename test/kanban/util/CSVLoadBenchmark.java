@@ -0,0 +1,65 @@
+package kanban.util;
+
+import kanban.tasks.Epic;
+import kanban.tasks.Subtask;
+import kanban.tasks.Task;
+import kanban.tasks.TaskStatus;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ForkJoinPool;
+
+// Время загрузки большого файла задач: построчно и параллельно на пулах разного размера.
+// Запуск: java kanban.util.CSVLoadBenchmark [задач в файле]
+public class CSVLoadBenchmark {
+
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    public static void main(String[] args) throws IOException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        Path taskFile = Files.createTempFile("tasks", ".csv");
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        try (CSVFormat.TaskFileWriter writer = CSVFormat.writer(taskFile)) {
+            int id = 1;
+            while (id <= taskCount) {
+                Epic epic = new Epic(id++, "epic", "описание эпика");
+                writer.println(epic);
+                for (int i = 0; i < 8 && id <= taskCount; i++) {
+                    writer.println(new Subtask(id, "sub" + id, "описание подзадачи", TaskStatus.NEW, epic.getId(),
+                            start.plusMinutes(id), Duration.ofMinutes(1)));
+                    id++;
+                }
+                if (id <= taskCount) {
+                    writer.println(new Task(id, "task" + id, "описание задачи", start.plusMinutes(id), null));
+                    id++;
+                }
+            }
+        }
+        System.out.printf("файл: %d задач, %.0f МиБ, ядер: %d%n", taskCount, Files.size(taskFile) / 1024.0 / 1024.0,
+                Runtime.getRuntime().availableProcessors());
+
+        for (int round = 0; round < 3; round++) {
+            long begin = System.nanoTime();
+            int loaded = CSVFormat.loadTasksSequentially(taskFile).size();
+            print("построчно", loaded, begin);
+
+            for (int parallelism : new int[]{1, 2, 4, 8}) {
+                try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+                    begin = System.nanoTime();
+                    loaded = CSVFormat.loadTasksInParallel(taskFile, pool, CHUNK_SIZE).size();
+                    print("потоков: " + parallelism, loaded, begin);
+                }
+            }
+        }
+
+        Files.delete(taskFile);
+    }
+
+    private static void print(String name, int loaded, long begin) {
+        System.out.printf("%-20s %8d задач за %6.0f мс%n", name, loaded, (System.nanoTime() - begin) / 1e6);
+    }
+}
@@ -0,0 +1,79 @@
+package kanban.util;
+
+import kanban.tasks.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflictReportTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Test
+    @DisplayName("Пересекающиеся по цепочке задачи собираются в один кластер со всеми парами")
+    public void givenChainOfOverlaps_whenReport_gotOneCluster() {
+        List<Task> tasks = List.of(
+                task(1, 0, 60L),
+                task(2, 30, 60L),
+                task(3, 80, 60L),
+                task(4, 140, 30L),
+                task(5, 300, 30L));
+
+        ConflictReport report = ConflictReport.of(tasks, 100);
+
+        assertEquals(3, report.getConflictingTasks());
+        assertFalse(report.isPairsTruncated());
+        assertEquals(1, report.getClusters().size());
+        ConflictReport.Cluster cluster = report.getClusters().getFirst();
+        assertEquals(List.of(1, 2, 3), cluster.getTaskIds());
+        assertEquals(START, cluster.getStart());
+        assertEquals(START.plusMinutes(140), cluster.getEnd());
+        assertEquals(List.of("[1, 2]", "[2, 3]"), cluster.getPairs().stream().map(Arrays::toString).toList());
+    }
+
+    @Test
+    @DisplayName("Задача без продолжительности пересекается с идущей в этот момент и начинающейся одновременно")
+    public void givenTasksWithoutDuration_whenReport_gotPointConflicts() {
+        List<Task> tasks = List.of(
+                task(1, 0, 60L),
+                task(2, 30, null),
+                task(3, 60, null),
+                task(4, 120, null),
+                task(5, 120, 10L));
+
+        ConflictReport report = ConflictReport.of(tasks, 100);
+
+        assertEquals(2, report.getClusters().size());
+        assertEquals(List.of(1, 2), report.getClusters().get(0).getTaskIds());
+        assertEquals(List.of(4, 5), report.getClusters().get(1).getTaskIds());
+    }
+
+    @Test
+    @DisplayName("Количество пар ограничено, а кластеры перечисляются все")
+    public void givenManyOverlaps_whenReportWithLimit_gotTruncatedPairs() {
+        List<Task> tasks = List.of(
+                task(1, 0, 60L),
+                task(2, 0, 60L),
+                task(3, 0, 60L),
+                task(4, 100, 60L),
+                task(5, 100, 60L));
+
+        ConflictReport report = ConflictReport.of(tasks, 2);
+
+        assertTrue(report.isPairsTruncated());
+        assertEquals(5, report.getConflictingTasks());
+        assertEquals(2, report.getClusters().size());
+        assertTrue(report.getClusters().stream().mapToInt(c -> c.getPairs().size()).sum() <= 2);
+    }
+
+    private static Task task(int id, long startMinutes, Long durationMinutes) {
+        return new Task(id, "task" + id, "desc", START.plusMinutes(startMinutes),
+                durationMinutes == null ? null : Duration.ofMinutes(durationMinutes));
+    }
+}
@@ -0,0 +1,60 @@
+package kanban.util;
+
+import kanban.metrics.LatencyHistogram;
+import kanban.tasks.Task;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Сравнивает задержку и пропускную способность записи файла задач при разных политиках сброса на диск.
+// Окно потери данных при сбое питания: NONE - до сброса кэша ОС, PERIODIC - до секунды, PER_COMMIT - нет.
+// Запуск: java kanban.util.FileSyncBenchmark [задач в файле] [записей на замер] [каталог]
+// Каталог стоит брать на настоящем диске: на tmpfs сброс ничего не стоит
+public class FileSyncBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int writes = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= taskCount; i++) {
+            tasks.add(new Task(i, "task" + i, "desc" + i, null, Duration.ofMinutes(30)));
+        }
+
+        Path directory = args.length > 2
+                ? Files.createTempDirectory(Path.of(args[2]), "sync-benchmark")
+                : Files.createTempDirectory("sync-benchmark");
+        Path taskFile = directory.resolve("tasks.csv");
+
+        // прогрев: без него первая политика платит за компиляцию
+        for (CSVFormat.SyncPolicy policy : CSVFormat.SyncPolicy.values()) {
+            write(taskFile, tasks, policy, writes, new LatencyHistogram());
+        }
+
+        System.out.printf("%-12s %10s %10s %12s%n", "политика", "p50, мкс", "p99, мкс", "записей/с");
+        for (CSVFormat.SyncPolicy policy : CSVFormat.SyncPolicy.values()) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            long start = System.nanoTime();
+            write(taskFile, tasks, policy, writes, histogram);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%-12s %10d %10d %12.0f%n", policy,
+                    histogram.valueAtQuantile(0.5) / 1000, histogram.valueAtQuantile(0.99) / 1000, writes / seconds);
+        }
+    }
+
+    private static void write(Path taskFile, List<Task> tasks, CSVFormat.SyncPolicy policy, int writes,
+                              LatencyHistogram histogram) throws IOException {
+        for (int i = 0; i < writes; i++) {
+            long start = System.nanoTime();
+            try (CSVFormat.TaskFileWriter writer = CSVFormat.writer(taskFile, policy)) {
+                tasks.forEach(writer::println);
+            }
+            histogram.recordSince(start);
+        }
+    }
+}
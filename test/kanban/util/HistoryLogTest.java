@@ -0,0 +1,117 @@
+package kanban.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoryLogTest {
+
+    @Test
+    @DisplayName("Порядок восстанавливается по просмотрам, удалениям и очистке")
+    public void givenRecords_whenReplay_gotHistoryOrder() throws IOException {
+        Path file = Files.createTempFile("history", ".log");
+
+        try (HistoryLog log = HistoryLog.open(file, List.of(5, 6))) {
+            log.view(1);
+            log.view(2);
+            log.view(1);
+            log.remove(5);
+            log.view(300);
+        }
+        assertEquals(List.of(6, 2, 1, 300), HistoryLog.replay(file));
+
+        try (HistoryLog log = HistoryLog.open(file, HistoryLog.replay(file))) {
+            log.clear();
+            log.view(7);
+        }
+        assertEquals(List.of(7), HistoryLog.replay(file));
+    }
+
+    @Test
+    @DisplayName("Оборванная при сбое запись отбрасывается")
+    public void givenTornTail_whenReplay_gotCompleteRecordsOnly() throws IOException {
+        Path file = Files.createTempFile("history", ".log");
+        try (HistoryLog log = HistoryLog.open(file, List.of())) {
+            log.view(1);
+            log.view(2);
+        }
+
+        // просмотр id 300 без последнего байта varint
+        Files.write(file, new byte[]{1, (byte) 0xAC}, StandardOpenOption.APPEND);
+
+        assertEquals(List.of(1, 2), HistoryLog.replay(file));
+    }
+
+    @Test
+    @DisplayName("Файл заменяется снимком и не растет вместе с количеством просмотров")
+    public void givenManyViews_whenFlush_gotBoundedFile() throws IOException {
+        Path file = Files.createTempFile("history", ".log");
+        try (HistoryLog log = HistoryLog.open(file, List.of())) {
+            for (int i = 0; i < 100_000; i++) {
+                log.view(i % 10);
+                if (i % 1000 == 0) {
+                    log.flush().join();
+                }
+            }
+            log.flush().join();
+
+            assertTrue(Files.size(file) < 20_000, "размер " + Files.size(file));
+        }
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), HistoryLog.replay(file));
+    }
+
+    @Test
+    @DisplayName("Ошибка записи завершает flush с ошибкой, а следующая запись восстанавливает файл снимком")
+    public void givenWriteError_whenFlush_gotExceptionAndRecovery() throws Exception {
+        Path dir = Files.createTempDirectory("history");
+        Path file = dir.resolve("history.log");
+        try (HistoryLog log = HistoryLog.open(file, List.of())) {
+            // снимок не может заменить непустой каталог на месте журнала
+            Files.delete(file);
+            Files.createDirectories(file.resolve("blocker"));
+            for (int i = 0; i < 5000; i++) {
+                log.view(1);
+            }
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> log.flush().get(10, TimeUnit.SECONDS));
+            assertInstanceOf(IOException.class, e.getCause());
+
+            deleteRecursively(file);
+            log.view(2);
+            log.flush().get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(List.of(1, 2), HistoryLog.replay(file));
+    }
+
+    @Test
+    @DisplayName("flush после закрытия журнала сразу завершается ошибкой, а не ждет вечно")
+    public void givenClosedLog_whenFlush_gotException() throws IOException {
+        Path file = Files.createTempFile("history", ".log");
+        HistoryLog log = HistoryLog.open(file, List.of());
+        log.close();
+
+        log.view(1);
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> log.flush().get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, e.getCause());
+    }
+
+    private void deleteRecursively(Path path) throws IOException {
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package kanban.util;
+
+import kanban.managers.TaskEvent;
+import kanban.tasks.Task;
+import kanban.tasks.TaskStatus;
+import kanban.tasks.TaskType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Скорость записи и восстановления журнала: задачи создаются, затем много раз меняют статус и время.
+// Запуск: java kanban.util.TaskJournalBenchmark [задач] [изменений]
+public class TaskJournalBenchmark {
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    public static void main(String[] args) throws IOException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int updates = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+
+        Path file = Files.createTempDirectory("journal-benchmark").resolve("tasks.journal");
+        Task[] tasks = new Task[taskCount];
+
+        long start = System.nanoTime();
+        try (TaskJournal journal = TaskJournal.open(file, CSVFormat.SyncPolicy.NONE)) {
+            for (int i = 0; i < taskCount; i++) {
+                tasks[i] = new Task(i + 1, "task" + i, "description of task " + i, START, Duration.ofMinutes(30));
+                journal.append(new TaskEvent(TaskEvent.Type.CREATED, TaskType.TASK, i + 1, null, tasks[i]));
+                journal.commit();
+            }
+            for (int i = 0; i < updates; i++) {
+                Task before = tasks[i % taskCount];
+                Task after = before.withStatus(STATUSES[i % STATUSES.length]).withStartTime(START.plusMinutes(i));
+                tasks[i % taskCount] = after;
+                journal.append(new TaskEvent(TaskEvent.Type.UPDATED, TaskType.TASK, after.getId(), before, after));
+                journal.commit();
+            }
+        }
+        double writeSeconds = (System.nanoTime() - start) / 1e9;
+        long records = taskCount + (long) updates;
+
+        System.out.printf("журнал: %d записей, %.1f МиБ, %.1f байт на запись (с COMMIT)%n", records,
+                Files.size(file) / 1024.0 / 1024.0, Files.size(file) / (double) records);
+        System.out.printf("запись: %.0f записей/с%n", records / writeSeconds);
+
+        for (int i = 0; i < 5; i++) {
+            Map<Integer, Task> state = new HashMap<>();
+            start = System.nanoTime();
+            long replayed = TaskJournal.replay(file, state);
+            double replaySeconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("восстановление: %d записей за %.0f мс, %.1f млн записей/с%n", replayed,
+                    replaySeconds * 1000, replayed / replaySeconds / 1e6);
+        }
+
+        Files.delete(file);
+        Files.delete(file.getParent());
+    }
+}
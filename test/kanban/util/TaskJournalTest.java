@@ -0,0 +1,130 @@
+package kanban.util;
+
+import kanban.managers.TaskEvent;
+import kanban.tasks.Epic;
+import kanban.tasks.Subtask;
+import kanban.tasks.Task;
+import kanban.tasks.TaskStatus;
+import kanban.tasks.TaskType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static kanban.lib.TestAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskJournalTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+
+    @Test
+    @DisplayName("Журнал применяет создание, изменение полей и удаление")
+    public void givenJournal_whenReplay_gotFinalState() throws IOException {
+        Path file = Files.createTempDirectory("journal").resolve("tasks.journal");
+        Task task = new Task(1, "task", "desc", TaskStatus.NEW, START, Duration.ofMinutes(30));
+        Epic epic = new Epic(2, "epic", "Описание");
+        Subtask sub = new Subtask(3, "sub", null, TaskStatus.NEW, 2, null, null);
+        Task removed = new Task(4, "removed", "desc", null, null);
+
+        try (TaskJournal journal = TaskJournal.open(file, CSVFormat.SyncPolicy.NONE)) {
+            journal.append(created(task));
+            journal.append(created(epic));
+            journal.append(created(sub));
+            journal.append(created(removed));
+            journal.commit();
+            journal.append(updated(task, task.withStatus(TaskStatus.DONE).withStartTime(null)));
+            journal.append(updated(sub, sub.withDuration(Duration.ofHours(2))));
+            journal.append(new TaskEvent(TaskEvent.Type.DELETED, TaskType.TASK, 4, removed, null));
+            journal.commit();
+        }
+
+        Map<Integer, Task> tasks = new HashMap<>();
+        assertEquals(7, TaskJournal.replay(file, tasks));
+
+        assertEquals(3, tasks.size());
+        assertTaskEquals(new Task(1, "task", "desc", TaskStatus.DONE, null, Duration.ofMinutes(30)), tasks.get(1));
+        assertEquals("Описание", tasks.get(2).getDescription());
+        assertSubtaskEquals(sub.withDuration(Duration.ofHours(2)), (Subtask) tasks.get(3));
+    }
+
+    @Test
+    @DisplayName("В журнал попадают только изменившиеся поля")
+    public void givenUnchangedFields_whenAppend_gotSmallRecord() throws IOException {
+        Path file = Files.createTempDirectory("journal").resolve("tasks.journal");
+        Task task = new Task(1, "task", "d".repeat(1000), TaskStatus.NEW, START, Duration.ofMinutes(30));
+
+        try (TaskJournal journal = TaskJournal.open(file, CSVFormat.SyncPolicy.NONE)) {
+            journal.append(created(task));
+            journal.commit();
+            long createdSize = journal.size();
+            journal.append(updated(task, task.withStatus(TaskStatus.IN_PROGRESS)));
+            journal.commit();
+
+            assertTrue(journal.size() - createdSize < 32);
+        }
+    }
+
+    @Test
+    @DisplayName("Незавершенная операция и испорченный хвост отбрасываются и отрезаются от файла")
+    public void givenCorruptedTail_whenReplay_gotCommittedPrefix() throws IOException {
+        Path file = Files.createTempDirectory("journal").resolve("tasks.journal");
+        long committedSize;
+
+        try (TaskJournal journal = TaskJournal.open(file, CSVFormat.SyncPolicy.PER_COMMIT)) {
+            journal.append(created(new Task(1, "task1", "desc", null, null)));
+            journal.commit();
+            committedSize = journal.size();
+            journal.append(created(new Task(2, "task2", "desc", null, null)));
+            journal.commit();
+        }
+
+        // портим последний байт второй операции - контрольная сумма не сойдется
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long last = channel.size() - 1;
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, last);
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) ~b.get(0)}), last);
+        }
+
+        Map<Integer, Task> tasks = new HashMap<>();
+        assertEquals(1, TaskJournal.replay(file, tasks));
+        assertEquals(1, tasks.size());
+        assertEquals(committedSize, Files.size(file));
+
+        // после обрезки в журнал снова можно дописывать
+        try (TaskJournal journal = TaskJournal.open(file, CSVFormat.SyncPolicy.NONE)) {
+            journal.append(created(new Task(3, "task3", "desc", null, null)));
+            journal.commit();
+        }
+        tasks.clear();
+        assertEquals(2, TaskJournal.replay(file, tasks));
+        assertEquals(2, tasks.size());
+    }
+
+    @Test
+    @DisplayName("Чужой файл не читается как журнал")
+    public void givenNotJournal_whenReplay_gotException() throws IOException {
+        Path file = Files.createTempFile("tasks", ".csv");
+        Files.writeString(file, "id;type;name");
+
+        assertThrows(IOException.class, () -> TaskJournal.replay(file, new HashMap<>()));
+    }
+
+    private static TaskEvent created(Task task) {
+        return new TaskEvent(TaskEvent.Type.CREATED, task.getType(), task.getId(), null, task);
+    }
+
+    private static TaskEvent updated(Task before, Task after) {
+        return new TaskEvent(TaskEvent.Type.UPDATED, after.getType(), after.getId(), before, after);
+    }
+}
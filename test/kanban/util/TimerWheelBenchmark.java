@@ -0,0 +1,46 @@
+package kanban.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Замеряет добавление, отмену и продвижение колеса таймеров на миллионах сроков, разбросанных на год вперед.
+// Запуск: java kanban.util.TimerWheelBenchmark [таймеров]
+public class TimerWheelBenchmark {
+
+    private static final long YEAR_SECONDS = 365L * 24 * 3600;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        for (int round = 0; round < 3; round++) {
+            long start = 1_700_000_000L;
+            TimerWheel<Integer> wheel = new TimerWheel<>(start);
+            Random random = new Random(round);
+            List<TimerWheel.Timeout<Integer>> timeouts = new ArrayList<>(count);
+
+            long time = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                timeouts.add(wheel.schedule(start + 1 + (long) (random.nextDouble() * YEAR_SECONDS), i));
+            }
+            double scheduleNs = (double) (System.nanoTime() - time) / count;
+
+            time = System.nanoTime();
+            for (int i = 0; i < count; i += 2) {
+                wheel.cancel(timeouts.get(i));
+            }
+            double cancelNs = (double) (System.nanoTime() - time) / (count / 2);
+
+            // сутки по секунде, как продвигает DeadlineNotifier
+            time = System.nanoTime();
+            int fired = 0;
+            for (long tick = start + 1; tick <= start + 24 * 3600; tick++) {
+                fired += wheel.advance(tick).size();
+            }
+            double advanceNs = (double) (System.nanoTime() - time) / (24 * 3600);
+
+            System.out.printf("schedule %.0f нс, cancel %.0f нс, advance %.0f нс на такт (сработало %d, осталось %d)%n",
+                    scheduleNs, cancelNs, advanceNs, fired, wheel.size());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package kanban.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    @Test
+    @DisplayName("Таймеры срабатывают ровно в свой такт, в том числе после переноса с верхних уровней")
+    public void givenTimersOnAllLevels_whenAdvanceByTick_gotEachFiredOnItsTick() {
+        long start = 1_700_000_000L;
+        TimerWheel<Long> wheel = new TimerWheel<>(start);
+        Random random = new Random(7);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long deadline = start + 1 + random.nextInt(i % 2 == 0 ? 100 : 300_000);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        int fired = 0;
+        for (long tick = start + 1; tick <= start + 300_000; tick++) {
+            for (long deadline : wheel.advance(tick)) {
+                assertEquals(tick, deadline);
+                fired++;
+            }
+        }
+
+        assertEquals(deadlines.size(), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Отмененный таймер не срабатывает, повторная отмена возвращает false")
+    public void givenCancelledTimer_whenAdvance_gotNotFired() {
+        TimerWheel<String> wheel = new TimerWheel<>(100);
+        TimerWheel.Timeout<String> cancelled = wheel.schedule(5000, "cancelled");
+        wheel.schedule(5000, "kept");
+
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+        assertEquals(List.of("kept"), wheel.advance(10_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Прошедший срок срабатывает при следующем продвижении, пустое колесо продвигается сразу")
+    public void givenPastDeadline_whenAdvance_gotFiredImmediately() {
+        TimerWheel<String> wheel = new TimerWheel<>(1000);
+        wheel.schedule(900, "past");
+
+        assertEquals(List.of("past"), wheel.advance(1000));
+        assertEquals(List.of(), wheel.advance(Long.MAX_VALUE / 2));
+        assertEquals(Long.MAX_VALUE / 2, wheel.getCurrentTick());
+    }
+}